@@ -1,20 +1,27 @@
 package escuela.edu.co;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import escuela.edu.co.accesslog.AccessLog;
+import escuela.edu.co.accesslog.impl.AsyncAccessLog;
 import escuela.edu.co.api.ApiRequestHandler;
-import escuela.edu.co.request.RequestHandler;
+import escuela.edu.co.metrics.ServerMetrics;
 import escuela.edu.co.request.impl.HttpRequestHandler;
 import escuela.edu.co.routing.Router;
-import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.ResponseCache;
+import escuela.edu.co.routing.impl.TrieRouter;
+import escuela.edu.co.server.ExecutionMode;
 import escuela.edu.co.server.HttpServerInterface;
+import escuela.edu.co.server.ServerConfig;
+import escuela.edu.co.server.impl.NioHttpServer;
 import escuela.edu.co.server.impl.SimpleHttpServer;
 import escuela.edu.co.staticfiles.StaticFileHandler;
-import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+import escuela.edu.co.staticfiles.impl.CachingStaticFileHandler;
 
 /**
  * Clase principal refactorizada siguiendo principios SOLID.
@@ -31,10 +38,14 @@ public class HttpServerApplication {
     
     public static void main(String[] args) throws IOException {
         // Configurar dependencias
-        Router router = new SimpleRouter();
-        StaticFileHandler staticFileHandler = new SimpleStaticFileHandler();
+        Router router = new TrieRouter();
+        StaticFileHandler staticFileHandler = CachingStaticFileHandler.fromSystemProperties();
         ApiRequestHandler apiRequestHandler = new ApiRequestHandler();
-        RequestHandler requestHandler = new HttpRequestHandler(router, staticFileHandler, apiRequestHandler);
+        ServerConfig config = ServerConfig.fromSystemProperties();
+        ServerMetrics metrics = new ServerMetrics();
+        HttpRequestHandler requestHandler = new HttpRequestHandler(router, staticFileHandler, apiRequestHandler,
+                config.getKeepAliveTimeoutMillis(), config.getMaxKeepAliveRequests(), metrics, openAccessLog());
+        registerMetricsRoute(router, metrics);
         
         // Almacenar referencias globales para compatibilidad
         globalRouter = router;
@@ -57,8 +68,8 @@ public class HttpServerApplication {
             }
         }
         
-        // Crear y iniciar servidor
-        HttpServerInterface server = new SimpleHttpServer(port, requestHandler);
+        // Crear y iniciar servidor (modo configurable con -Dhttp.server.mode=pooled|virtual|event_loop)
+        HttpServerInterface server = createServer(port, requestHandler, config);
         server.start();
     }
     
@@ -75,7 +86,9 @@ public class HttpServerApplication {
                     name, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         });
         
-        get("/app/pi", (req, resp) -> String.valueOf(Math.PI));
+        // El resultado nunca cambia: se codifica una vez y se reenvía desde la caché
+        ResponseCache responseCache = ResponseCache.fromSystemProperties();
+        get("/app/pi", responseCache.cached((req, resp) -> String.valueOf(Math.PI), Duration.ofHours(1)));
     }
     
     /**
@@ -114,9 +127,84 @@ public class HttpServerApplication {
      * @return instancia del servidor configurada
      */
     public static HttpServerInterface createServer(int port, Router router, StaticFileHandler staticFileHandler) {
+        return createServer(port, router, staticFileHandler, ServerConfig.sequential());
+    }
+    
+    /**
+     * Crea una nueva instancia del servidor con configuración y modelo de concurrencia personalizados.
+     * No registra métricas; para consultarlas use
+     * {@link #createServer(int, Router, StaticFileHandler, ServerConfig, ServerMetrics)}.
+     * 
+     * @param port puerto del servidor
+     * @param router router personalizado
+     * @param staticFileHandler manejador de archivos estáticos personalizado
+     * @param config modelo de concurrencia y política de keep-alive
+     * @return instancia del servidor configurada
+     */
+    public static HttpServerInterface createServer(int port, Router router, StaticFileHandler staticFileHandler,
+                                                   ServerConfig config) {
+        return createServer(port, router, staticFileHandler, config, ServerMetrics.DISABLED);
+    }
+    
+    /**
+     * Igual que {@link #createServer(int, Router, StaticFileHandler, ServerConfig)}, registrando las métricas
+     * en la instancia recibida, que el llamador puede consultar o publicar con {@link ServerMetrics#export()}.
+     * 
+     * @param port puerto del servidor
+     * @param router router personalizado
+     * @param staticFileHandler manejador de archivos estáticos personalizado
+     * @param config modelo de concurrencia y política de keep-alive
+     * @param metrics donde se registran conexiones, solicitudes y latencias
+     * @return instancia del servidor configurada
+     */
+    public static HttpServerInterface createServer(int port, Router router, StaticFileHandler staticFileHandler,
+                                                   ServerConfig config, ServerMetrics metrics) {
         ApiRequestHandler apiRequestHandler = new ApiRequestHandler();
-        RequestHandler requestHandler = new HttpRequestHandler(router, staticFileHandler, apiRequestHandler);
-        return new SimpleHttpServer(port, requestHandler);
+        HttpRequestHandler requestHandler = new HttpRequestHandler(router, staticFileHandler, apiRequestHandler,
+                config.getKeepAliveTimeoutMillis(), config.getMaxKeepAliveRequests(), metrics);
+        return createServer(port, requestHandler, config);
+    }
+    
+    /**
+     * Registro de acceso de la aplicación según {@code -Dhttp.accesslog.file}. Se abre una sola vez en
+     * {@link #main} y se cierra al terminar la JVM para escribir las entradas que sigan en el buffer;
+     * los servidores de {@link #createServer} no abren archivos ni hilos de registro.
+     * Si el archivo no se puede abrir el servidor arranca sin registro.
+     */
+    private static AccessLog openAccessLog() {
+        try {
+            AccessLog accessLog = AsyncAccessLog.fromSystemProperties();
+            if (accessLog != AccessLog.DISABLED) {
+                Runtime.getRuntime().addShutdownHook(new Thread(accessLog::close, "http-access-log-close"));
+            }
+            return accessLog;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo abrir el registro de acceso, se continúa sin él", e);
+            return AccessLog.DISABLED;
+        }
+    }
+    
+    /**
+     * Publica las métricas en formato Prometheus en el path de {@code -Dhttp.metrics.path}. Solo lo usa
+     * {@link #main}: los servidores de {@link #createServer} no agregan rutas al Router recibido.
+     * No se registra si el path está vacío o si la aplicación ya tiene una ruta en él.
+     */
+    private static void registerMetricsRoute(Router router, ServerMetrics metrics) {
+        String path = System.getProperty(ServerMetrics.METRICS_PATH_PROPERTY, "");
+        if (path.isBlank() || !router.allowedMethods(path).isEmpty()) {
+            return;
+        }
+        router.registerRoute("GET", path, ServerMetrics.CONTENT_TYPE, (req, resp) -> metrics.export());
+    }
+    
+    /**
+     * Elige el motor según el modo: NIO para {@link ExecutionMode#EVENT_LOOP}, bloqueante en otro caso.
+     */
+    private static HttpServerInterface createServer(int port, HttpRequestHandler requestHandler, ServerConfig config) {
+        if (config.getMode() == ExecutionMode.EVENT_LOOP) {
+            return new NioHttpServer(port, requestHandler, config.getWorkerThreads());
+        }
+        return new SimpleHttpServer(port, requestHandler, config);
     }
     
     /**
@@ -126,8 +214,19 @@ public class HttpServerApplication {
      * @return instancia del servidor con configuración por defecto
      */
     public static HttpServerInterface createServer(int port) {
-        Router router = new SimpleRouter();
-        StaticFileHandler staticFileHandler = new SimpleStaticFileHandler();
-        return createServer(port, router, staticFileHandler);
+        return createServer(port, ServerConfig.sequential());
+    }
+    
+    /**
+     * Crea una nueva instancia del servidor con el modelo de concurrencia indicado.
+     * 
+     * @param port puerto del servidor
+     * @param config modelo de concurrencia (secuencial o pool acotado)
+     * @return instancia del servidor con router y archivos estáticos por defecto
+     */
+    public static HttpServerInterface createServer(int port, ServerConfig config) {
+        Router router = new TrieRouter();
+        StaticFileHandler staticFileHandler = CachingStaticFileHandler.fromSystemProperties();
+        return createServer(port, router, staticFileHandler, config);
     }
 }
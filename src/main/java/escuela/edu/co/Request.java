@@ -1,6 +1,6 @@
 package escuela.edu.co;
 
-import java.io.BufferedReader;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -10,15 +10,17 @@ public class Request {
     private final String path;
     private final Map<String, String> queryParams;
     private final Map<String, String> headers;
-    private final BufferedReader bodyReader;
+    private final RequestBody body;
+    private Map<String, String> pathParams = Collections.emptyMap();
+    private String route;
 
     public Request(String method, String path, Map<String, String> queryParams,
-                   Map<String, String> headers, BufferedReader bodyReader) {
+                   Map<String, String> headers, RequestBody body) {
         this.method = method;
         this.path = path;
         this.queryParams = queryParams != null ? queryParams : new HashMap<>();
         this.headers = headers != null ? headers : new HashMap<>();
-        this.bodyReader = bodyReader;
+        this.body = body != null ? body : RequestBody.EMPTY;
     }
 
     public String getMethod() { return method; }
@@ -34,6 +36,41 @@ public class Request {
         return queryParams.getOrDefault(key, "");
     }
 
+    /**
+     * Obtiene el valor de una variable de la plantilla de la ruta, por ejemplo {@code id} en {@code /app/users/{id}}.
+     * El comodín final {@code *} se guarda con el nombre {@code "*"}.
+     * Devuelve null si la ruta no define esa variable.
+     */
+    public String getPathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    public Map<String, String> getPathParams() {
+        return Collections.unmodifiableMap(pathParams);
+    }
+
+    /**
+     * Lo invoca el Router al resolver una ruta con variables.
+     */
+    public void setPathParams(Map<String, String> pathParams) {
+        this.pathParams = pathParams != null ? pathParams : Collections.emptyMap();
+    }
+
+    /**
+     * Plantilla de la ruta que resolvió la solicitud, por ejemplo {@code /app/users/{id}}.
+     * Devuelve null si ningún Router la atendió.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Lo invoca el Router al resolver una ruta.
+     */
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
     public Map<String, String> getQueryParams() {
         return Collections.unmodifiableMap(queryParams);
     }
@@ -43,19 +80,21 @@ public class Request {
     }
 
     /**
-     * Lee el cuerpo (body) si existe. Retorna null si no hay body o un error.
+     * Body de la solicitud, con acceso como stream, bytes o texto.
+     * Nunca es null: si la solicitud no trae body devuelve {@link RequestBody#EMPTY}.
+     */
+    public RequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * Lee el cuerpo (body) completo como texto UTF-8.
+     * Retorna cadena vacía si no hay body o null si ocurre un error.
      */
     public String readBody() {
-        if (bodyReader == null) return null;
         try {
-            StringBuilder sb = new StringBuilder();
-            while (bodyReader.ready()) {
-                int c = bodyReader.read();
-                if (c == -1) break;
-                sb.append((char) c);
-            }
-            return sb.toString();
-        } catch (Exception e) {
+            return body.asString();
+        } catch (UncheckedIOException e) {
             return null;
         }
     }
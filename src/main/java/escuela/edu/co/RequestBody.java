@@ -0,0 +1,120 @@
+package escuela.edu.co;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Body completo de una solicitud, ya delimitado por {@code Content-Length} o decodificado de
+ * {@code Transfer-Encoding: chunked}. Los bodies pequeños quedan en memoria y los grandes en un
+ * archivo temporal que se borra al cerrar el body, cuando termina la solicitud.
+ */
+public final class RequestBody implements Closeable {
+
+    public static final RequestBody EMPTY = new RequestBody(new byte[0], null, 0);
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long length;
+
+    private RequestBody(byte[] bytes, Path file, long length) {
+        this.bytes = bytes;
+        this.file = file;
+        this.length = length;
+    }
+
+    /**
+     * @param bytes contenido en memoria; no se copia
+     * @return el body
+     */
+    public static RequestBody of(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("El contenido no puede ser null");
+        }
+        return bytes.length == 0 ? EMPTY : new RequestBody(bytes, null, bytes.length);
+    }
+
+    /**
+     * @param file archivo temporal con el contenido; se borra en {@link #close()}
+     * @param length bytes del body
+     * @return el body
+     */
+    public static RequestBody ofFile(Path file, long length) {
+        if (file == null || length < 0) {
+            throw new IllegalArgumentException("Archivo o tamaño inválido");
+        }
+        return new RequestBody(null, file, length);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @return true si el body se guardó en disco por superar el umbral de memoria
+     */
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    /**
+     * Abre un stream nuevo sobre el body; lee exactamente {@link #length()} bytes y luego devuelve -1.
+     *
+     * @throws IOException si no se puede abrir el archivo temporal
+     */
+    public InputStream getInputStream() throws IOException {
+        return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * Devuelve el body completo en memoria. Para bodies grandes conviene {@link #getInputStream()}.
+     *
+     * @throws IOException si no se puede leer el archivo temporal
+     * @throws IllegalStateException si el body no cabe en un arreglo
+     */
+    public byte[] asBytes() throws IOException {
+        if (file == null) {
+            return bytes;
+        }
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Body demasiado grande para cargarlo en memoria: " + length);
+        }
+        return Files.readAllBytes(file);
+    }
+
+    /**
+     * @return el body decodificado como UTF-8
+     * @throws UncheckedIOException si no se puede leer el archivo temporal
+     */
+    public String asString() {
+        return asString(StandardCharsets.UTF_8);
+    }
+
+    public String asString(Charset charset) {
+        try {
+            return new String(asBytes(), charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Borra el archivo temporal, si existe.
+     */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -2,28 +2,97 @@ package escuela.edu.co;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpResponseHelper;
+import escuela.edu.co.utils.ResponseWriter;
+
 public class Response {
 
+    private static final String EVENT_STREAM_HEADERS = "Cache-Control: no-cache\r\n";
+
     private final OutputStream out;
+    private ResponseStream stream;
 
     public Response(OutputStream out) {
         this.out = out;
     }
 
+    /**
+     * Envía los headers de una respuesta 200 y devuelve el body para escribirlo mientras se genera,
+     * sin armarlo completo en memoria. Con HTTP/1.1 usa {@code Transfer-Encoding: chunked} y la conexión
+     * sigue abierta; con HTTP/1.0 el body termina al cerrar la conexión.
+     * El handler debe retornar null, porque la respuesta ya se está enviando.
+     *
+     * @param contentType valor del header Content-Type
+     * @return el body de la respuesta
+     * @throws IOException si ocurre un error al escribir
+     * @throws IllegalStateException si ya se empezó a enviar la respuesta
+     */
+    public ResponseStream startStream(String contentType) throws IOException {
+        return startStream(contentType, "");
+    }
+
+    /**
+     * Inicia un stream de Server-Sent Events ({@code text/event-stream}).
+     * El handler debe retornar null.
+     *
+     * @return el canal para enviar eventos
+     * @throws IOException si ocurre un error al escribir
+     * @throws IllegalStateException si ya se empezó a enviar la respuesta
+     */
+    public ServerSentEvents startEventStream() throws IOException {
+        return new ServerSentEvents(startStream("text/event-stream; charset=utf-8", EVENT_STREAM_HEADERS));
+    }
+
+    /**
+     * @return true si ya se enviaron los headers de una respuesta en streaming
+     */
+    public boolean isCommitted() {
+        return stream != null;
+    }
+
+    /**
+     * Stream de la conexión, para componentes que escriben respuestas ya codificadas,
+     * como {@link escuela.edu.co.routing.impl.ResponseCache}.
+     */
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * Cierra la respuesta en streaming si el handler la dejó abierta. Lo llama el servidor al terminar la solicitud.
+     */
+    public void finish() throws IOException {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private ResponseStream startStream(String contentType, String extraHeaders) throws IOException {
+        if (stream != null) {
+            throw new IllegalStateException("La respuesta ya se está enviando");
+        }
+        boolean chunked = !(out instanceof HttpOutputStream) || ((HttpOutputStream) out).isChunkedSupported();
+        if (chunked) {
+            extraHeaders = "Transfer-Encoding: chunked\r\n" + extraHeaders;
+        } else {
+            ((HttpOutputStream) out).setKeepAlive(false);
+        }
+        ResponseWriter.writeStreamHead(out, "200 OK", contentType, extraHeaders);
+        stream = new ResponseStream(out, chunked);
+        return stream;
+    }
+
     /**
      * Envía una respuesta de texto plano con código 200.
      */
     public void sendText(String body) throws IOException {
         if (body == null) body = "";
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-        String headers = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: text/plain; charset=utf-8\r\n" +
-                "Content-Length: " + bytes.length + "\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(headers.getBytes(StandardCharsets.UTF_8));
-        out.write(bytes);
+        HttpResponseHelper.sendResponse(out, "200 OK", "text/plain; charset=utf-8", "",
+                body.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -31,14 +100,8 @@ public class Response {
      */
     public void sendJson(String json) throws IOException {
         if (json == null) json = "{}";
-        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
-        String headers = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: application/json; charset=utf-8\r\n" +
-                "Content-Length: " + bytes.length + "\r\n" +
-                "Access-Control-Allow-Origin: *\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(headers.getBytes(StandardCharsets.UTF_8));
-        out.write(bytes);
+        HttpResponseHelper.sendResponse(out, "200 OK", "application/json; charset=utf-8",
+                "Access-Control-Allow-Origin: *\r\n", json.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -46,13 +109,41 @@ public class Response {
      */
     public void sendWithContentType(String body, String contentType) throws IOException {
         if (body == null) body = "";
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-        String headers = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: " + contentType + "\r\n" +
-                "Content-Length: " + bytes.length + "\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(headers.getBytes(StandardCharsets.UTF_8));
-        out.write(bytes);
+        HttpResponseHelper.sendResponse(out, "200 OK", contentType, "", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Envía bytes ya codificados con Content-Type personalizado, sin pasar por {@code String}.
+     * Los tipos de texto se comprimen si el cliente lo acepta, igual que las demás respuestas.
+     *
+     * @param body el body; no debe modificarse después, porque la salida puede retenerlo hasta enviarlo
+     * @param contentType valor del header Content-Type
+     */
+    public void sendWithContentType(byte[] body, String contentType) throws IOException {
+        if (body == null) body = new byte[0];
+        HttpResponseHelper.sendResponse(out, "200 OK", contentType, "", body);
+    }
+
+    /**
+     * Envía el contenido de un {@link ByteBuffer} (entre position y limit) tal cual, sin comprimirlo
+     * ni copiarlo cuando la conexión expone su canal. Para reutilizar un mismo buffer en varias respuestas
+     * debe pasarse {@code buffer.duplicate()}, porque el envío lo consume.
+     *
+     * @param body el body; no debe modificarse hasta que se envíe
+     * @param contentType valor del header Content-Type
+     */
+    public void sendWithContentType(ByteBuffer body, String contentType) throws IOException {
+        if (body == null) body = ByteBuffer.allocate(0);
+        ResponseWriter.write(out, "200 OK", contentType, "", body);
+    }
+
+    /**
+     * Envía 400 Bad Request con el motivo en texto plano; el mensaje puede contener datos del cliente.
+     */
+    public void send400(String message) throws IOException {
+        if (message == null) message = "";
+        HttpResponseHelper.sendResponse(out, "400 Bad Request", "text/plain; charset=utf-8", "",
+                message.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -60,13 +151,8 @@ public class Response {
      */
     public void send404(String path) throws IOException {
         String body = "<h1>404 - No encontrado</h1><p>Recurso no encontrado: " + path + "</p>";
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-        String headers = "HTTP/1.1 404 Not Found\r\n" +
-                "Content-Type: text/html; charset=utf-8\r\n" +
-                "Content-Length: " + bytes.length + "\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(headers.getBytes(StandardCharsets.UTF_8));
-        out.write(bytes);
+        HttpResponseHelper.sendResponse(out, "404 Not Found", "text/html; charset=utf-8", "",
+                body.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -74,12 +160,7 @@ public class Response {
      */
     public void send405() throws IOException {
         String body = "<h1>405 - Método no permitido</h1>";
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
-        String headers = "HTTP/1.1 405 Method Not Allowed\r\n" +
-                "Content-Type: text/html; charset=utf-8\r\n" +
-                "Content-Length: " + bytes.length + "\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(headers.getBytes(StandardCharsets.UTF_8));
-        out.write(bytes);
+        HttpResponseHelper.sendResponse(out, "405 Method Not Allowed", "text/html; charset=utf-8", "",
+                body.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,133 @@
+package escuela.edu.co;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Body de una respuesta que se envía mientras se genera, obtenido con {@link Response#startStream(String)}.
+ * Con HTTP/1.1 cada bloque sale como un chunk de {@code Transfer-Encoding: chunked}; con HTTP/1.0 el body
+ * termina al cerrar la conexión. Acumula hasta {@link #BUFFER_SIZE} bytes antes de emitir un chunk para no
+ * enviar uno por cada escritura pequeña; {@link #flush()} lo emite antes y lo empuja al socket.
+ * {@link #close()} envía el chunk final; si el handler no lo cierra, lo hace el servidor al terminar la solicitud.
+ */
+public final class ResponseStream extends OutputStream {
+
+    /**
+     * Bytes acumulados antes de emitir un chunk.
+     */
+    public static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final boolean chunked;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] chunkHeader = new byte[10];
+    private int count;
+    private boolean closed;
+
+    ResponseStream(OutputStream out, boolean chunked) {
+        this.out = out;
+        this.chunked = chunked;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            emitBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len >= buffer.length) {
+            // Un bloque grande sale como su propio chunk, sin copiarlo al buffer
+            emitBuffer();
+            emit(b, off, len);
+            return;
+        }
+        if (len > buffer.length - count) {
+            emitBuffer();
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Escribe texto en UTF-8.
+     *
+     * @param text texto a agregar al body
+     * @throws IOException si el cliente cerró la conexión
+     */
+    public void write(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Emite lo acumulado y lo empuja al cliente, para que reciba los datos sin esperar más escrituras.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        emitBuffer();
+        out.flush();
+    }
+
+    /**
+     * Emite lo acumulado y, con chunked, el chunk final que cierra el body. Llamarlo de nuevo no hace nada.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        emitBuffer();
+        closed = true;
+        if (chunked) {
+            out.write(LAST_CHUNK);
+        }
+        out.flush();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void emitBuffer() throws IOException {
+        if (count > 0) {
+            emit(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void emit(byte[] b, int off, int len) throws IOException {
+        if (!chunked) {
+            out.write(b, off, len);
+            return;
+        }
+        int start = chunkHeader.length - 2;
+        chunkHeader[start] = '\r';
+        chunkHeader[start + 1] = '\n';
+        int size = len;
+        do {
+            chunkHeader[--start] = HEX_DIGITS[size & 0xF];
+            size >>>= 4;
+        } while (size != 0);
+        out.write(chunkHeader, start, chunkHeader.length - start);
+        out.write(b, off, len);
+        out.write(CRLF);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("La respuesta ya terminó");
+        }
+    }
+}
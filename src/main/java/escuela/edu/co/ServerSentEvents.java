@@ -0,0 +1,106 @@
+package escuela.edu.co;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Canal de Server-Sent Events ({@code text/event-stream}) obtenido con {@link Response#startEventStream()}.
+ * Cada evento se envía y se empuja al cliente de inmediato. Los datos con varias líneas se parten en
+ * varios campos {@code data:}, que el navegador vuelve a unir con saltos de línea.
+ * Un {@link IOException} al enviar indica que el cliente se desconectó.
+ */
+public final class ServerSentEvents implements Closeable {
+
+    private final ResponseStream stream;
+    private final StringBuilder event = new StringBuilder(128);
+
+    ServerSentEvents(ResponseStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Envía un evento sin nombre, que el navegador entrega a {@code onmessage}.
+     *
+     * @param data contenido del evento
+     * @throws IOException si el cliente cerró la conexión
+     */
+    public void send(String data) throws IOException {
+        send(null, null, data);
+    }
+
+    /**
+     * Envía un evento.
+     *
+     * @param id identificador que el navegador reenvía en {@code Last-Event-ID} al reconectarse, o null
+     * @param name nombre del evento para {@code addEventListener}, o null
+     * @param data contenido del evento
+     * @throws IOException si el cliente cerró la conexión
+     */
+    public void send(String id, String name, String data) throws IOException {
+        event.setLength(0);
+        if (id != null) {
+            field("id", id);
+        }
+        if (name != null) {
+            field("event", name);
+        }
+        int start = 0;
+        int newline;
+        while ((newline = data.indexOf('\n', start)) >= 0) {
+            field("data", data.substring(start, newline));
+            start = newline + 1;
+        }
+        field("data", data.substring(start));
+        emit();
+    }
+
+    /**
+     * Envía un comentario, que el navegador ignora; sirve para que proxies no corten una conexión inactiva.
+     *
+     * @param text texto del comentario
+     * @throws IOException si el cliente cerró la conexión
+     */
+    public void comment(String text) throws IOException {
+        event.setLength(0);
+        event.append(": ").append(text).append('\n');
+        emit();
+    }
+
+    /**
+     * Indica al navegador cuánto esperar antes de reconectarse si se pierde la conexión.
+     *
+     * @param millis tiempo de reconexión en milisegundos
+     * @throws IOException si el cliente cerró la conexión
+     */
+    public void retry(long millis) throws IOException {
+        event.setLength(0);
+        field("retry", Long.toString(millis));
+        emit();
+    }
+
+    /**
+     * Termina el stream de eventos.
+     */
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void field(String name, String value) {
+        event.append(name).append(": ");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // CR y LF terminan el campo en el protocolo: se descartan para no inyectar otros campos
+            if (c != '\r' && c != '\n') {
+                event.append(c);
+            }
+        }
+        event.append('\n');
+    }
+
+    private void emit() throws IOException {
+        event.append('\n');
+        stream.write(event.toString());
+        stream.flush();
+    }
+}
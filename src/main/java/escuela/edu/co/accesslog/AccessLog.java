@@ -0,0 +1,40 @@
+package escuela.edu.co.accesslog;
+
+/**
+ * Registro de acceso: una entrada por solicitud atendida con método, path, código, bytes y latencia.
+ * Las implementaciones se llaman desde el hilo que atiende la solicitud, por lo que no deben
+ * bloquearse en disco.
+ * Aplica el principio de inversión de dependencias (Dependency Inversion Principle).
+ */
+public interface AccessLog extends AutoCloseable {
+
+    /**
+     * Registro que descarta todas las entradas.
+     */
+    AccessLog DISABLED = new AccessLog() {
+        @Override
+        public void log(String method, String path, int status, long bytes, long nanos) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Registra una solicitud atendida.
+     *
+     * @param method método HTTP
+     * @param path path pedido, sin query string
+     * @param status código de la respuesta, 0 si no se escribió ninguna
+     * @param bytes bytes de la respuesta, headers incluidos
+     * @param nanos tiempo desde la solicitud decodificada hasta la respuesta escrita en el buffer de salida
+     */
+    void log(String method, String path, int status, long bytes, long nanos);
+
+    /**
+     * Escribe las entradas pendientes y libera el archivo.
+     */
+    @Override
+    void close();
+}
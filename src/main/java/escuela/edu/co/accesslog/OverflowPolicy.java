@@ -0,0 +1,18 @@
+package escuela.edu.co.accesslog;
+
+/**
+ * Qué hace un registro de acceso asíncrono cuando su buffer está lleno.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Descarta la entrada y la cuenta; la solicitud nunca espera.
+     */
+    DROP,
+
+    /**
+     * Espera a que el escritor libere espacio. No se pierden entradas, pero si el disco no da abasto
+     * las solicitudes se frenan al ritmo del escritor.
+     */
+    BLOCK
+}
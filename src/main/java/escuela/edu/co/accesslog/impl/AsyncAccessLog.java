@@ -0,0 +1,323 @@
+package escuela.edu.co.accesslog.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import escuela.edu.co.accesslog.AccessLog;
+import escuela.edu.co.accesslog.OverflowPolicy;
+
+/**
+ * Registro de acceso en un archivo, una línea JSON por solicitud:
+ * <pre>{"time":"2026-10-17T12:00:00.123Z","method":"GET","path":"/app/hello","status":200,"bytes":153,"duration_us":42}</pre>
+ * Los hilos de las solicitudes solo copian los campos a un buffer circular preasignado, sin locks ni objetos
+ * nuevos; un hilo escritor lo vacía por lotes, formatea las líneas y hace una escritura por lote.
+ * Si el buffer se llena la entrada se descarta o se espera según la {@link OverflowPolicy}.
+ * Aplica el principio de responsabilidad única (Single Responsibility Principle).
+ */
+public final class AsyncAccessLog implements AccessLog {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncAccessLog.class.getName());
+
+    /**
+     * Archivo del registro; sin definir o vacío, el registro está desactivado.
+     */
+    public static final String FILE_PROPERTY = "http.accesslog.file";
+    public static final String BUFFER_PROPERTY = "http.accesslog.buffer";
+    public static final String OVERFLOW_PROPERTY = "http.accesslog.overflow";
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    // Sin entradas, el escritor revisa el buffer con esperas que se duplican de 1 ms hasta 100 ms,
+    // en lugar de que cada solicitud lo despierte; al encontrar entradas vuelve a 1 ms
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DROP_WARNING_INTERVAL_MILLIS = 10_000;
+    private static final int LINE_ESTIMATE = 128;
+
+    private final Ring ring;
+    private final OverflowPolicy overflowPolicy;
+    private final FileChannel channel;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    // Solo los usa el hilo escritor
+    private final StringBuilder batch;
+    private long droppedReported;
+    private long lastDropWarning;
+
+    /**
+     * Lee la configuración de {@code -Dhttp.accesslog.file}, {@code -Dhttp.accesslog.buffer}
+     * (entradas, por defecto 8192) y {@code -Dhttp.accesslog.overflow} ({@code drop} o {@code block}).
+     *
+     * @return el registro, o {@link AccessLog#DISABLED} si no se indicó archivo
+     * @throws IOException si no se puede abrir el archivo
+     */
+    public static AccessLog fromSystemProperties() throws IOException {
+        String file = System.getProperty(FILE_PROPERTY, "");
+        if (file.isBlank()) {
+            return AccessLog.DISABLED;
+        }
+        String overflow = System.getProperty(OVERFLOW_PROPERTY, OverflowPolicy.DROP.name());
+        return new AsyncAccessLog(Paths.get(file.trim()), Integer.getInteger(BUFFER_PROPERTY, DEFAULT_CAPACITY),
+                OverflowPolicy.valueOf(overflow.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Abre el archivo (las líneas se agregan al final) e inicia el hilo escritor.
+     *
+     * @param file archivo del registro
+     * @param capacity entradas que caben en el buffer (mínimo 2); se redondea a la siguiente potencia de dos
+     * @param overflowPolicy qué hacer cuando el buffer está lleno
+     * @throws IOException si no se puede abrir el archivo
+     */
+    public AsyncAccessLog(Path file, int capacity, OverflowPolicy overflowPolicy) throws IOException {
+        if (file == null || overflowPolicy == null) {
+            throw new IllegalArgumentException("El archivo y la política no pueden ser null");
+        }
+        if (capacity < 2 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("La capacidad debe estar entre 2 y 2^24: " + capacity);
+        }
+        this.ring = new Ring(Integer.highestOneBit(capacity - 1) << 1);
+        this.overflowPolicy = overflowPolicy;
+        this.batch = new StringBuilder(Math.min(ring.capacity(), 1024) * LINE_ESTIMATE);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.writer = new Thread(this::drainLoop, "http-access-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void log(String method, String path, int status, long bytes, long nanos) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        long time = System.currentTimeMillis();
+        while (!ring.offer(time, method, path, status, bytes, nanos)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * @return entradas descartadas porque el buffer estaba lleno o el registro ya estaba cerrado
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Detiene el escritor después de vaciar el buffer y cierra el archivo. Las entradas que lleguen
+     * después se descartan.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error cerrando el registro de acceso", e);
+        }
+    }
+
+    private void drainLoop() {
+        long idlePark = MIN_IDLE_PARK_NANOS;
+        while (true) {
+            // Se lee antes de vaciar: si ya no corre, lo que quede ahora es lo último
+            boolean stopping = !running;
+            int lines = 0;
+            while (lines < ring.capacity() && ring.poll(batch)) {
+                lines++;
+            }
+            if (lines > 0) {
+                writeBatch();
+            }
+            reportDropped();
+            if (stopping && lines == 0) {
+                return;
+            }
+            if (lines > 0) {
+                idlePark = MIN_IDLE_PARK_NANOS;
+            } else {
+                LockSupport.parkNanos(idlePark);
+                idlePark = Math.min(idlePark * 2, MAX_IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Una sola escritura por lote; sin fsync, el sistema operativo decide cuándo llega al disco.
+     */
+    private void writeBatch() {
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        batch.setLength(0);
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error escribiendo el registro de acceso; se pierde el lote", e);
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        long now = System.currentTimeMillis();
+        if (total > droppedReported && now - lastDropWarning >= DROP_WARNING_INTERVAL_MILLIS) {
+            LOGGER.warning("Registro de acceso lleno: " + (total - droppedReported) + " entradas descartadas");
+            droppedReported = total;
+            lastDropWarning = now;
+        }
+    }
+
+    private static void appendLine(StringBuilder out, long time, String method, String path, int status,
+                                   long bytes, long nanos) {
+        out.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(time), out);
+        out.append("\",\"method\":\"");
+        appendEscaped(out, method);
+        out.append("\",\"path\":\"");
+        appendEscaped(out, path);
+        out.append("\",\"status\":").append(status)
+                .append(",\"bytes\":").append(bytes)
+                .append(",\"duration_us\":").append(TimeUnit.NANOSECONDS.toMicros(nanos))
+                .append("}\n");
+    }
+
+    /**
+     * El path viene del cliente: se escapan comillas, barras invertidas y caracteres de control
+     * para que una solicitud no pueda romper ni falsificar líneas.
+     */
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20 || c == 0x7f) {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Buffer circular acotado de varios productores y un consumidor (esquema de Vyukov). Cada celda tiene
+     * un número de secuencia: el productor reserva una posición con un CAS sobre {@code tail}, copia los
+     * campos y publica la celda con una escritura volátil de la secuencia; el consumidor la libera igual.
+     * Los campos viven en arreglos paralelos preasignados, así que encolar no crea objetos.
+     */
+    private static final class Ring {
+
+        private final int mask;
+        private final AtomicLongArray sequences;
+        private final long[] times;
+        private final String[] methods;
+        private final String[] paths;
+        private final int[] statuses;
+        private final long[] bytes;
+        private final long[] durations;
+        private final AtomicLong tail = new AtomicLong();
+        // Solo lo usa el hilo escritor
+        private long head;
+
+        Ring(int capacity) {
+            this.mask = capacity - 1;
+            this.sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            this.times = new long[capacity];
+            this.methods = new String[capacity];
+            this.paths = new String[capacity];
+            this.statuses = new int[capacity];
+            this.bytes = new long[capacity];
+            this.durations = new long[capacity];
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * @return false si el buffer está lleno
+         */
+        boolean offer(long time, String method, String path, int status, long length, long nanos) {
+            while (true) {
+                long pos = tail.get();
+                int cell = (int) pos & mask;
+                long diff = sequences.get(cell) - pos;
+                if (diff < 0) {
+                    // La celda todavía guarda la entrada de una vuelta anterior
+                    return false;
+                }
+                if (diff == 0 && tail.compareAndSet(pos, pos + 1)) {
+                    times[cell] = time;
+                    methods[cell] = method;
+                    paths[cell] = path;
+                    statuses[cell] = status;
+                    bytes[cell] = length;
+                    durations[cell] = nanos;
+                    sequences.set(cell, pos + 1);
+                    return true;
+                }
+                // Otro productor tomó la posición: se reintenta con la siguiente
+            }
+        }
+
+        /**
+         * Agrega la entrada más antigua a {@code out} como línea JSON y libera su celda.
+         *
+         * @return false si no hay entradas publicadas
+         */
+        boolean poll(StringBuilder out) {
+            int cell = (int) head & mask;
+            if (sequences.get(cell) != head + 1) {
+                return false;
+            }
+            appendLine(out, times[cell], methods[cell], paths[cell], statuses[cell], bytes[cell], durations[cell]);
+            methods[cell] = null;
+            paths[cell] = null;
+            sequences.set(cell, head + mask + 1);
+            head++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package escuela.edu.co.framework;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sirve las respuestas de un método {@link GetMapping} desde la caché de respuestas durante {@code ttl}.
+ * La llave es el path más los parámetros de query, así que el método debe dar la misma respuesta para los
+ * mismos parámetros; ver {@link escuela.edu.co.routing.impl.ResponseCache}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+
+    /**
+     * Tiempo que una respuesta guardada sigue vigente; debe ser positivo.
+     */
+    long ttl();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
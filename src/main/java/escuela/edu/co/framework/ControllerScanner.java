@@ -0,0 +1,127 @@
+package escuela.edu.co.framework;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Busca en el classpath las clases anotadas con {@link RestController} de un paquete y sus subpaquetes.
+ * {@link MicroSpringBoot} lo usa para los directorios y jars que no traen {@link RouteIndex}: recorre cada uno
+ * y carga cada clase del paquete, así que su costo crece con el tamaño del classpath.
+ */
+public final class ControllerScanner {
+
+    private ControllerScanner() {
+    }
+
+    /**
+     * @param basePackage paquete raíz, por ejemplo {@code escuela.edu.co}
+     * @param loader class loader donde buscar
+     * @return los controladores encontrados, ordenados por nombre
+     * @throws IOException si un directorio o jar no se puede leer
+     */
+    public static List<Class<?>> scan(String basePackage, ClassLoader loader) throws IOException {
+        return scan(basePackage, loader, false);
+    }
+
+    /**
+     * @param basePackage paquete raíz, por ejemplo {@code escuela.edu.co}
+     * @param loader class loader donde buscar
+     * @param skipIndexed true para omitir los directorios y jars que incluyen {@link RouteIndex#LOCATION},
+     *                    cuyos controladores ya salen del índice
+     * @return los controladores encontrados, ordenados por nombre
+     * @throws IOException si un directorio o jar no se puede leer
+     */
+    public static List<Class<?>> scan(String basePackage, ClassLoader loader, boolean skipIndexed) throws IOException {
+        String prefix = basePackage.replace('.', '/');
+        TreeSet<String> classNames = new TreeSet<>();
+        Enumeration<URL> roots = loader.getResources(prefix);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("file".equals(root.getProtocol())) {
+                Path directory = toPath(root);
+                if (!skipIndexed || !Files.exists(classpathRoot(directory, basePackage).resolve(RouteIndex.LOCATION))) {
+                    scanDirectory(directory, basePackage, classNames);
+                }
+            } else if ("jar".equals(root.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) root.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    if (!skipIndexed || jar.getEntry(RouteIndex.LOCATION) == null) {
+                        scanJar(jar, prefix + "/", classNames);
+                    }
+                }
+            }
+        }
+
+        List<Class<?>> controllers = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            if (type.isAnnotationPresent(RestController.class)) {
+                controllers.add(type);
+            }
+        }
+        return controllers;
+    }
+
+    private static void scanDirectory(Path directory, String basePackage, TreeSet<String> classNames)
+            throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.toString().endsWith(".class")).forEach(file -> {
+                String relative = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), ".");
+                String simple = relative.substring(0, relative.length() - ".class".length());
+                classNames.add(basePackage.isEmpty() ? simple : basePackage + "." + simple);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void scanJar(JarFile jar, String prefix, TreeSet<String> classNames) {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(prefix) && name.endsWith(".class")) {
+                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+    }
+
+    /**
+     * Sube desde el directorio del paquete hasta la raíz del classpath que lo contiene.
+     */
+    private static Path classpathRoot(Path packageDirectory, String basePackage) {
+        Path root = packageDirectory;
+        if (!basePackage.isEmpty()) {
+            for (int i = basePackage.split("\\.").length; i > 0 && root.getParent() != null; i--) {
+                root = root.getParent();
+            }
+        }
+        return root;
+    }
+
+    private static Path toPath(URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("URL inválida en el classpath: " + url, e);
+        }
+    }
+}
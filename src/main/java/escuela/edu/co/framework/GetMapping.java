@@ -5,4 +5,11 @@ import java.lang.annotation.RetentionPolicy;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface GetMapping {
     String value();
+
+    /**
+     * Content-Type de la respuesta. Si se indica, el resultado se envía con ese tipo sin inspeccionarlo;
+     * si no, un {@code String} se envía como JSON o texto según su primer carácter y un {@code byte[]}
+     * o {@code ByteBuffer} como {@code application/octet-stream}.
+     */
+    String produces() default "";
 }
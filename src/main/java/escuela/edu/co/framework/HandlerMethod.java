@@ -0,0 +1,311 @@
+package escuela.edu.co.framework;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.RouteHandler;
+import escuela.edu.co.utils.HttpRequestParser;
+
+/**
+ * Ruta de un controlador con la vinculación de parámetros resuelta una sola vez al registrarla.
+ * Cada parámetro obtiene al crear el handler la función que extrae su valor de la solicitud
+ * ({@link RequestParam}, {@link RequestBody}, o el {@link Request}/{@link Response} mismos) y la invocación
+ * pasa por un {@link MethodHandle} ya adaptado a {@code (Object[])Object}, de modo que atender
+ * una solicitud no recorre anotaciones ni usa {@code Method.invoke}.
+ * Los {@link RequestParam} se convierten con el conversor de {@link ParameterConverters} resuelto
+ * al registrar; un valor ausente o mal formado se responde con 400 sin invocar el método.
+ * Si el mapping declara {@code produces}, el resultado se envía con ese Content-Type sin que el Router
+ * lo inspeccione; los resultados {@code byte[]} y {@code ByteBuffer} se envían tal cual.
+ */
+public final class HandlerMethod implements RouteHandler {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+
+    private final ParameterBinder[] binders;
+    private final MethodHandle invoker;
+    private final String produces;
+
+    private HandlerMethod(ParameterBinder[] binders, MethodHandle invoker, String produces) {
+        this.binders = binders;
+        this.invoker = invoker;
+        this.produces = produces;
+    }
+
+    /**
+     * Prepara el handler de un método anotado con {@link GetMapping}, {@link PostMapping},
+     * {@link PutMapping} o {@link DeleteMapping}.
+     *
+     * @param controller instancia del controlador (se ignora si el método es estático)
+     * @param method método público del controlador
+     * @return el handler listo para registrarse en el Router
+     * @throws IllegalArgumentException si el método no es accesible o un parámetro no puede vincularse
+     */
+    public static HandlerMethod of(Object controller, Method method) {
+        return of(controller, method, ParameterConverters.defaults());
+    }
+
+    /**
+     * Igual que {@link #of(Object, Method)} con conversores propios para los {@link RequestParam}.
+     *
+     * @param controller instancia del controlador (se ignora si el método es estático)
+     * @param method método público del controlador
+     * @param converters conversores de texto a los tipos de los parámetros
+     * @return el handler listo para registrarse en el Router
+     * @throws IllegalArgumentException si el método no es accesible o un parámetro no puede vincularse
+     */
+    public static HandlerMethod of(Object controller, Method method, ParameterConverters converters) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        int count = method.getParameterCount();
+        ParameterBinder[] binders = new ParameterBinder[count];
+        for (int i = 0; i < count; i++) {
+            binders[i] = binder(method, types[i], genericTypes[i], annotations[i], converters);
+        }
+
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("El método " + method.getName() + " debe ser público", e);
+        }
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(controller);
+        }
+        handle = handle.asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+        return new HandlerMethod(binders, handle, produces(method));
+    }
+
+    @Override
+    public String handle(Request req, Response res) throws Exception {
+        Object[] args = binders.length == 0 ? NO_ARGS : new Object[binders.length];
+        try {
+            for (int i = 0; i < args.length; i++) {
+                args[i] = binders[i].bind(req, res);
+            }
+        } catch (InvalidParameterException e) {
+            res.send400(e.getMessage());
+            return null;
+        }
+        Object result;
+        try {
+            result = (Object) invoker.invokeExact(args);
+        } catch (Exception e) {
+            return "Error al invocar método: " + e.getMessage();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+        if (result == null) {
+            // El método ya respondió con el Response, por ejemplo en streaming
+            return null;
+        }
+        if (result instanceof String) {
+            if (produces == null) {
+                return (String) result;
+            }
+            res.sendWithContentType((String) result, produces);
+            return null;
+        }
+        if (result instanceof byte[]) {
+            res.sendWithContentType((byte[]) result, produces != null ? produces : BINARY_CONTENT_TYPE);
+            return null;
+        }
+        if (result instanceof ByteBuffer) {
+            // duplicate(): el método puede devolver siempre el mismo buffer y el envío lo consume
+            res.sendWithContentType(((ByteBuffer) result).duplicate(),
+                    produces != null ? produces : BINARY_CONTENT_TYPE);
+            return null;
+        }
+        return "Error: El método debe retornar String, byte[] o ByteBuffer";
+    }
+
+    /**
+     * @return el {@code produces} del mapping del método, o null si no lo declara
+     */
+    private static String produces(Method method) {
+        String produces = "";
+        GetMapping get = method.getAnnotation(GetMapping.class);
+        PostMapping post = method.getAnnotation(PostMapping.class);
+        PutMapping put = method.getAnnotation(PutMapping.class);
+        DeleteMapping delete = method.getAnnotation(DeleteMapping.class);
+        if (get != null) {
+            produces = get.produces();
+        } else if (post != null) {
+            produces = post.produces();
+        } else if (put != null) {
+            produces = put.produces();
+        } else if (delete != null) {
+            produces = delete.produces();
+        }
+        return produces.isBlank() ? null : produces;
+    }
+
+    /**
+     * Resuelve cómo obtener el valor de un parámetro; se ejecuta una vez por método al registrar la ruta.
+     */
+    private static ParameterBinder binder(Method method, Class<?> type, Type genericType,
+                                          Annotation[] annotations, ParameterConverters converters) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof RequestParam) {
+                return paramBinder(method, type, genericType, (RequestParam) annotation, converters);
+            }
+            if (annotation instanceof RequestBody) {
+                return bodyBinder(method, type);
+            }
+        }
+        if (type == Request.class) {
+            return (req, res) -> req;
+        }
+        if (type == Response.class) {
+            return (req, res) -> res;
+        }
+        if (type != String.class) {
+            throw new IllegalArgumentException("El parámetro de tipo " + type.getName() + " de "
+                    + method.getName() + " necesita @RequestParam o @RequestBody");
+        }
+        // Parámetro sin anotación: se pasa cadena vacía, como antes
+        return (req, res) -> "";
+    }
+
+    /**
+     * Resuelve el conversor y convierte el valor por defecto al registrar, de modo que un
+     * {@code defaultValue} inválido falla al arrancar y no en cada solicitud.
+     */
+    private static ParameterBinder paramBinder(Method method, Class<?> type, Type genericType,
+                                               RequestParam param, ParameterConverters converters) {
+        String name = param.value();
+        boolean hasDefault = !RequestParam.NO_DEFAULT.equals(param.defaultValue());
+        boolean required = param.required() && !hasDefault;
+
+        if (type == Optional.class || type == List.class) {
+            Class<?> elementType = typeArgument(method, genericType);
+            Function<String, ?> converter = converters.converterFor(elementType);
+            boolean optional = type == Optional.class;
+            Function<String, Object> convert = optional
+                    ? value -> Optional.of(converter.apply(value))
+                    : value -> splitList(value, converter);
+            Object missing = hasDefault ? convertDefault(method, name, param.defaultValue(), convert)
+                    : optional ? Optional.empty() : Collections.emptyList();
+            boolean requiredValue = param.required() && !hasDefault && !optional;
+            return (req, res) -> convertParam(req, name, convert, requiredValue, missing);
+        }
+
+        @SuppressWarnings("unchecked")
+        Function<String, Object> convert = (Function<String, Object>) converters.converterFor(type);
+        if (type.isPrimitive() && !required && !hasDefault) {
+            throw new IllegalArgumentException("El parámetro primitivo '" + name + "' de " + method.getName()
+                    + " no puede ser opcional sin defaultValue");
+        }
+        Object missing = hasDefault ? convertDefault(method, name, param.defaultValue(), convert) : null;
+        return (req, res) -> convertParam(req, name, convert, required, missing);
+    }
+
+    private static Object convertParam(Request req, String name, Function<String, Object> convert,
+                                       boolean required, Object missing) throws InvalidParameterException {
+        String value = req.getValues(name);
+        if (value.isEmpty()) {
+            if (required) {
+                throw new InvalidParameterException("Falta el parámetro '" + name + "'");
+            }
+            return missing;
+        }
+        try {
+            return convert.apply(value);
+        } catch (RuntimeException e) {
+            throw new InvalidParameterException("Valor inválido para el parámetro '" + name + "': " + value);
+        }
+    }
+
+    private static Object convertDefault(Method method, String name, String defaultValue,
+                                         Function<String, Object> convert) {
+        try {
+            return convert.apply(defaultValue);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("defaultValue inválido para '" + name + "' en "
+                    + method.getName() + ": " + defaultValue, e);
+        }
+    }
+
+    private static List<Object> splitList(String value, Function<String, ?> converter) {
+        List<Object> values = new ArrayList<>();
+        int start = 0;
+        while (start <= value.length()) {
+            int comma = value.indexOf(',', start);
+            int end = comma < 0 ? value.length() : comma;
+            String item = value.substring(start, end).trim();
+            if (!item.isEmpty()) {
+                values.add(converter.apply(item));
+            }
+            start = end + 1;
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static Class<?> typeArgument(Method method, Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        throw new IllegalArgumentException("Tipo genérico no soportado para @RequestParam en "
+                + method.getName() + ": " + genericType.getTypeName());
+    }
+
+    private static ParameterBinder bodyBinder(Method method, Class<?> type) {
+        if (type == String.class) {
+            return (req, res) -> req.getBody().asString();
+        }
+        if (type == byte[].class) {
+            return (req, res) -> req.getBody().asBytes();
+        }
+        if (type == InputStream.class) {
+            return (req, res) -> req.getBody().getInputStream();
+        }
+        if (type == escuela.edu.co.RequestBody.class) {
+            return (req, res) -> req.getBody();
+        }
+        if (type == Map.class) {
+            return (req, res) -> HttpRequestParser.parseQueryString(req.getBody().asString());
+        }
+        throw new IllegalArgumentException("Tipo no soportado para @RequestBody en " + method.getName()
+                + ": " + type.getName());
+    }
+
+    /**
+     * Extrae el argumento de un parámetro a partir de la solicitud.
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        Object bind(Request req, Response res) throws IOException, InvalidParameterException;
+    }
+
+    /**
+     * Un parámetro falta o no se puede convertir; se responde con 400.
+     */
+    private static final class InvalidParameterException extends Exception {
+        InvalidParameterException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
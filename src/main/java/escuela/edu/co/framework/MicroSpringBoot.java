@@ -1,72 +1,264 @@
 package escuela.edu.co.framework;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
+import escuela.edu.co.RouteHandler;
+import escuela.edu.co.api.ApiRequestHandler;
 import escuela.edu.co.routing.Router;
-import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.ResponseCache;
+import escuela.edu.co.routing.impl.TrieRouter;
 import escuela.edu.co.server.HttpServerInterface;
 import escuela.edu.co.server.impl.SimpleHttpServer;
 import escuela.edu.co.staticfiles.StaticFileHandler;
-import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+import escuela.edu.co.staticfiles.impl.CachingStaticFileHandler;
 
+/**
+ * Arranca el framework: publica uno o todos los {@link RestController} de un paquete sobre un {@link TrieRouter}.
+ * Las rutas de los directorios y jars que incluyen el {@link RouteIndex} generado al compilar salen de él;
+ * los controladores del resto del classpath se buscan con {@link ControllerScanner}.
+ * El arranque se mide contra un presupuesto configurable con
+ * {@value #STARTUP_BUDGET_PROPERTY} (milisegundos, por defecto {@value #DEFAULT_STARTUP_BUDGET_MS})
+ * y se registra una advertencia si se supera.
+ * Los métodos con {@link Cacheable} se sirven desde una {@link ResponseCache} compartida, con el presupuesto de
+ * {@value ResponseCache#MAX_BYTES_PROPERTY}.
+ */
 public class MicroSpringBoot {
+
+    public static final String STARTUP_BUDGET_PROPERTY = "microspringboot.startup.budget.ms";
+    public static final long DEFAULT_STARTUP_BUDGET_MS = 500;
+
+    private static final Logger LOGGER = Logger.getLogger(MicroSpringBoot.class.getName());
+    private static final ResponseCache RESPONSE_CACHE = ResponseCache.fromSystemProperties();
+
     public static void main(String[] args) throws Exception {
+        long startNanos = System.nanoTime();
         if (args.length < 1) {
-            System.out.println("Debe especificar el nombre completo del POJO a cargar.");
+            System.out.println("Debe especificar el nombre completo del POJO o del paquete a cargar.");
             System.exit(1);
         }
-        String pojoClassName = args[0];
-        Class<?> pojoClass = Class.forName(pojoClassName);
-        if (!pojoClass.isAnnotationPresent(RestController.class)) {
-            System.out.println("La clase no tiene la anotación @RestController");
-            System.exit(1);
+        Router router = new TrieRouter();
+        int routes;
+        Class<?> pojoClass = loadClass(args[0]);
+        if (pojoClass != null) {
+            if (!pojoClass.isAnnotationPresent(RestController.class)) {
+                System.out.println("La clase no tiene la anotación @RestController");
+                System.exit(1);
+            }
+            routes = registerController(router, pojoClass.getDeclaredConstructor().newInstance());
+        } else {
+            routes = registerControllers(router, args[0], MicroSpringBoot.class.getClassLoader());
         }
-        Object pojoInstance = pojoClass.getDeclaredConstructor().newInstance();
-        Router router = new SimpleRouter();
-        StaticFileHandler staticFileHandler = new SimpleStaticFileHandler();
+        StaticFileHandler staticFileHandler = CachingStaticFileHandler.fromSystemProperties();
         int port = 35000;
-        // Registrar métodos anotados con @GetMapping y soportar @RequestParam
-        for (Method method : pojoClass.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(GetMapping.class)) {
-                GetMapping mapping = method.getAnnotation(GetMapping.class);
-                String path = mapping.value();
-                router.registerRoute(path, (req, resp) -> {
-                    try {
-                        // Preparar argumentos para el método
-                        Class<?>[] paramTypes = method.getParameterTypes();
-                        java.lang.annotation.Annotation[][] paramAnnotations = method.getParameterAnnotations();
-                        Object[] argsForMethod = new Object[paramTypes.length];
-                        for (int i = 0; i < paramTypes.length; i++) {
-                            RequestParam reqParam = null;
-                            for (java.lang.annotation.Annotation annotation : paramAnnotations[i]) {
-                                if (annotation instanceof RequestParam) {
-                                    reqParam = (RequestParam) annotation;
-                                    break;
-                                }
-                            }
-                            String value = reqParam != null ? reqParam.value() : null;
-                            String defaultValue = reqParam != null ? reqParam.defaultValue() : "";
-                            String paramValue = value != null ? req.getValues(value) : null;
-                            if (paramValue == null || paramValue.isEmpty()) {
-                                paramValue = defaultValue;
-                            }
-                            argsForMethod[i] = paramValue;
-                        }
-                        Object result = method.invoke(pojoInstance, argsForMethod);
-                        if (result instanceof String) {
-                            return (String) result;
-                        } else {
-                            return "Error: El método debe retornar String";
-                        }
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        return "Error al invocar método: " + e.getMessage();
-                    }
-                });
-                System.out.println("Ruta registrada: " + path);
+        HttpServerInterface server = new SimpleHttpServer(port, new escuela.edu.co.request.impl.HttpRequestHandler(router, staticFileHandler, new ApiRequestHandler()));
+        checkStartupBudget(routes, startNanos);
+        server.start();
+    }
+
+    /**
+     * Registra todos los controladores de un paquete y sus subpaquetes.
+     * Los directorios y jars con {@link RouteIndex} aportan sus rutas sin recorrerlos ni reflexionar sobre
+     * cada clase; los que no lo tienen (otro jar, clases compiladas sin el procesador o las de los tests) se
+     * recorren con {@link ControllerScanner}. Así las rutas registradas son las mismas haya o no índice.
+     * Cada controlador se instancia una vez con su constructor vacío.
+     *
+     * @param router router donde se registran las rutas
+     * @param basePackage paquete raíz de los controladores
+     * @param loader class loader de los controladores
+     * @return la cantidad de rutas registradas
+     * @throws IOException si el índice o el classpath no se pueden leer
+     * @throws IllegalArgumentException si un controlador no se puede instanciar o un método indexado no existe
+     */
+    public static int registerControllers(Router router, String basePackage, ClassLoader loader) throws IOException {
+        RouteIndex index = RouteIndex.load(loader);
+        if (index == null) {
+            LOGGER.info("Sin " + RouteIndex.LOCATION + ", buscando controladores en el classpath");
+            return scanControllers(router, basePackage, loader);
+        }
+
+        String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        Map<String, Object> controllers = new HashMap<>();
+        int routes = 0;
+        for (RouteIndex.Entry entry : index.entries()) {
+            if (!entry.getControllerClass().startsWith(prefix)) {
+                continue;
+            }
+            try {
+                Object controller = controllers.get(entry.getControllerClass());
+                if (controller == null) {
+                    controller = instantiate(Class.forName(entry.getControllerClass(), true, loader));
+                    controllers.put(entry.getControllerClass(), controller);
+                }
+                Method method = controller.getClass().getMethod(entry.getMethodName(),
+                        entry.resolveParameterTypes(loader));
+                router.registerRoute(entry.getHttpMethod(), entry.getPath(),
+                        handler(controller, method, entry.getHttpMethod(), ParameterConverters.defaults(),
+                                RESPONSE_CACHE));
+                routes++;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new IllegalArgumentException("El índice de rutas no coincide con las clases: " + entry.format(), e);
             }
         }
-        HttpServerInterface server = new SimpleHttpServer(port, new escuela.edu.co.request.impl.HttpRequestHandler(router, staticFileHandler, null));
-        server.start();
+
+        for (Class<?> controller : ControllerScanner.scan(basePackage, loader, true)) {
+            if (!controllers.containsKey(controller.getName())) {
+                LOGGER.info("Controlador fuera de " + RouteIndex.LOCATION + ", registrado por escaneo: "
+                        + controller.getName());
+                routes += registerController(router, instantiate(controller));
+            }
+        }
+        return routes;
+    }
+
+    private static int scanControllers(Router router, String basePackage, ClassLoader loader) throws IOException {
+        int routes = 0;
+        for (Class<?> controller : ControllerScanner.scan(basePackage, loader)) {
+            routes += registerController(router, instantiate(controller));
+        }
+        return routes;
+    }
+
+    /**
+     * Registra en el Router los métodos del controlador anotados con {@link GetMapping},
+     * {@link PostMapping}, {@link PutMapping} o {@link DeleteMapping}, cada uno en la tabla de su método HTTP.
+     * La vinculación de {@link RequestParam} y {@link RequestBody} se resuelve aquí, una sola vez por método.
+     *
+     * @param router router donde se registran las rutas; debe admitir los métodos usados
+     * @param controller instancia del controlador
+     */
+    public static int registerController(Router router, Object controller) {
+        return registerController(router, controller, ParameterConverters.defaults());
+    }
+
+    /**
+     * Igual que {@link #registerController(Router, Object)} con conversores propios para los {@link RequestParam}.
+     *
+     * @param router router donde se registran las rutas; debe admitir los métodos usados
+     * @param controller instancia del controlador
+     * @param converters conversores de texto a los tipos de los parámetros
+     * @return la cantidad de rutas registradas
+     */
+    public static int registerController(Router router, Object controller, ParameterConverters converters) {
+        return registerController(router, controller, converters, RESPONSE_CACHE);
+    }
+
+    /**
+     * Igual que {@link #registerController(Router, Object, ParameterConverters)} con una caché propia para
+     * los métodos {@link Cacheable}.
+     *
+     * @param router router donde se registran las rutas; debe admitir los métodos usados
+     * @param controller instancia del controlador
+     * @param converters conversores de texto a los tipos de los parámetros
+     * @param cache caché de las respuestas de los métodos {@link Cacheable}
+     * @return la cantidad de rutas registradas
+     * @throws IllegalArgumentException si {@link Cacheable} no está en un {@link GetMapping} o su TTL no es positivo
+     */
+    public static int registerController(Router router, Object controller, ParameterConverters converters,
+                                         ResponseCache cache) {
+        int routes = 0;
+        for (Method method : controller.getClass().getDeclaredMethods()) {
+            for (Annotation annotation : method.getAnnotations()) {
+                String httpMethod = httpMethod(annotation);
+                if (httpMethod != null) {
+                    String path = mappingPath(annotation);
+                    router.registerRoute(httpMethod, path, handler(controller, method, httpMethod, converters, cache));
+                    System.out.println("Ruta registrada: " + httpMethod + " " + path);
+                    routes++;
+                }
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * @return la caché compartida de los métodos {@link Cacheable}, por ejemplo para vaciarla
+     */
+    public static ResponseCache responseCache() {
+        return RESPONSE_CACHE;
+    }
+
+    /**
+     * Prepara el {@link HandlerMethod} y lo decora con la caché si el método es {@link Cacheable}.
+     */
+    private static RouteHandler handler(Object controller, Method method, String httpMethod,
+                                        ParameterConverters converters, ResponseCache cache) {
+        HandlerMethod handler = HandlerMethod.of(controller, method, converters);
+        Cacheable cacheable = method.getAnnotation(Cacheable.class);
+        if (cacheable == null) {
+            return handler;
+        }
+        if (!"GET".equals(httpMethod)) {
+            throw new IllegalArgumentException("@Cacheable solo aplica a métodos @GetMapping: " + method.getName());
+        }
+        return cache.cached(handler, Duration.of(cacheable.ttl(), cacheable.unit().toChronoUnit()));
+    }
+
+    /**
+     * Compara el tiempo de arranque con el presupuesto de {@value #STARTUP_BUDGET_PROPERTY}.
+     *
+     * @return true si el arranque cupo en el presupuesto
+     */
+    static boolean checkStartupBudget(int routes, long startNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        long budgetMs = Long.getLong(STARTUP_BUDGET_PROPERTY, DEFAULT_STARTUP_BUDGET_MS);
+        if (elapsedMs > budgetMs) {
+            LOGGER.warning("Arranque de " + routes + " rutas en " + elapsedMs + " ms, supera el presupuesto de "
+                    + budgetMs + " ms");
+            return false;
+        }
+        LOGGER.info("Arranque de " + routes + " rutas en " + elapsedMs + " ms (presupuesto " + budgetMs + " ms)");
+        return true;
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Object instantiate(Class<?> controller) {
+        try {
+            return controller.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No se pudo instanciar el controlador " + controller.getName(), e);
+        }
+    }
+
+    private static String httpMethod(Annotation annotation) {
+        if (annotation instanceof GetMapping) {
+            return "GET";
+        }
+        if (annotation instanceof PostMapping) {
+            return "POST";
+        }
+        if (annotation instanceof PutMapping) {
+            return "PUT";
+        }
+        if (annotation instanceof DeleteMapping) {
+            return "DELETE";
+        }
+        return null;
+    }
+
+    private static String mappingPath(Annotation annotation) {
+        if (annotation instanceof GetMapping) {
+            return ((GetMapping) annotation).value();
+        }
+        if (annotation instanceof PostMapping) {
+            return ((PostMapping) annotation).value();
+        }
+        if (annotation instanceof PutMapping) {
+            return ((PutMapping) annotation).value();
+        }
+        return ((DeleteMapping) annotation).value();
     }
 }
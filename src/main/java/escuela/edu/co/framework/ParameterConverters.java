@@ -0,0 +1,107 @@
+package escuela.edu.co.framework;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Registro inmutable de conversores de texto a los tipos que admite {@link RequestParam}.
+ * {@link HandlerMethod} busca el conversor de cada parámetro una sola vez, al registrar la ruta;
+ * atender una solicitud solo aplica la función ya resuelta.
+ * Por defecto incluye {@code String}, los primitivos y sus wrappers, {@link UUID} y cualquier enum.
+ * Un conversor que lanza una excepción indica un valor mal formado, que se responde con 400.
+ */
+public final class ParameterConverters {
+
+    private static final ParameterConverters DEFAULTS = new ParameterConverters(defaultConverters());
+
+    private final Map<Class<?>, Function<String, ?>> converters;
+
+    private ParameterConverters(Map<Class<?>, Function<String, ?>> converters) {
+        this.converters = converters;
+    }
+
+    /**
+     * @return los conversores por defecto
+     */
+    public static ParameterConverters defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Devuelve una copia con el conversor indicado para un tipo.
+     *
+     * @param type tipo del parámetro
+     * @param converter función que convierte el texto; debe lanzar una excepción si el valor es inválido
+     * @return nuevo registro con el conversor agregado o reemplazado
+     */
+    public <T> ParameterConverters with(Class<T> type, Function<String, ? extends T> converter) {
+        if (type == null || converter == null) {
+            throw new IllegalArgumentException("El tipo y el conversor no pueden ser null");
+        }
+        Map<Class<?>, Function<String, ?>> next = new HashMap<>(converters);
+        next.put(type, converter);
+        return new ParameterConverters(next);
+    }
+
+    /**
+     * @param type tipo del parámetro
+     * @return el conversor para el tipo
+     * @throws IllegalArgumentException si no hay conversor para el tipo
+     */
+    public Function<String, ?> converterFor(Class<?> type) {
+        Function<String, ?> converter = converters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return enumConverter(type.asSubclass(Enum.class));
+        }
+        throw new IllegalArgumentException("No hay conversor para el tipo " + type.getName());
+    }
+
+    private static <E extends Enum<E>> Function<String, E> enumConverter(Class<E> type) {
+        return value -> {
+            try {
+                return Enum.valueOf(type, value);
+            } catch (IllegalArgumentException e) {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            }
+        };
+    }
+
+    private static Map<Class<?>, Function<String, ?>> defaultConverters() {
+        Map<Class<?>, Function<String, ?>> converters = new HashMap<>();
+        converters.put(String.class, Function.identity());
+        register(converters, int.class, Integer.class, Integer::valueOf);
+        register(converters, long.class, Long.class, Long::valueOf);
+        register(converters, double.class, Double.class, Double::valueOf);
+        register(converters, float.class, Float.class, Float::valueOf);
+        register(converters, short.class, Short.class, Short::valueOf);
+        register(converters, byte.class, Byte.class, Byte::valueOf);
+        register(converters, boolean.class, Boolean.class, ParameterConverters::parseBoolean);
+        converters.put(UUID.class, UUID::fromString);
+        return converters;
+    }
+
+    private static void register(Map<Class<?>, Function<String, ?>> converters, Class<?> primitive,
+                                 Class<?> wrapper, Function<String, ?> converter) {
+        converters.put(primitive, converter);
+        converters.put(wrapper, converter);
+    }
+
+    /**
+     * A diferencia de {@link Boolean#parseBoolean}, rechaza cualquier valor que no sea true o false.
+     */
+    private static Boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("No es un booleano: " + value);
+    }
+}
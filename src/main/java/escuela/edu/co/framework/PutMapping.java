@@ -0,0 +1,13 @@
+package escuela.edu.co.framework;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PutMapping {
+    String value();
+
+    /**
+     * Content-Type de la respuesta, como en {@link GetMapping#produces()}.
+     */
+    String produces() default "";
+}
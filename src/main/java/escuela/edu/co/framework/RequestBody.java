@@ -0,0 +1,12 @@
+package escuela.edu.co.framework;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Vincula el body de la solicitud a un parámetro de tipo {@code String} (UTF-8), {@code byte[]},
+ * {@code InputStream}, {@link escuela.edu.co.RequestBody} o {@code Map<String, String>}
+ * (formulario {@code application/x-www-form-urlencoded}).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestBody {
+}
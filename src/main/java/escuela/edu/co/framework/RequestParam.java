@@ -2,8 +2,26 @@ package escuela.edu.co.framework;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+/**
+ * Vincula un parámetro del query string a un parámetro del método.
+ * El tipo puede ser {@code String}, un primitivo o su wrapper, un enum, {@code UUID},
+ * {@code Optional<T>} o {@code List<T>} (valores separados por comas); ver {@link ParameterConverters}.
+ * Un valor ausente sin {@link #defaultValue()}, o uno que no se puede convertir, se responde con 400.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequestParam {
+
+    /**
+     * Marca de {@link #defaultValue()} que indica que el parámetro no tiene valor por defecto.
+     */
+    String NO_DEFAULT = "\n\t\t\n";
+
     String value();
-    String defaultValue() default "";
+
+    String defaultValue() default NO_DEFAULT;
+
+    /**
+     * Si es false, un valor ausente se vincula como null, {@code Optional.empty()} o lista vacía.
+     */
+    boolean required() default true;
 }
@@ -0,0 +1,147 @@
+package escuela.edu.co.framework;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de rutas generado en compilación por {@link RouteIndexProcessor} y empaquetado en el jar.
+ * Con él, {@link MicroSpringBoot} arranca sin recorrer el classpath ni los métodos de cada controlador:
+ * carga solo las clases listadas y obtiene cada método por nombre y tipos de parámetros.
+ * Cada línea es {@code MÉTODO\tpath\tclase\tmétodo\ttipo1,tipo2}; las líneas con {@code #} son comentarios.
+ */
+public final class RouteIndex {
+
+    /**
+     * Recurso del classpath donde se guarda el índice.
+     */
+    public static final String LOCATION = "META-INF/microspringboot/routes.idx";
+
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "short", short.class, "char", char.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+    private final List<Entry> entries;
+
+    private RouteIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Lee y combina todos los índices del classpath (uno por jar o directorio de clases).
+     *
+     * @param loader class loader donde buscar el recurso
+     * @return el índice, o null si ningún jar lo incluye
+     * @throws IOException si un índice no se puede leer o está mal formado
+     */
+    public static RouteIndex load(ClassLoader loader) throws IOException {
+        Enumeration<URL> resources = loader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        entries.add(Entry.parse(line, url));
+                    }
+                }
+            }
+        }
+        return new RouteIndex(entries);
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Una ruta del índice.
+     */
+    public static final class Entry {
+
+        private final String httpMethod;
+        private final String path;
+        private final String controllerClass;
+        private final String methodName;
+        private final String[] parameterTypes;
+
+        public Entry(String httpMethod, String path, String controllerClass, String methodName,
+                     String[] parameterTypes) {
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.controllerClass = controllerClass;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes.clone();
+        }
+
+        static Entry parse(String line, URL source) throws IOException {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 5) {
+                throw new IOException("Línea inválida en " + source + ": " + line);
+            }
+            String[] types = fields[4].isEmpty() ? new String[0] : fields[4].split(",");
+            return new Entry(fields[0], fields[1], fields[2], fields[3], types);
+        }
+
+        /**
+         * @return la línea que representa la ruta en el índice
+         */
+        public String format() {
+            return httpMethod + "\t" + path + "\t" + controllerClass + "\t" + methodName + "\t"
+                    + String.join(",", parameterTypes);
+        }
+
+        public String getHttpMethod() {
+            return httpMethod;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getControllerClass() {
+            return controllerClass;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        /**
+         * Resuelve los tipos de los parámetros; los arreglos se escriben como {@code byte[]}.
+         *
+         * @param loader class loader del controlador
+         * @return las clases de los parámetros, en orden
+         * @throws ClassNotFoundException si un tipo no está en el classpath
+         */
+        public Class<?>[] resolveParameterTypes(ClassLoader loader) throws ClassNotFoundException {
+            Class<?>[] types = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = resolve(parameterTypes[i], loader);
+            }
+            return types;
+        }
+
+        private static Class<?> resolve(String name, ClassLoader loader) throws ClassNotFoundException {
+            if (name.endsWith("[]")) {
+                Class<?> component = resolve(name.substring(0, name.length() - 2), loader);
+                return Array.newInstance(component, 0).getClass();
+            }
+            Class<?> primitive = PRIMITIVES.get(name);
+            return primitive != null ? primitive : Class.forName(name, false, loader);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package escuela.edu.co.framework;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Procesador de anotaciones que escribe el {@link RouteIndex} con las rutas de cada {@link RestController}.
+ * Se ejecuta en la compilación del proyecto (ver la ejecución {@code route-index} del pom) y valida
+ * que los métodos mapeados sean públicos, para que el error aparezca al compilar y no al arrancar.
+ */
+@SupportedAnnotationTypes("escuela.edu.co.framework.RestController")
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RestController.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                indexController((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexController(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+        for (Element member : controller.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            for (Class<? extends Annotation> mapping : List.of(
+                    GetMapping.class, PostMapping.class, PutMapping.class, DeleteMapping.class)) {
+                String path = mappingPath(method, mapping);
+                if (path == null) {
+                    continue;
+                }
+                if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Los métodos mapeados deben ser públicos", method);
+                    continue;
+                }
+                List<String> types = new ArrayList<>();
+                for (VariableElement parameter : method.getParameters()) {
+                    types.add(typeName(parameter.asType()));
+                }
+                lines.add(new RouteIndex.Entry(httpMethod(mapping), path, className,
+                        method.getSimpleName().toString(), types.toArray(new String[0])).format());
+            }
+        }
+    }
+
+    private static String mappingPath(ExecutableElement method, Class<? extends Annotation> mapping) {
+        Annotation annotation = method.getAnnotation(mapping);
+        if (annotation instanceof GetMapping) {
+            return ((GetMapping) annotation).value();
+        }
+        if (annotation instanceof PostMapping) {
+            return ((PostMapping) annotation).value();
+        }
+        if (annotation instanceof PutMapping) {
+            return ((PutMapping) annotation).value();
+        }
+        if (annotation instanceof DeleteMapping) {
+            return ((DeleteMapping) annotation).value();
+        }
+        return null;
+    }
+
+    private static String httpMethod(Class<? extends Annotation> mapping) {
+        if (mapping == GetMapping.class) {
+            return "GET";
+        }
+        if (mapping == PostMapping.class) {
+            return "POST";
+        }
+        if (mapping == PutMapping.class) {
+            return "PUT";
+        }
+        return "DELETE";
+    }
+
+    /**
+     * Nombre binario del tipo sin genéricos, que es lo que necesita {@code Class.forName}.
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased instanceof ArrayType) {
+            return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        if (erased instanceof DeclaredType) {
+            TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return erased.toString();
+    }
+
+    private void writeIndex() {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generado por RouteIndexProcessor\n");
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "No se pudo escribir " + RouteIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+}
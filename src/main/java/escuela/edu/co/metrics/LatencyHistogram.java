@@ -0,0 +1,98 @@
+package escuela.edu.co.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con límites fijos, compatible con el tipo {@code histogram} de Prometheus.
+ * Cada cubeta es un {@link LongAdder}: registrar un valor no toma locks ni asigna memoria, y los hilos
+ * que registran a la vez escriben en celdas distintas en lugar de competir por el mismo contador.
+ * Los percentiles se calculan en Prometheus a partir de las cubetas ({@code histogram_quantile}).
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Límites superiores de las cubetas en segundos, de 10 µs a 10 s.
+     */
+    private static final double[] BOUNDS_SECONDS = {
+            0.00001, 0.000025, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005,
+            0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = Math.round(BOUNDS_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    // La última cubeta cuenta los valores por encima del mayor límite (+Inf)
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una duración. Las negativas (reloj no monótono entre núcleos) se cuentan como cero.
+     *
+     * @param nanos duración en nanosegundos
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        // Búsqueda lineal: la mayoría de las solicitudes cae en las primeras cubetas
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return cantidad de valores registrados
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Escribe las series {@code _bucket} (acumuladas), {@code _sum} y {@code _count} en formato de texto
+     * de Prometheus. Con registros concurrentes la lectura no es atómica, pero cada serie es monótona.
+     *
+     * @param out destino
+     * @param name nombre de la métrica, sin sufijos
+     */
+    void writeTo(StringBuilder out, String name) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String bound = i < BOUNDS_SECONDS.length ? format(BOUNDS_SECONDS[i]) : "+Inf";
+            out.append(name).append("_bucket{le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum ").append(format(sumNanos.sum() / 1e9)).append('\n');
+        out.append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    private static String format(double value) {
+        String text = String.format(Locale.ROOT, "%.9f", value);
+        // Sin ceros finales: 0.000010000 -> 0.00001, 1.000000000 -> 1
+        int end = text.length();
+        while (text.charAt(end - 1) == '0') {
+            end--;
+        }
+        if (text.charAt(end - 1) == '.') {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
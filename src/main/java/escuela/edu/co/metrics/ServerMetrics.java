@@ -0,0 +1,234 @@
+package escuela.edu.co.metrics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del servidor: solicitudes por ruta, respuestas por código de estado, conexiones abiertas,
+ * bytes recibidos y enviados, e histogramas de latencia de las fases de parseo, ruteo y escritura.
+ * Todos los contadores son {@link LongAdder} y los mapas por ruta se consultan sin locks, así que registrar
+ * una solicitud no bloquea ni asigna memoria salvo la primera vez que aparece una ruta.
+ * {@link #export()} las entrega en el formato de texto de Prometheus.
+ * Aplica el principio de responsabilidad única (Single Responsibility Principle).
+ */
+public final class ServerMetrics {
+
+    /**
+     * Path donde se publican las métricas, por ejemplo {@code -Dhttp.metrics.path=/metrics};
+     * sin definir o vacío, no se publican.
+     */
+    public static final String METRICS_PATH_PROPERTY = "http.metrics.path";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Etiquetas de ruta para las solicitudes que no resolvió el Router, de modo que los paths pedidos
+     * por los clientes no creen series nuevas.
+     */
+    public static final String ROUTE_STATIC = "<static>";
+    public static final String ROUTE_API = "<api>";
+    public static final String ROUTE_UNMATCHED = "<unmatched>";
+
+    /**
+     * Métricas que no registran nada, para servidores cuyas métricas nadie consulta.
+     */
+    public static final ServerMetrics DISABLED = new ServerMetrics(false);
+
+    private static final Set<String> KNOWN_METHODS = Set.of("GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS");
+    private static final int MAX_STATUS = 600;
+
+    private final LongAdder connectionsAccepted = new LongAdder();
+    private final LongAdder connectionsOpen = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder[] responses = new LongAdder[MAX_STATUS];
+    // método -> ruta -> solicitudes; dos consultas sin concatenar strings en cada solicitud
+    private final Map<String, Map<String, LongAdder>> requests = new ConcurrentHashMap<>();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram routeLatency = new LatencyHistogram();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final boolean enabled;
+
+    public ServerMetrics() {
+        this(true);
+    }
+
+    private ServerMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+    }
+
+    public void connectionOpened() {
+        if (!enabled) {
+            return;
+        }
+        connectionsAccepted.increment();
+        connectionsOpen.increment();
+    }
+
+    public void connectionClosed() {
+        if (!enabled) {
+            return;
+        }
+        connectionsOpen.decrement();
+    }
+
+    public void bytesReceived(long bytes) {
+        if (!enabled) {
+            return;
+        }
+        bytesReceived.add(bytes);
+    }
+
+    public void bytesSent(long bytes) {
+        if (!enabled) {
+            return;
+        }
+        bytesSent.add(bytes);
+    }
+
+    /**
+     * @param nanos tiempo del decoder en la línea de request y los headers, sin la espera por el socket
+     */
+    public void recordParse(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * Registra una solicitud atendida.
+     *
+     * @param method método HTTP; los no estándar se agrupan como {@code OTHER}
+     * @param route plantilla de la ruta o una de las etiquetas {@code ROUTE_*}
+     * @param status código de la respuesta, 0 si no se escribió ninguna
+     * @param nanos tiempo desde la solicitud decodificada hasta la respuesta escrita en el buffer de salida
+     */
+    public void recordRequest(String method, String route, int status, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        String methodLabel = KNOWN_METHODS.contains(method) ? method : "OTHER";
+        Map<String, LongAdder> byRoute = requests.get(methodLabel);
+        if (byRoute == null) {
+            byRoute = requests.computeIfAbsent(methodLabel, m -> new ConcurrentHashMap<>());
+        }
+        LongAdder counter = byRoute.get(route);
+        if (counter == null) {
+            counter = byRoute.computeIfAbsent(route, r -> new LongAdder());
+        }
+        counter.increment();
+        recordResponse(status);
+        routeLatency.record(nanos);
+    }
+
+    /**
+     * Registra una respuesta que no pasó por el ruteo, como un 400 por una solicitud mal formada.
+     *
+     * @param status código de la respuesta; fuera de 100-599 se ignora
+     */
+    public void recordResponse(int status) {
+        if (enabled && status >= 100 && status < MAX_STATUS) {
+            responses[status].increment();
+        }
+    }
+
+    /**
+     * @param nanos tiempo en entregar al socket lo que quedaba de la respuesta
+     */
+    public void recordWrite(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        writeLatency.record(nanos);
+    }
+
+    public long getOpenConnections() {
+        return connectionsOpen.sum();
+    }
+
+    public long getResponses(int status) {
+        return status >= 0 && status < MAX_STATUS ? responses[status].sum() : 0;
+    }
+
+    public long getRequests(String method, String route) {
+        LongAdder counter = requests.getOrDefault(method, Map.of()).get(route);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * @return las métricas en el formato de texto de Prometheus (versión 0.0.4)
+     */
+    public String export() {
+        StringBuilder out = new StringBuilder(4096);
+        counter(out, "http_server_connections_accepted_total", "Conexiones aceptadas", connectionsAccepted.sum());
+        out.append("# HELP http_server_connections_open Conexiones abiertas\n")
+                .append("# TYPE http_server_connections_open gauge\n")
+                .append("http_server_connections_open ").append(connectionsOpen.sum()).append('\n');
+        counter(out, "http_server_received_bytes_total", "Bytes recibidos", bytesReceived.sum());
+        counter(out, "http_server_sent_bytes_total", "Bytes enviados", bytesSent.sum());
+
+        out.append("# HELP http_server_requests_total Solicitudes por método y ruta\n")
+                .append("# TYPE http_server_requests_total counter\n");
+        // Orden estable entre exportaciones
+        for (Map.Entry<String, Map<String, LongAdder>> byMethod : new TreeMap<>(requests).entrySet()) {
+            for (Map.Entry<String, LongAdder> byRoute : new TreeMap<>(byMethod.getValue()).entrySet()) {
+                out.append("http_server_requests_total{method=\"").append(byMethod.getKey())
+                        .append("\",route=\"");
+                appendLabelValue(out, byRoute.getKey());
+                out.append("\"} ").append(byRoute.getValue().sum()).append('\n');
+            }
+        }
+
+        out.append("# HELP http_server_responses_total Respuestas por código de estado\n")
+                .append("# TYPE http_server_responses_total counter\n");
+        for (int status = 100; status < MAX_STATUS; status++) {
+            long count = responses[status].sum();
+            if (count > 0) {
+                out.append("http_server_responses_total{code=\"").append(status).append("\"} ")
+                        .append(count).append('\n');
+            }
+        }
+
+        histogram(out, "http_server_parse_duration_seconds", "Parseo de la línea de request y los headers",
+                parseLatency);
+        histogram(out, "http_server_route_duration_seconds", "Ruteo, handler y escritura de la respuesta al buffer",
+                routeLatency);
+        histogram(out, "http_server_write_duration_seconds", "Envío al socket de lo que quedaba de la respuesta",
+                writeLatency);
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" counter\n")
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" histogram\n");
+        histogram.writeTo(out, name);
+    }
+
+    /**
+     * Escapa {@code \}, {@code "} y saltos de línea, como exige el formato para los valores de etiqueta.
+     */
+    private static void appendLabelValue(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
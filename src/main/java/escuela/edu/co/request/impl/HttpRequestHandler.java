@@ -1,90 +1,147 @@
 package escuela.edu.co.request.impl;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import escuela.edu.co.Request;
+import escuela.edu.co.RequestBody;
 import escuela.edu.co.Response;
+import escuela.edu.co.accesslog.AccessLog;
 import escuela.edu.co.api.ApiRequestHandler;
+import escuela.edu.co.metrics.ServerMetrics;
 import escuela.edu.co.request.RequestHandler;
 import escuela.edu.co.routing.Router;
+import escuela.edu.co.server.ServerConfig;
 import escuela.edu.co.staticfiles.StaticFileHandler;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpParseException;
+import escuela.edu.co.utils.HttpRequestHead;
 import escuela.edu.co.utils.HttpRequestParser;
+import escuela.edu.co.utils.HttpRequestReader;
 import escuela.edu.co.utils.HttpResponseHelper;
 
 /**
  * Implementación del manejador de requests HTTP.
  * Aplica el principio de responsabilidad única y dependencia de inversión.
+ * Soporta conexiones persistentes (HTTP/1.1 keep-alive) y solicitudes en pipeline:
+ * atiende solicitudes en orden sobre el mismo socket hasta que el cliente lo cierre,
+ * pida {@code Connection: close}, se agote el tiempo de inactividad o se alcance el máximo por conexión.
+ * Registra en {@link ServerMetrics} las conexiones, los bytes, el código y la ruta de cada respuesta
+ * y las latencias de parseo, ruteo y escritura, y cada solicitud ruteada en el {@link AccessLog}.
  */
 public class HttpRequestHandler implements RequestHandler {
     
     private static final Logger LOGGER = Logger.getLogger(HttpRequestHandler.class.getName());
     
+    private static final int OUTPUT_BUFFER_SIZE = 8 * 1024;
+    
     private final Router router;
     private final StaticFileHandler staticFileHandler;
     private final ApiRequestHandler apiRequestHandler;
+    private final int keepAliveTimeoutMillis;
+    private final int maxKeepAliveRequests;
+    private final ServerMetrics metrics;
+    private final AccessLog accessLog;
     
     /**
      * Constructor que inyecta las dependencias.
      * Aplica el principio de inversión de dependencias (Dependency Inversion Principle).
      */
     public HttpRequestHandler(Router router, StaticFileHandler staticFileHandler, ApiRequestHandler apiRequestHandler) {
+        this(router, staticFileHandler, apiRequestHandler,
+                ServerConfig.DEFAULT_KEEP_ALIVE_TIMEOUT_MILLIS, ServerConfig.DEFAULT_MAX_KEEP_ALIVE_REQUESTS);
+    }
+    
+    /**
+     * Constructor con política de keep-alive personalizada.
+     * 
+     * @param keepAliveTimeoutMillis tiempo máximo de inactividad esperando la siguiente solicitud
+     * @param maxKeepAliveRequests solicitudes máximas por conexión; 1 desactiva keep-alive
+     */
+    public HttpRequestHandler(Router router, StaticFileHandler staticFileHandler, ApiRequestHandler apiRequestHandler,
+                              int keepAliveTimeoutMillis, int maxKeepAliveRequests) {
+        this(router, staticFileHandler, apiRequestHandler, keepAliveTimeoutMillis, maxKeepAliveRequests,
+                new ServerMetrics());
+    }
+    
+    /**
+     * Constructor con política de keep-alive y métricas compartidas, por ejemplo con el endpoint que las publica.
+     * 
+     * @param metrics donde se registran conexiones, solicitudes y latencias
+     */
+    public HttpRequestHandler(Router router, StaticFileHandler staticFileHandler, ApiRequestHandler apiRequestHandler,
+                              int keepAliveTimeoutMillis, int maxKeepAliveRequests, ServerMetrics metrics) {
+        this(router, staticFileHandler, apiRequestHandler, keepAliveTimeoutMillis, maxKeepAliveRequests, metrics,
+                AccessLog.DISABLED);
+    }
+    
+    /**
+     * Constructor completo, con registro de acceso.
+     * 
+     * @param metrics donde se registran conexiones, solicitudes y latencias
+     * @param accessLog donde se escribe una entrada por solicitud; {@link AccessLog#DISABLED} para ninguno
+     */
+    public HttpRequestHandler(Router router, StaticFileHandler staticFileHandler, ApiRequestHandler apiRequestHandler,
+                              int keepAliveTimeoutMillis, int maxKeepAliveRequests, ServerMetrics metrics,
+                              AccessLog accessLog) {
+        if (keepAliveTimeoutMillis < 1 || maxKeepAliveRequests < 1) {
+            throw new IllegalArgumentException("El timeout y el máximo de solicitudes deben ser positivos");
+        }
+        if (metrics == null || accessLog == null) {
+            throw new IllegalArgumentException("Las métricas y el registro de acceso no pueden ser null");
+        }
         this.router = router;
         this.staticFileHandler = staticFileHandler;
         this.apiRequestHandler = apiRequestHandler;
+        this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+        this.metrics = metrics;
+        this.accessLog = accessLog;
     }
     
     @Override
     public void handleRequest(Socket clientSocket) throws IOException {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-             OutputStream out = clientSocket.getOutputStream()) {
-            
-            String requestLine = in.readLine();
-            if (requestLine == null || requestLine.isEmpty()) {
-                return;
-            }
-            
-            Map<String, String> headers = HttpRequestParser.parseHeaders(in);
-            String[] parsedRequest = HttpRequestParser.parseRequestLine(requestLine);
-            
-            if (parsedRequest == null) {
-                HttpResponseHelper.send400(out);
-                return;
-            }
+        metrics.connectionOpened();
+        try (HttpOutputStream out = new HttpOutputStream(
+                     new BufferedOutputStream(clientSocket.getOutputStream(), OUTPUT_BUFFER_SIZE),
+                     clientSocket.getChannel())) {
             
-            String method = parsedRequest[0];
-            String path = parsedRequest[1];
-            String queryString = parsedRequest[2];
-            
-            Map<String, String> queryParams = HttpRequestParser.parseQueryString(queryString);
-            
-            // Manejar rutas de API
-            if (path.startsWith("/app/")) {
-                handleApiRoutes(method, path, queryParams, headers, in, out);
-                return;
-            }
-            
-            // Solo GET para archivos estáticos
-            if (!"GET".equals(method)) {
-                HttpResponseHelper.send405(out);
-                return;
-            }
-            
-            // Intentar servir archivo estático
-            if (!staticFileHandler.serveStaticFile(path, out)) {
-                HttpResponseHelper.send404(out, path);
+            clientSocket.setTcpNoDelay(true);
+            clientSocket.setSoTimeout(keepAliveTimeoutMillis);
+            HttpRequestReader in = new HttpRequestReader(clientSocket.getInputStream());
+            int served = 0;
+            boolean keepAlive = true;
+            long received = 0;
+            long sent = 0;
+            while (keepAlive) {
+                served++;
+                keepAlive = process(in, out, served < maxKeepAliveRequests);
+                long start = System.nanoTime();
+                out.flush();
+                metrics.recordWrite(System.nanoTime() - start);
+                // Por solicitud y no al cerrar, para que las conexiones persistentes se vean en las métricas
+                metrics.bytesReceived(in.getBytesRead() - received);
+                metrics.bytesSent(out.getBytesWritten() - sent);
+                received = in.getBytesRead();
+                sent = out.getBytesWritten();
             }
             
+        } catch (SocketTimeoutException e) {
+            LOGGER.log(Level.FINE, "Conexión inactiva cerrada por timeout");
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error manejando request", e);
             throw e;
         } finally {
+            metrics.connectionClosed();
             try {
                 clientSocket.close();
             } catch (IOException e) {
@@ -93,28 +150,198 @@ public class HttpRequestHandler implements RequestHandler {
         }
     }
     
-    private void handleApiRoutes(String method, String path, Map<String, String> queryParams,
-                                Map<String, String> headers, BufferedReader in, OutputStream out) throws IOException {
-        
-        // Primero intentar con rutas registradas dinámicamente
-        if ("GET".equals(method)) {
-            try {
-                Request req = new Request(method, path, queryParams, headers, in);
-                Response resp = new Response(out);
-                
-                if (router.handleRoute(method, path, req, resp)) {
-                    return;
-                }
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error ejecutando handler registrado para ruta " + path, e);
-                HttpResponseHelper.send500(out);
-                return;
+    /**
+     * Lee una única solicitud de {@code in} y escribe la respuesta en {@code out}.
+     * El body (Content-Length o chunked) se consume siempre, para que la siguiente solicitud
+     * en pipeline empiece en el byte correcto; si el cliente envió {@code Expect: 100-continue}
+     * se le responde {@code 100 Continue} antes de leerlo. Las solicitudes mal formadas o que superan
+     * los límites se responden con 400, 413, 414, 431 o 501 y cierran la conexión.
+     * 
+     * @param in lector de la conexión, posicionado al inicio de una solicitud
+     * @param out stream donde se escribe la respuesta
+     * @param allowKeepAlive false si la conexión debe cerrarse tras esta respuesta
+     * @return true si la conexión puede seguir abierta para otra solicitud
+     * @throws IOException si ocurre un error al leer o escribir
+     */
+    public boolean process(HttpRequestReader in, HttpOutputStream out, boolean allowKeepAlive) throws IOException {
+        HttpRequestHead head;
+        RequestBody body;
+        out.resetStatus();
+        try {
+            head = in.readHead();
+            if (head == null) {
+                return false;
             }
+            metrics.recordParse(in.getParseNanos());
+            if (in.beginBody()) {
+                HttpResponseHelper.send100Continue(out);
+                out.flush();
+            }
+            body = in.readBody();
+        } catch (HttpParseException e) {
+            LOGGER.log(Level.FINE, "Solicitud rechazada: " + e.getMessage());
+            out.setKeepAlive(false);
+            HttpResponseHelper.sendParseError(out, e);
+            metrics.recordResponse(out.getStatus());
+            return false;
+        } catch (EOFException e) {
+            out.setKeepAlive(false);
+            HttpResponseHelper.send400(out);
+            metrics.recordResponse(out.getStatus());
+            return false;
+        }
+        return process(head, body, out, allowKeepAlive);
+    }
+    
+    /**
+     * Procesa una solicitud ya decodificada con su body completo y cierra el body al terminar.
+     * No depende del socket, por lo que lo reutilizan tanto el servidor bloqueante como el de NIO.
+     * 
+     * @param head línea de request y headers
+     * @param body el body ya leído, {@link RequestBody#EMPTY} si no hay
+     * @param out stream donde se escribe la respuesta
+     * @param allowKeepAlive false si la conexión debe cerrarse tras esta respuesta
+     * @return true si la conexión puede seguir abierta para otra solicitud
+     * @throws IOException si ocurre un error al escribir
+     */
+    public boolean process(HttpRequestHead head, RequestBody body, HttpOutputStream out, boolean allowKeepAlive)
+            throws IOException {
+        try (body) {
+            return respond(head, body, out, allowKeepAlive);
+        }
+    }
+    
+    /**
+     * Mide el ruteo completo, desde la solicitud decodificada hasta la respuesta escrita en {@code out},
+     * y lo registra con la ruta y el código de la respuesta en las métricas y en el registro de acceso.
+     */
+    private boolean respond(HttpRequestHead head, RequestBody body, HttpOutputStream out, boolean allowKeepAlive)
+            throws IOException {
+        out.resetStatus();
+        long bytesBefore = out.getBytesWritten();
+        long start = System.nanoTime();
+        String route = ServerMetrics.ROUTE_UNMATCHED;
+        try {
+            route = dispatch(head, body, out, allowKeepAlive);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            int status = out.getStatus();
+            metrics.recordRequest(head.getMethod(), route, status, nanos);
+            accessLog.log(head.getMethod(), head.getPath(), status, out.getBytesWritten() - bytesBefore, nanos);
+        }
+        return out.isKeepAlive();
+    }
+    
+    /**
+     * Atiende la solicitud con el Router, los endpoints predefinidos o los archivos estáticos.
+     * 
+     * @return la etiqueta de ruta para las métricas: la plantilla registrada o una de {@code ServerMetrics.ROUTE_*},
+     *         nunca el path pedido, para que los clientes no puedan crear series
+     */
+    private String dispatch(HttpRequestHead head, RequestBody body, HttpOutputStream out, boolean allowKeepAlive)
+            throws IOException {
+        String method = head.getMethod();
+        String path = head.getPath();
+        Map<String, String> headers = head.getHeaders();
+        out.setKeepAlive(allowKeepAlive && wantsKeepAlive(head.getVersion(), headers));
+        out.setAcceptEncoding(headers.get("accept-encoding"));
+        out.setChunkedSupported("HTTP/1.1".equals(head.getVersion()));
+        
+        Map<String, String> queryParams = HttpRequestParser.parseQueryString(head.getQueryString());
+        
+        // Rutas registradas en el Router (cualquier método y path)
+        String route = handleRegisteredRoute(method, path, queryParams, headers, body, out);
+        if (route != null) {
+            return route;
         }
         
         // Fallback a endpoints predefinidos
-        if (!apiRequestHandler.handleApiRequest(method, path, queryParams, headers, out)) {
+        boolean apiPath = path.startsWith("/app/");
+        if (apiPath && apiRequestHandler.handleApiRequest(method, path, queryParams, headers, out)) {
+            return ServerMetrics.ROUTE_API;
+        }
+        
+        // El path existe con otros métodos: 405 con Allow en lugar de 404
+        Set<String> allowedMethods = router.allowedMethods(path);
+        if (!allowedMethods.isEmpty()) {
+            HttpResponseHelper.send405(out, allowedMethods);
+            return ServerMetrics.ROUTE_UNMATCHED;
+        }
+        if (apiPath) {
+            HttpResponseHelper.send404(out, path);
+            return ServerMetrics.ROUTE_UNMATCHED;
+        }
+        
+        // Solo GET para archivos estáticos
+        if (!"GET".equals(method)) {
+            HttpResponseHelper.send405(out);
+            return ServerMetrics.ROUTE_UNMATCHED;
+        }
+        
+        // Intentar servir archivo estático
+        if (!staticFileHandler.serveStaticFile(path, headers, out)) {
             HttpResponseHelper.send404(out, path);
+            return ServerMetrics.ROUTE_UNMATCHED;
         }
+        return ServerMetrics.ROUTE_STATIC;
+    }
+    
+    public int getKeepAliveTimeoutMillis() {
+        return keepAliveTimeoutMillis;
+    }
+    
+    public int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+    
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * HTTP/1.1 es persistente salvo {@code Connection: close}; HTTP/1.0 solo con {@code Connection: keep-alive}.
+     */
+    private static boolean wantsKeepAlive(String version, Map<String, String> headers) {
+        String connection = headers.getOrDefault("connection", "").toLowerCase(Locale.ROOT);
+        if ("HTTP/1.1".equals(version)) {
+            return !connection.contains("close");
+        }
+        return connection.contains("keep-alive");
+    }
+    
+    /**
+     * Ejecuta el handler registrado para el método y path, si existe.
+     * Una respuesta en streaming que el handler dejó abierta se cierra aquí.
+     * 
+     * @return la plantilla de la ruta que respondió, incluido un 500 si el handler falló, o null si ninguna
+     */
+    private String handleRegisteredRoute(String method, String path, Map<String, String> queryParams,
+                                          Map<String, String> headers, RequestBody body, HttpOutputStream out)
+            throws IOException {
+        Response resp = new Response(out);
+        Request req = new Request(method, path, queryParams, headers, body);
+        try {
+            if (!router.handleRoute(method, path, req, resp)) {
+                return null;
+            }
+            resp.finish();
+            return routeLabel(req);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error ejecutando handler registrado para ruta " + path, e);
+            if (resp.isCommitted()) {
+                // Los headers ya salieron: se corta la conexión sin el chunk final para que el cliente vea el error
+                out.setKeepAlive(false);
+                return routeLabel(req);
+            }
+            HttpResponseHelper.send500(out);
+            return routeLabel(req);
+        }
+    }
+    
+    /**
+     * Un Router que no informa la plantilla se agrupa con las no resueltas en lugar de usar el path pedido.
+     */
+    private static String routeLabel(Request req) {
+        return req.getRoute() != null ? req.getRoute() : ServerMetrics.ROUTE_UNMATCHED;
     }
 }
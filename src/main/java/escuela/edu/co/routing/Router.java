@@ -1,5 +1,8 @@
 package escuela.edu.co.routing;
 
+import java.util.Collections;
+import java.util.Set;
+
 import escuela.edu.co.RouteHandler;
 
 /**
@@ -10,12 +13,78 @@ public interface Router {
     
     /**
      * Registra una ruta GET con su correspondiente handler.
+     * Si el path ya tiene un handler GET, se reemplaza (ver {@link #registerRoute(String, String, RouteHandler)}).
      * 
      * @param path el path de la ruta
      * @param handler el handler que procesará las solicitudes
      */
     void registerRoute(String path, RouteHandler handler);
     
+    /**
+     * Registra una ruta para un método HTTP específico.
+     * Si el método y el path ya tienen un handler, se reemplaza de forma atómica: las solicitudes concurrentes
+     * ven el handler anterior o el nuevo, nunca la ruta ausente. Puede invocarse con el servidor en marcha.
+     * Por defecto solo se admite GET; las implementaciones con tablas por método la sobrescriben.
+     * 
+     * @param method el método HTTP, por ejemplo {@code "POST"}
+     * @param path el path de la ruta
+     * @param handler el handler que procesará las solicitudes
+     * @throws UnsupportedOperationException si el router no soporta el método
+     */
+    default void registerRoute(String method, String path, RouteHandler handler) {
+        if (!"GET".equals(method)) {
+            throw new UnsupportedOperationException("Este router solo admite rutas GET: " + method + " " + path);
+        }
+        registerRoute(path, handler);
+    }
+    
+    /**
+     * Registra una ruta cuyo resultado se envía siempre con el Content-Type indicado, sin que el router
+     * inspeccione el texto para decidir entre JSON y texto plano. Un resultado null indica, como siempre,
+     * que el handler ya escribió la respuesta; para bodies binarios el handler usa
+     * {@link escuela.edu.co.Response#sendWithContentType(java.nio.ByteBuffer, String)} y retorna null.
+     * 
+     * @param method el método HTTP
+     * @param path el path de la ruta
+     * @param produces valor del header Content-Type de la respuesta
+     * @param handler el handler que procesará las solicitudes
+     * @throws IllegalArgumentException si {@code produces} está vacío o el handler es null
+     */
+    default void registerRoute(String method, String path, String produces, RouteHandler handler) {
+        if (produces == null || produces.isBlank() || handler == null) {
+            throw new IllegalArgumentException("El Content-Type y el handler son obligatorios: " + method + " " + path);
+        }
+        registerRoute(method, path, (request, response) -> {
+            String result = handler.handle(request, response);
+            if (result != null) {
+                response.sendWithContentType(result, produces);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Elimina una ruta registrada; puede invocarse mientras el servidor atiende solicitudes.
+     * 
+     * @param method el método HTTP
+     * @param path el path (o plantilla) con que se registró la ruta
+     * @return true si la ruta existía
+     * @throws UnsupportedOperationException si el router no permite eliminar rutas
+     */
+    default boolean removeRoute(String method, String path) {
+        throw new UnsupportedOperationException("Este router no permite eliminar rutas");
+    }
+    
+    /**
+     * Métodos con handler registrado para el path, para distinguir 404 (no existe) de 405 (otro método).
+     * 
+     * @param path el path solicitado
+     * @return los métodos permitidos, vacío si ninguna ruta coincide
+     */
+    default Set<String> allowedMethods(String path) {
+        return Collections.emptySet();
+    }
+    
     /**
      * Busca y ejecuta el handler correspondiente a la ruta especificada.
      * 
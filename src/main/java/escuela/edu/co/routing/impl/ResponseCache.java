@@ -0,0 +1,412 @@
+package escuela.edu.co.routing.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.ResponseStream;
+import escuela.edu.co.RouteHandler;
+import escuela.edu.co.ServerSentEvents;
+import escuela.edu.co.utils.ContentEncoding;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.ResponseWriter;
+
+/**
+ * Caché de respuestas para rutas GET idempotentes. {@link #cached(RouteHandler, Duration)} decora un handler:
+ * la primera solicitud lo ejecuta sobre un buffer y guarda la respuesta ya codificada (headers y body, comprimido
+ * si el cliente lo acepta); las siguientes con el mismo path, los mismos parámetros de query (en cualquier orden)
+ * y la misma codificación reciben esos bytes sin ejecutar el handler, hasta que vence el TTL.
+ * Si varias solicitudes fallan a la vez en la misma llave, solo la primera ejecuta el handler y las demás esperan
+ * su resultado hasta un límite de tiempo; si vence, ejecutan el handler por su cuenta.
+ * La caché tiene un presupuesto de bytes con desalojo LRU.
+ * Solo se guardan respuestas 200 con {@code Content-Length} y sin {@code Set-Cookie}; las demás se envían sin
+ * guardarlas. Las respuestas en streaming ({@link Response#startStream(String)} y Server-Sent Events) no pasan
+ * por el buffer: se escriben directo en la conexión y nunca se guardan.
+ * No debe usarse en rutas cuya respuesta dependa de headers de la solicitud distintos de {@code Accept-Encoding}.
+ * Aplica el principio abierto/cerrado (Open/Closed Principle): decora handlers existentes sin modificarlos.
+ */
+public class ResponseCache {
+
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    public static final long DEFAULT_MAX_ENTRY_BYTES = 1024L * 1024;
+    /** Propiedad del sistema para el presupuesto en bytes, por ejemplo {@code -Dhttp.response.cache.bytes=0}. */
+    public static final String MAX_BYTES_PROPERTY = "http.response.cache.bytes";
+    /** Tiempo que una solicitud espera la respuesta que otra está calculando para la misma llave. */
+    public static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long waitTimeoutNanos;
+    // Orden de acceso: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    // Una respuesta en cálculo por llave; se completa con null si no se pudo guardar
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes bytes de respuestas (headers y body) que puede ocupar la caché
+     */
+    public ResponseCache(long maxBytes) {
+        this(maxBytes, DEFAULT_WAIT_TIMEOUT);
+    }
+
+    /**
+     * @param maxBytes bytes de respuestas (headers y body) que puede ocupar la caché
+     * @param waitTimeout tiempo máximo que una solicitud espera la respuesta en cálculo de otra
+     */
+    public ResponseCache(long maxBytes, Duration waitTimeout) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("El presupuesto de la caché no puede ser negativo: " + maxBytes);
+        }
+        if (waitTimeout == null || waitTimeout.isNegative()) {
+            throw new IllegalArgumentException("El tiempo de espera no puede ser null ni negativo");
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxBytes, DEFAULT_MAX_ENTRY_BYTES);
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * Crea la caché con el presupuesto de {@value #MAX_BYTES_PROPERTY}, o {@link #DEFAULT_MAX_BYTES} si no está definido.
+     *
+     * @return la caché, vacía
+     */
+    public static ResponseCache fromSystemProperties() {
+        return new ResponseCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Decora un handler para que sus respuestas a GET se sirvan desde esta caché.
+     *
+     * @param handler el handler de la ruta
+     * @param ttl tiempo que una respuesta guardada sigue vigente
+     * @return el handler para registrar en el Router en lugar del original
+     * @throws IllegalArgumentException si el handler es null o el TTL no es positivo
+     */
+    public RouteHandler cached(RouteHandler handler, Duration ttl) {
+        if (handler == null || ttl == null || ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("El handler es obligatorio y el TTL debe ser positivo");
+        }
+        long ttlNanos = ttl.toNanos();
+        return (req, res) -> handle(handler, ttlNanos, req, res);
+    }
+
+    /**
+     * @return respuestas servidas desde la caché
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return solicitudes que ejecutaron el handler por no encontrar una respuesta vigente
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return cantidad de respuestas en caché, incluidas las vencidas que aún no se consultaron
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return bytes ocupados por la caché
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Descarta todas las respuestas guardadas, por ejemplo después de modificar los datos que las generan.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        cachedBytes = 0;
+    }
+
+    private String handle(RouteHandler handler, long ttlNanos, Request req, Response res) throws Exception {
+        OutputStream target = res.getOutputStream();
+        if (!"GET".equals(req.getMethod()) || !(target instanceof HttpOutputStream)) {
+            return handler.handle(req, res);
+        }
+        HttpOutputStream out = (HttpOutputStream) target;
+        Key key = new Key(req.getPath(), req.getQueryParams(), ContentEncoding.negotiate(out.getAcceptEncoding()));
+        Entry entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            ResponseWriter.writePreEncoded(out, entry.headers, entry.body);
+            return null;
+        }
+
+        CompletableFuture<Entry> computation = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, computation);
+        if (running != null) {
+            // Otra solicitud ya ejecuta el handler para esta llave: se reutiliza su respuesta
+            Entry shared = await(running);
+            if (shared != null) {
+                hits.increment();
+                ResponseWriter.writePreEncoded(out, shared.headers, shared.body);
+                return null;
+            }
+            misses.increment();
+            return handler.handle(req, res);
+        }
+
+        misses.increment();
+        Entry stored = null;
+        try {
+            // Un streaming no se va a guardar: quienes esperan esta llave ejecutan el handler sin esperar a que termine
+            Runnable release = () -> {
+                inFlight.remove(key, computation);
+                computation.complete(null);
+            };
+            stored = render(handler, req, res, out, release, System.nanoTime() + ttlNanos);
+            return null;
+        } finally {
+            // Se guarda antes de liberar la llave para que ninguna solicitud vea ambos vacíos
+            if (stored != null) {
+                store(key, stored);
+            }
+            inFlight.remove(key, computation);
+            computation.complete(stored);
+        }
+    }
+
+    /**
+     * Espera la respuesta que calcula otra solicitud.
+     *
+     * @return la entrada, o null si no se guardó, falló o no llegó a tiempo
+     */
+    private Entry await(CompletableFuture<Entry> running) throws InterruptedException {
+        try {
+            return running.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ejecuta el handler sobre un buffer configurado como la conexión y envía el resultado al cliente.
+     * Si el handler inicia un streaming, este va directo a la respuesta real y no se guarda.
+     *
+     * @param onStream se ejecuta cuando el handler inicia un streaming
+     * @return la entrada para guardar, o null si la respuesta no se puede compartir
+     */
+    private Entry render(RouteHandler handler, Request req, Response res, HttpOutputStream out, Runnable onStream,
+                         long expiresAt) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream capture = new HttpOutputStream(buffer);
+        capture.setKeepAlive(true);
+        capture.setAcceptEncoding(out.getAcceptEncoding());
+        capture.setChunkedSupported(out.isChunkedSupported());
+        Response captured = new CapturedResponse(capture, res, onStream);
+        String result = handler.handle(req, captured);
+        if (res.isCommitted()) {
+            // El servidor cierra el stream con la respuesta real al terminar la solicitud
+            return null;
+        }
+        RouteResponses.send(result, captured);
+        captured.finish();
+
+        byte[] raw = buffer.toByteArray();
+        int headersEnd = indexOf(raw, HEADERS_END);
+        if (headersEnd < 0) {
+            // Nada que separar (por ejemplo, el handler no respondió): se reenvía tal cual
+            out.write(raw);
+            return null;
+        }
+        if (!capture.isKeepAlive()) {
+            // Respuesta delimitada por el cierre de la conexión
+            out.setKeepAlive(false);
+        }
+        String head = new String(raw, 0, headersEnd + 2, StandardCharsets.ISO_8859_1);
+        byte[] headers = withoutConnection(head).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] body = Arrays.copyOfRange(raw, headersEnd + HEADERS_END.length, raw.length);
+        ResponseWriter.writePreEncoded(out, headers, body);
+        if (!isShareable(head) || !capture.isKeepAlive() || headers.length + body.length > maxEntryBytes) {
+            return null;
+        }
+        return new Entry(headers, body, expiresAt);
+    }
+
+    private synchronized Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        if (entries.containsKey(key)) {
+            remove(key);
+        }
+        entries.put(key, entry);
+        cachedBytes += entry.size();
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+
+    private void remove(Key key) {
+        cachedBytes -= entries.remove(key).size();
+    }
+
+    /**
+     * Solo una respuesta 200 completa y sin estado del cliente puede reenviarse a otros.
+     */
+    private static boolean isShareable(String head) {
+        if (!head.startsWith("HTTP/1.1 200 ") && !head.startsWith("HTTP/1.0 200 ")) {
+            return false;
+        }
+        String lower = head.toLowerCase(Locale.ROOT);
+        return lower.contains("\r\ncontent-length:") && !lower.contains("\r\ntransfer-encoding:")
+                && !lower.contains("\r\nset-cookie:");
+    }
+
+    /**
+     * Quita el header {@code Connection}; {@link ResponseWriter#writePreEncoded} agrega el de cada conexión.
+     */
+    private static String withoutConnection(String head) {
+        StringBuilder kept = new StringBuilder(head.length());
+        int start = 0;
+        while (start < head.length()) {
+            int end = head.indexOf("\r\n", start) + 2;
+            if (!head.regionMatches(true, start, "Connection:", 0, "Connection:".length())) {
+                kept.append(head, start, end);
+            }
+            start = end;
+        }
+        return kept.toString();
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Respuesta que arma en un buffer las respuestas completas y delega en la real las que se envían en streaming,
+     * que no tienen un tamaño acotado ni terminan necesariamente.
+     */
+    private static final class CapturedResponse extends Response {
+        private final Response target;
+        private final Runnable onStream;
+
+        CapturedResponse(OutputStream capture, Response target, Runnable onStream) {
+            super(capture);
+            this.target = target;
+            this.onStream = onStream;
+        }
+
+        @Override
+        public ResponseStream startStream(String contentType) throws IOException {
+            onStream.run();
+            return target.startStream(contentType);
+        }
+
+        @Override
+        public ServerSentEvents startEventStream() throws IOException {
+            onStream.run();
+            return target.startEventStream();
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return target.isCommitted();
+        }
+    }
+
+    /**
+     * Path, parámetros de query ordenados por nombre y codificación negociada. Se comparan como mapa y no
+     * como texto concatenado, así que valores con {@code &} o {@code =} no producen llaves iguales.
+     */
+    private static final class Key {
+        final String path;
+        final Map<String, String> query;
+        final String encoding;
+        final int hash;
+
+        Key(String path, Map<String, String> query, String encoding) {
+            this.path = path;
+            this.query = query.isEmpty() ? Map.of() : new TreeMap<>(query);
+            this.encoding = encoding;
+            this.hash = Objects.hash(path, this.query, encoding);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return path.equals(key.path) && query.equals(key.query) && Objects.equals(encoding, key.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Respuesta renderizada salvo el header {@code Connection}, que depende de la conexión.
+     */
+    private static final class Entry {
+        final byte[] headers;
+        final byte[] body;
+        final long expiresAt;
+
+        Entry(byte[] headers, byte[] body, long expiresAt) {
+            this.headers = headers;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        long size() {
+            return headers.length + body.length;
+        }
+    }
+}
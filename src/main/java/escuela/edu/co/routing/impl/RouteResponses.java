@@ -0,0 +1,45 @@
+package escuela.edu.co.routing.impl;
+
+import java.io.IOException;
+
+import escuela.edu.co.Response;
+
+/**
+ * Escritura común del resultado de un {@link escuela.edu.co.RouteHandler} para las implementaciones de Router.
+ */
+final class RouteResponses {
+
+    private RouteResponses() {
+    }
+
+    /**
+     * Envía el resultado como JSON si lo parece o como texto plano en otro caso. Las rutas registradas con
+     * un Content-Type ({@code produces}) responden por su cuenta y llegan aquí con null, sin inspección.
+     * Un resultado null indica que el handler ya escribió la respuesta usando Response,
+     * por ejemplo con {@link Response#startStream(String)}.
+     */
+    static void send(String result, Response response) throws IOException {
+        if (result == null) {
+            return;
+        }
+        char first = firstNonWhitespace(result);
+        if (first == '{' || first == '[') {
+            response.sendJson(result);
+        } else {
+            response.sendText(result);
+        }
+    }
+
+    /**
+     * Evita {@code trim()}, que copiaría resultados grandes solo para mirar su primer carácter.
+     */
+    private static char firstNonWhitespace(String result) {
+        for (int i = 0; i < result.length(); i++) {
+            char c = result.charAt(i);
+            if (c > ' ') {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,7 +1,10 @@
 package escuela.edu.co.routing.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,49 +14,61 @@ import escuela.edu.co.RouteHandler;
 import escuela.edu.co.routing.Router;
 
 /**
- * Implementación concreta del router para manejar rutas GET.
+ * Implementación concreta del router con una tabla de rutas exactas por método HTTP.
+ * Las tablas se guardan en un mapa inmutable que se reemplaza completo en cada cambio (copy-on-write):
+ * las lecturas nunca bloquean y las rutas pueden agregarse o eliminarse con el servidor en marcha.
  * Aplica el principio abierto/cerrado (Open/Closed Principle).
  */
 public class SimpleRouter implements Router {
     
     private static final Logger LOGGER = Logger.getLogger(SimpleRouter.class.getName());
-    private final Map<String, RouteHandler> routes;
+    // Instantánea inmutable (método -> path -> handler) publicada con volatile;
+    // los escritores se serializan con synchronized
+    private volatile Map<String, Map<String, RouteHandler>> tables;
     
     public SimpleRouter() {
-        this.routes = new HashMap<>();
+        this.tables = Collections.emptyMap();
     }
     
     @Override
     public void registerRoute(String path, RouteHandler handler) {
-        if (path == null || handler == null) {
-            throw new IllegalArgumentException("Path y handler no pueden ser null");
+        registerRoute("GET", path, handler);
+    }
+    
+    @Override
+    public synchronized void registerRoute(String method, String path, RouteHandler handler) {
+        if (method == null || path == null || handler == null) {
+            throw new IllegalArgumentException("Método, path y handler no pueden ser null");
         }
-        routes.put(path, handler);
-        LOGGER.info("Ruta registrada: " + path);
+        Map<String, RouteHandler> table = new HashMap<>(getRoutes(method));
+        // Reemplaza el handler anterior en la misma instantánea nueva, sin dejar la ruta ausente
+        boolean replaced = table.put(path, handler) != null;
+        publish(method, table);
+        LOGGER.info((replaced ? "Ruta reemplazada: " : "Ruta registrada: ") + method + " " + path);
+    }
+    
+    @Override
+    public synchronized boolean removeRoute(String method, String path) {
+        if (!getRoutes(method).containsKey(path)) {
+            return false;
+        }
+        Map<String, RouteHandler> table = new HashMap<>(getRoutes(method));
+        table.remove(path);
+        publish(method, table);
+        LOGGER.info("Ruta eliminada: " + method + " " + path);
+        return true;
     }
     
     @Override
     public boolean handleRoute(String method, String path, Request request, Response response) throws Exception {
-        if (!"GET".equals(method) || !routes.containsKey(path)) {
+        RouteHandler handler = getRoutes(method).get(path);
+        if (handler == null) {
             return false;
         }
         
         try {
-            RouteHandler handler = routes.get(path);
-            String result = handler.handle(request, response);
-            
-            if (result == null) {
-                // El handler ya escribió la respuesta usando Response
-                return true;
-            }
-            
-            // Decidir tipo de contenido según el resultado
-            String trimmed = result.trim();
-            if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
-                response.sendJson(result);
-            } else {
-                response.sendText(result);
-            }
+            request.setRoute(path);
+            RouteResponses.send(handler.handle(request, response), response);
             
             return true;
         } catch (Exception e) {
@@ -62,12 +77,46 @@ public class SimpleRouter implements Router {
         }
     }
     
+    @Override
+    public Set<String> allowedMethods(String path) {
+        Set<String> allowed = null;
+        for (Map.Entry<String, Map<String, RouteHandler>> table : tables.entrySet()) {
+            if (table.getValue().containsKey(path)) {
+                if (allowed == null) {
+                    allowed = new TreeSet<>();
+                }
+                allowed.add(table.getKey());
+            }
+        }
+        return allowed != null ? allowed : Collections.emptySet();
+    }
+    
     /**
-     * Obtiene todas las rutas registradas.
+     * Obtiene las rutas GET registradas.
      * 
-     * @return mapa inmutable de rutas
+     * @return instantánea inmutable de las rutas, sin copiarla
      */
     public Map<String, RouteHandler> getRoutes() {
-        return new HashMap<>(routes);
+        return getRoutes("GET");
+    }
+    
+    /**
+     * Obtiene las rutas registradas para un método.
+     * 
+     * @param method el método HTTP
+     * @return instantánea inmutable de las rutas, vacía si el método no tiene ninguna
+     */
+    public Map<String, RouteHandler> getRoutes(String method) {
+        return tables.getOrDefault(method, Collections.emptyMap());
+    }
+    
+    private void publish(String method, Map<String, RouteHandler> table) {
+        Map<String, Map<String, RouteHandler>> next = new HashMap<>(tables);
+        if (table.isEmpty()) {
+            next.remove(method);
+        } else {
+            next.put(method, Collections.unmodifiableMap(table));
+        }
+        tables = Collections.unmodifiableMap(next);
     }
 }
@@ -0,0 +1,349 @@
+package escuela.edu.co.routing.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.RouteHandler;
+import escuela.edu.co.routing.Router;
+
+/**
+ * Router basado en un árbol radix con plantillas de ruta y tablas de handlers por método HTTP.
+ * Soporta variables de segmento ({@code /app/users/{id}}) y un comodín final ({@code /files/*}).
+ * La búsqueda recorre el path una vez carácter a carácter, sin dividirlo ni crear objetos;
+ * solo las rutas con variables crean el mapa de parámetros que recibe el {@link Request}.
+ * Ante varias coincidencias gana el segmento estático, luego la variable y por último el comodín.
+ * El árbol publicado es inmutable: cada alta o baja construye uno nuevo y lo publica con una escritura
+ * volatile (copy-on-write), así las búsquedas nunca bloquean aunque se registren rutas en caliente.
+ * Aplica el principio abierto/cerrado (Open/Closed Principle).
+ */
+public class TrieRouter implements Router {
+
+    private static final Logger LOGGER = Logger.getLogger(TrieRouter.class.getName());
+
+    // Definiciones en orden de registro; solo se modifican bajo el lock de this
+    private final List<Route> definitions = new ArrayList<>();
+    private volatile Node root = new Node("");
+
+    @Override
+    public void registerRoute(String path, RouteHandler handler) {
+        registerRoute("GET", path, handler);
+    }
+
+    /**
+     * Registra una ruta para el método indicado. Si ya hay una con la misma plantilla (sin importar los nombres
+     * de las variables: {@code /users/{id}} y {@code /users/{name}} son la misma), se reemplaza en el mismo
+     * árbol nuevo, así que ninguna solicitud ve la ruta ausente durante el cambio.
+     *
+     * @param method el método HTTP
+     * @param path plantilla de la ruta, con variables {@code {nombre}} y un {@code *} final opcional
+     * @param handler el handler que procesará las solicitudes
+     * @throws IllegalArgumentException si la plantilla es inválida
+     */
+    @Override
+    public synchronized void registerRoute(String method, String path, RouteHandler handler) {
+        if (method == null || path == null || handler == null) {
+            throw new IllegalArgumentException("Método, path y handler no pueden ser null");
+        }
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("El path debe empezar con '/': " + path);
+        }
+        Route route = new Route(method, handler, path);
+        List<Route> next = new ArrayList<>(definitions);
+        int existing = indexOf(route.method, route.shape);
+        if (existing >= 0) {
+            next.set(existing, route);
+        } else {
+            next.add(route);
+        }
+        // Si la plantilla es inválida, build lanza la excepción y el árbol actual sigue vigente
+        root = build(next);
+        if (existing >= 0) {
+            definitions.set(existing, route);
+            LOGGER.info("Ruta reemplazada: " + method + " " + path);
+        } else {
+            definitions.add(route);
+            LOGGER.info("Ruta registrada: " + method + " " + path);
+        }
+    }
+
+    @Override
+    public synchronized boolean removeRoute(String method, String path) {
+        for (int i = 0; i < definitions.size(); i++) {
+            Route route = definitions.get(i);
+            if (route.method.equals(method) && route.template.equals(path)) {
+                List<Route> next = new ArrayList<>(definitions);
+                next.remove(i);
+                root = build(next);
+                definitions.remove(i);
+                LOGGER.info("Ruta eliminada: " + method + " " + path);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(String method, String shape) {
+        for (int i = 0; i < definitions.size(); i++) {
+            Route route = definitions.get(i);
+            if (route.method.equals(method) && route.shape.equals(shape)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean handleRoute(String method, String path, Request request, Response response) throws Exception {
+        Route route = find(root, path, 0, method);
+        if (route == null) {
+            return false;
+        }
+
+        try {
+            request.setRoute(route.template);
+            if (route.hasParams) {
+                request.setPathParams(extractParams(route.template, path));
+            }
+            RouteResponses.send(route.handler.handle(request, response), response);
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error ejecutando handler para ruta " + route.template, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<String> allowedMethods(String path) {
+        Set<String> methods = new HashSet<>(4);
+        collectMethods(root, path, 0, methods);
+        return methods.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(methods);
+    }
+
+    /**
+     * Construye un árbol nuevo con todas las rutas; no se modifica después de publicarse.
+     */
+    private static Node build(List<Route> routes) {
+        Node tree = new Node("");
+        for (Route route : routes) {
+            Node node = insert(tree, route.template, 0);
+            // registerRoute reemplaza las plantillas equivalentes, así que no hay dos rutas en el mismo nodo
+            node.routes.put(route.method, route);
+        }
+        return tree;
+    }
+
+    /**
+     * Inserta la plantilla desde {@code pos} bajo {@code parent} y devuelve el nodo donde termina.
+     */
+    private static Node insert(Node parent, String template, int pos) {
+        if (pos == template.length()) {
+            return parent;
+        }
+        char c = template.charAt(pos);
+        if (c == '*') {
+            if (pos != template.length() - 1 || template.charAt(pos - 1) != '/') {
+                throw new IllegalArgumentException("El comodín '*' solo puede ir al final, tras '/': " + template);
+            }
+            if (parent.wildcardChild == null) {
+                parent.wildcardChild = new Node("*");
+            }
+            return parent.wildcardChild;
+        }
+        if (c == '{') {
+            int close = template.indexOf('}', pos);
+            if (close < 0 || close == pos + 1 || template.charAt(pos - 1) != '/'
+                    || (close + 1 < template.length() && template.charAt(close + 1) != '/')) {
+                throw new IllegalArgumentException("Variable inválida en la ruta, use /{nombre}/: " + template);
+            }
+            if (parent.paramChild == null) {
+                parent.paramChild = new Node("{}");
+            }
+            return insert(parent.paramChild, template, close + 1);
+        }
+
+        int end = pos;
+        while (end < template.length() && template.charAt(end) != '{' && template.charAt(end) != '*') {
+            end++;
+        }
+        return insert(insertStatic(parent, template.substring(pos, end)), template, end);
+    }
+
+    /**
+     * Agrega un tramo estático dividiendo la arista existente si solo comparte un prefijo.
+     */
+    private static Node insertStatic(Node parent, String label) {
+        for (int i = 0; i < parent.staticChildren.length; i++) {
+            Node child = parent.staticChildren[i];
+            if (child.label.charAt(0) != label.charAt(0)) {
+                continue;
+            }
+            int common = commonPrefix(child.label, label);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.addStatic(child);
+                parent.staticChildren[i] = split;
+                child = split;
+            }
+            return common == label.length() ? child : insertStatic(child, label.substring(common));
+        }
+        Node leaf = new Node(label);
+        parent.addStatic(leaf);
+        return leaf;
+    }
+
+    /**
+     * Busca la ruta del método que coincide con el path desde {@code pos}, con backtracking
+     * de estático a variable y a comodín. Un nodo que coincide pero no tiene handler para el método
+     * no detiene la búsqueda: {@code GET /users/new} llega a {@code GET /users/{id}} aunque exista
+     * {@code POST /users/new}.
+     *
+     * @return la ruta, o null si ninguna coincide con el path y el método
+     */
+    private static Route find(Node node, String path, int pos, String method) {
+        int length = path.length();
+        if (pos == length) {
+            Route route = node.routes.get(method);
+            if (route != null) {
+                return route;
+            }
+        } else {
+            char c = path.charAt(pos);
+            for (Node child : node.staticChildren) {
+                if (child.label.charAt(0) == c && path.startsWith(child.label, pos)) {
+                    Route found = find(child, path, pos + child.label.length(), method);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+            int end = paramEnd(node, path, pos);
+            if (end > pos) {
+                Route found = find(node.paramChild, path, end, method);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return node.wildcardChild != null ? node.wildcardChild.routes.get(method) : null;
+    }
+
+    /**
+     * Recorre todas las coincidencias del path, no solo la primera, y agrega sus métodos.
+     */
+    private static void collectMethods(Node node, String path, int pos, Set<String> methods) {
+        int length = path.length();
+        if (pos == length) {
+            methods.addAll(node.routes.keySet());
+        } else {
+            char c = path.charAt(pos);
+            for (Node child : node.staticChildren) {
+                if (child.label.charAt(0) == c && path.startsWith(child.label, pos)) {
+                    collectMethods(child, path, pos + child.label.length(), methods);
+                }
+            }
+            int end = paramEnd(node, path, pos);
+            if (end > pos) {
+                collectMethods(node.paramChild, path, end, methods);
+            }
+        }
+        if (node.wildcardChild != null) {
+            methods.addAll(node.wildcardChild.routes.keySet());
+        }
+    }
+
+    /**
+     * @return dónde termina el valor de la variable de {@code node} en el path, o {@code pos} si no tiene variable
+     */
+    private static int paramEnd(Node node, String path, int pos) {
+        if (node.paramChild == null) {
+            return pos;
+        }
+        int end = path.indexOf('/', pos);
+        return end < 0 ? path.length() : end;
+    }
+
+    /**
+     * Recorre plantilla y path en paralelo para extraer los valores de las variables.
+     */
+    private static Map<String, String> extractParams(String template, String path) {
+        Map<String, String> params = new HashMap<>(4);
+        int t = 0;
+        int p = 0;
+        while (t < template.length()) {
+            char c = template.charAt(t);
+            if (c == '{') {
+                int close = template.indexOf('}', t);
+                int end = path.indexOf('/', p);
+                if (end < 0) {
+                    end = path.length();
+                }
+                params.put(template.substring(t + 1, close), path.substring(p, end));
+                t = close + 1;
+                p = end;
+            } else if (c == '*') {
+                params.put("*", path.substring(p));
+                break;
+            } else {
+                t++;
+                p++;
+            }
+        }
+        return params;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        String label;
+        Node[] staticChildren = NO_CHILDREN;
+        Node paramChild;
+        Node wildcardChild;
+        final Map<String, Route> routes = new HashMap<>(4);
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void addStatic(Node child) {
+            staticChildren = Arrays.copyOf(staticChildren, staticChildren.length + 1);
+            staticChildren[staticChildren.length - 1] = child;
+        }
+    }
+
+    private static final class Route {
+        final String method;
+        final RouteHandler handler;
+        final String template;
+        // Plantilla sin los nombres de las variables; dos rutas con la misma forma ocupan el mismo nodo
+        final String shape;
+        final boolean hasParams;
+
+        Route(String method, RouteHandler handler, String template) {
+            this.method = method;
+            this.handler = handler;
+            this.template = template;
+            this.shape = template.replaceAll("\\{[^}/]*}", "{}");
+            this.hasParams = template.indexOf('{') >= 0 || template.endsWith("*");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package escuela.edu.co.server;
+
+/**
+ * Modos de ejecución soportados por el servidor para atender conexiones.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Atiende cada conexión en el mismo hilo que ejecuta el accept (comportamiento original del taller).
+     */
+    SEQUENTIAL,
+
+    /**
+     * Atiende las conexiones en un pool acotado de hilos de trabajo con cola limitada.
+     * Cuando el pool y la cola están llenos la conexión se rechaza con 503.
+     */
+    POOLED,
+
+    /**
+     * Atiende cada conexión en su propio hilo virtual. Requiere ejecutar sobre Java 21 o superior.
+     */
+    VIRTUAL,
+
+    /**
+     * Motor no bloqueante basado en {@code Selector}: unos pocos hilos de event loop
+     * aceptan, leen y escriben todas las conexiones.
+     */
+    EVENT_LOOP
+}
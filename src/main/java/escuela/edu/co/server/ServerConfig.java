@@ -0,0 +1,170 @@
+package escuela.edu.co.server;
+
+import java.util.Locale;
+
+/**
+ * Configuración inmutable del modelo de concurrencia y de keep-alive del servidor.
+ * Se construye mediante los métodos de fábrica {@link #sequential()}, {@link #pooled(int, int)},
+ * {@link #virtualThreads()}, {@link #eventLoop(int)} o {@link #fromSystemProperties()}.
+ */
+public final class ServerConfig {
+
+    public static final String MODE_PROPERTY = "http.server.mode";
+    public static final String THREADS_PROPERTY = "http.server.threads";
+    public static final String QUEUE_PROPERTY = "http.server.queue";
+    public static final String KEEP_ALIVE_TIMEOUT_PROPERTY = "http.server.keepalive.timeout";
+    public static final String KEEP_ALIVE_MAX_PROPERTY = "http.server.keepalive.max";
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int DEFAULT_KEEP_ALIVE_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_MAX_KEEP_ALIVE_REQUESTS = 100;
+
+    private final ExecutionMode mode;
+    private final int workerThreads;
+    private final int queueCapacity;
+    private final int keepAliveTimeoutMillis;
+    private final int maxKeepAliveRequests;
+
+    private ServerConfig(ExecutionMode mode, int workerThreads, int queueCapacity) {
+        // En modo secuencial una conexión ociosa bloquearía a las demás, así que no hay keep-alive
+        this(mode, workerThreads, queueCapacity, DEFAULT_KEEP_ALIVE_TIMEOUT_MILLIS,
+                mode == ExecutionMode.SEQUENTIAL ? 1 : DEFAULT_MAX_KEEP_ALIVE_REQUESTS);
+    }
+
+    private ServerConfig(ExecutionMode mode, int workerThreads, int queueCapacity,
+                         int keepAliveTimeoutMillis, int maxKeepAliveRequests) {
+        if (mode == null) {
+            throw new IllegalArgumentException("El modo de ejecución no puede ser null");
+        }
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser mayor a cero: " + workerThreads);
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("La capacidad de la cola no puede ser negativa: " + queueCapacity);
+        }
+        if (keepAliveTimeoutMillis < 1 || maxKeepAliveRequests < 1) {
+            throw new IllegalArgumentException("El timeout y el máximo de solicitudes keep-alive deben ser positivos");
+        }
+        this.mode = mode;
+        this.workerThreads = workerThreads;
+        this.queueCapacity = queueCapacity;
+        this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    /**
+     * Configuración secuencial: un solo hilo atiende todas las conexiones.
+     *
+     * @return configuración secuencial
+     */
+    public static ServerConfig sequential() {
+        return new ServerConfig(ExecutionMode.SEQUENTIAL, 1, 0);
+    }
+
+    /**
+     * Configuración concurrente con pool acotado.
+     *
+     * @param workerThreads número de hilos de trabajo
+     * @param queueCapacity conexiones que pueden esperar en cola antes de responder 503
+     * @return configuración concurrente
+     */
+    public static ServerConfig pooled(int workerThreads, int queueCapacity) {
+        return new ServerConfig(ExecutionMode.POOLED, workerThreads, queueCapacity);
+    }
+
+    /**
+     * Configuración concurrente con valores por defecto según los núcleos disponibles.
+     *
+     * @return configuración concurrente por defecto
+     */
+    public static ServerConfig pooled() {
+        return pooled(defaultWorkerThreads(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Configuración con un hilo virtual por conexión (Java 21+).
+     * No hay límite de hilos ni cola: cada conexión aceptada obtiene su propio hilo.
+     *
+     * @return configuración con hilos virtuales
+     */
+    public static ServerConfig virtualThreads() {
+        return new ServerConfig(ExecutionMode.VIRTUAL, 1, 0);
+    }
+
+    /**
+     * Configuración del motor no bloqueante con el número de event loops indicado.
+     *
+     * @param eventLoops hilos de event loop (el primero también acepta conexiones)
+     * @return configuración del motor NIO
+     */
+    public static ServerConfig eventLoop(int eventLoops) {
+        return new ServerConfig(ExecutionMode.EVENT_LOOP, eventLoops, 0);
+    }
+
+    /**
+     * Devuelve una copia con la política de conexiones persistentes indicada.
+     *
+     * @param timeoutMillis tiempo máximo de inactividad entre solicitudes de una conexión
+     * @param maxRequests solicitudes máximas por conexión; 1 desactiva keep-alive
+     * @return nueva configuración
+     */
+    public ServerConfig withKeepAlive(int timeoutMillis, int maxRequests) {
+        return new ServerConfig(mode, workerThreads, queueCapacity, timeoutMillis, maxRequests);
+    }
+
+    /**
+     * Lee la configuración de las propiedades del sistema
+     * ({@code http.server.mode}, {@code http.server.threads}, {@code http.server.queue},
+     * {@code http.server.keepalive.timeout} y {@code http.server.keepalive.max}).
+     * Si no se especifica modo se usa el secuencial.
+     *
+     * @return configuración leída
+     */
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig config = modeFromSystemProperties();
+        return config.withKeepAlive(
+                Integer.getInteger(KEEP_ALIVE_TIMEOUT_PROPERTY, config.keepAliveTimeoutMillis),
+                Integer.getInteger(KEEP_ALIVE_MAX_PROPERTY, config.maxKeepAliveRequests));
+    }
+
+    private static ServerConfig modeFromSystemProperties() {
+        String modeName = System.getProperty(MODE_PROPERTY, ExecutionMode.SEQUENTIAL.name());
+        ExecutionMode mode = ExecutionMode.valueOf(modeName.trim().toUpperCase(Locale.ROOT));
+        if (mode == ExecutionMode.SEQUENTIAL) {
+            return sequential();
+        }
+        if (mode == ExecutionMode.VIRTUAL) {
+            return virtualThreads();
+        }
+        if (mode == ExecutionMode.EVENT_LOOP) {
+            return eventLoop(Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        }
+        int threads = Integer.getInteger(THREADS_PROPERTY, defaultWorkerThreads());
+        int queue = Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE_CAPACITY);
+        return new ServerConfig(mode, threads, queue);
+    }
+
+    private static int defaultWorkerThreads() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ExecutionMode getMode() { return mode; }
+
+    /**
+     * Hilos de trabajo del pool o, en modo {@link ExecutionMode#EVENT_LOOP}, número de event loops.
+     */
+    public int getWorkerThreads() { return workerThreads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+
+    public int getKeepAliveTimeoutMillis() { return keepAliveTimeoutMillis; }
+
+    public int getMaxKeepAliveRequests() { return maxKeepAliveRequests; }
+
+    @Override
+    public String toString() {
+        return "ServerConfig{mode=" + mode + ", workerThreads=" + workerThreads
+                + ", queueCapacity=" + queueCapacity + ", keepAliveTimeoutMillis=" + keepAliveTimeoutMillis
+                + ", maxKeepAliveRequests=" + maxKeepAliveRequests + "}";
+    }
+}
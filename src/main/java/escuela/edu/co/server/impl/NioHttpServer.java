@@ -0,0 +1,775 @@
+package escuela.edu.co.server.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import escuela.edu.co.RequestBody;
+import escuela.edu.co.api.ApiRequestHandler;
+import escuela.edu.co.metrics.ServerMetrics;
+import escuela.edu.co.request.impl.HttpRequestHandler;
+import escuela.edu.co.routing.Router;
+import escuela.edu.co.server.HttpServerInterface;
+import escuela.edu.co.staticfiles.StaticFileHandler;
+import escuela.edu.co.utils.HttpBodyDecoder;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpParseException;
+import escuela.edu.co.utils.HttpRequestDecoder;
+import escuela.edu.co.utils.HttpResponseHelper;
+
+/**
+ * Servidor HTTP no bloqueante basado en {@link Selector}.
+ * Un número pequeño de event loops atiende todas las conexiones: el primero acepta y reparte
+ * las conexiones nuevas en round-robin, y cada loop lee, procesa y escribe las suyas.
+ * Reutiliza el mismo {@link HttpRequestHandler} (Router, StaticFileHandler y ApiRequestHandler)
+ * que el servidor bloqueante. Los handlers se ejecutan en el hilo del event loop.
+ * Las conexiones son persistentes según la política de keep-alive del manejador: se atienden
+ * solicitudes en pipeline en orden y se cierran las conexiones inactivas más allá del timeout.
+ * Registra conexiones, bytes y latencias en las {@link ServerMetrics} del manejador.
+ */
+public class NioHttpServer implements HttpServerInterface {
+
+    private static final Logger LOGGER = Logger.getLogger(NioHttpServer.class.getName());
+    private static final int DEFAULT_PORT = 35000;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    /**
+     * Bytes escritos por un handler que se acumulan en memoria antes de pasarlos a la cola de salida.
+     */
+    private static final int STREAM_FLUSH_BYTES = 64 * 1024;
+    /**
+     * Bytes de una misma respuesta en cola por encima de los cuales se aborta si es un streaming: el cliente
+     * no lee al ritmo del handler y el resto de la respuesta quedaría en el heap. No cuentan los bytes de
+     * respuestas anteriores de la misma conexión (pipelining).
+     */
+    private static final long STREAM_HIGH_WATER_BYTES = 1024 * 1024;
+    private static final long IDLE_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final int port;
+    private final HttpRequestHandler requestHandler;
+    private final ServerMetrics metrics;
+    private final int eventLoopCount;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private volatile boolean running = false;
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] eventLoops;
+
+    /**
+     * Constructor que inyecta las dependencias con puerto por defecto y un event loop por núcleo.
+     */
+    public NioHttpServer(HttpRequestHandler requestHandler) {
+        this(DEFAULT_PORT, requestHandler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor que reutiliza los componentes del servidor bloqueante.
+     */
+    public NioHttpServer(int port, Router router, StaticFileHandler staticFileHandler,
+                         ApiRequestHandler apiRequestHandler, int eventLoopCount) {
+        this(port, new HttpRequestHandler(router, staticFileHandler, apiRequestHandler), eventLoopCount);
+    }
+
+    /**
+     * Constructor con puerto, manejador y número de event loops personalizados.
+     */
+    public NioHttpServer(int port, HttpRequestHandler requestHandler, int eventLoopCount) {
+        if (requestHandler == null) {
+            throw new IllegalArgumentException("El manejador no puede ser null");
+        }
+        if (eventLoopCount < 1) {
+            throw new IllegalArgumentException("Debe haber al menos un event loop: " + eventLoopCount);
+        }
+        this.port = port;
+        this.requestHandler = requestHandler;
+        this.metrics = requestHandler.getMetrics();
+        this.eventLoopCount = eventLoopCount;
+    }
+
+    @Override
+    public void start() throws IOException {
+        if (running) {
+            LOGGER.warning("El servidor ya está ejecutándose");
+            return;
+        }
+
+        boolean started = false;
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+
+            eventLoops = new EventLoop[eventLoopCount];
+            for (int i = 0; i < eventLoopCount; i++) {
+                eventLoops[i] = new EventLoop(Selector.open());
+            }
+            serverChannel.register(eventLoops[0].selector, SelectionKey.OP_ACCEPT);
+            running = true;
+            started = true;
+
+            for (int i = 1; i < eventLoopCount; i++) {
+                Thread thread = new Thread(eventLoops[i], "http-nio-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            System.out.println("Servidor HTTP (NIO) iniciado en http://localhost:" + port);
+            LOGGER.info("Servidor NIO iniciado en puerto: " + port + " con " + eventLoopCount + " event loops");
+
+            // El primer event loop corre en el hilo que llama a start(), igual que SimpleHttpServer
+            eventLoops[0].run();
+        } catch (IOException e) {
+            // Un error al iniciar (por ejemplo, el puerto ocupado) siempre se propaga
+            if (running || !started) {
+                LOGGER.log(Level.SEVERE, "Error en el servidor", e);
+                throw e;
+            }
+        } finally {
+            cleanup();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (eventLoops != null) {
+            for (EventLoop loop : eventLoops) {
+                if (loop != null) {
+                    loop.selector.wakeup();
+                }
+            }
+        }
+        LOGGER.info("Servidor detenido");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void cleanup() {
+        running = false;
+        if (serverChannel != null && serverChannel.isOpen()) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error durante cleanup", e);
+            }
+        }
+        if (eventLoops != null) {
+            for (EventLoop loop : eventLoops) {
+                if (loop != null) {
+                    loop.selector.wakeup();
+                }
+            }
+        }
+    }
+
+    private EventLoop nextEventLoop() {
+        return eventLoops[Math.floorMod(nextLoop.getAndIncrement(), eventLoops.length)];
+    }
+
+    /**
+     * Hilo con su propio Selector que atiende un subconjunto de las conexiones.
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private long lastIdleSweep = System.currentTimeMillis();
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Entrega una conexión aceptada a este loop; el registro ocurre en su propio hilo.
+         */
+        void assign(SocketChannel channel) {
+            pendingChannels.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(IDLE_SWEEP_INTERVAL_MILLIS);
+                    registerPendingChannels();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handleKey(key);
+                    }
+                    closeIdleConnections();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.log(Level.SEVERE, "Error en el event loop", e);
+                }
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void handleKey(SelectionKey key) {
+            try {
+                if (!key.isValid()) {
+                    return;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else if (key.isReadable()) {
+                    read(key);
+                } else if (key.isWritable()) {
+                    write(key);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Conexión cerrada por error", e);
+                close(key);
+            }
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                nextEventLoop().assign(channel);
+            }
+        }
+
+        private void registerPendingChannels() {
+            SocketChannel channel;
+            while ((channel = pendingChannels.poll()) != null) {
+                try {
+                    channel.register(selector, SelectionKey.OP_READ, new Connection(channel, metrics));
+                    metrics.connectionOpened();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "No se pudo registrar la conexión", e);
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        private void read(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Connection connection = (Connection) key.attachment();
+            readBuffer.clear();
+            int read = channel.read(readBuffer);
+            if (read == -1) {
+                close(key);
+                return;
+            }
+            metrics.bytesReceived(read);
+            readBuffer.flip();
+            connection.append(readBuffer);
+            connection.lastActivity = System.currentTimeMillis();
+
+            // Atiende en orden todas las solicitudes completas ya recibidas (pipelining)
+            try {
+                while (!connection.closeAfterWrite && connection.takeRequest()) {
+                    connection.requestsServed++;
+                    boolean allowKeepAlive = connection.requestsServed < requestHandler.getMaxKeepAliveRequests();
+                    ExchangeOutputStream out = new ExchangeOutputStream(connection);
+                    if (!requestHandler.process(connection.decoder.head(), connection.body, out, allowKeepAlive)) {
+                        connection.closeAfterWrite = true;
+                    }
+                    connection.nextRequest();
+                    finish(out);
+                }
+            } catch (HttpParseException e) {
+                ExchangeOutputStream out = new ExchangeOutputStream(connection);
+                HttpResponseHelper.sendParseError(out, e);
+                metrics.recordResponse(out.getStatus());
+                connection.closeAfterWrite = true;
+                finish(out);
+            }
+            if (connection.continueRequested && !connection.closeAfterWrite) {
+                // El cliente espera permiso antes de enviar el body; se pide una sola vez por solicitud
+                connection.continueRequested = false;
+                ExchangeOutputStream out = new ExchangeOutputStream(connection);
+                HttpResponseHelper.send100Continue(out);
+                finish(out);
+            }
+            if (connection.hasPendingOutput()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                write(key);
+            } else if (connection.closeAfterWrite) {
+                close(key);
+            }
+        }
+
+        /**
+         * Encola lo que quedaba de la respuesta y cuenta sus bytes.
+         */
+        private void finish(ExchangeOutputStream out) {
+            out.finish();
+            metrics.bytesSent(out.getBytesWritten());
+        }
+
+        private void write(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            connection.writeAvailable();
+            if (connection.hasPendingOutput()) {
+                // El socket está lleno: se reintenta cuando vuelva a ser escribible
+                return;
+            }
+            connection.lastActivity = System.currentTimeMillis();
+            if (connection.closeAfterWrite) {
+                close(key);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Cierra las conexiones keep-alive que llevan más del timeout sin actividad.
+         */
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleSweep < IDLE_SWEEP_INTERVAL_MILLIS) {
+                return;
+            }
+            lastIdleSweep = now;
+            long timeout = requestHandler.getKeepAliveTimeoutMillis();
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof Connection) {
+                    Connection connection = (Connection) attachment;
+                    if (!connection.hasPendingOutput() && now - connection.lastActivity > timeout) {
+                        close(key);
+                    }
+                }
+            }
+        }
+
+        private void close(SelectionKey key) {
+            key.cancel();
+            closeQuietly(key.channel());
+            if (key.attachment() instanceof Connection) {
+                Connection connection = (Connection) key.attachment();
+                connection.releasePendingOutput();
+                connection.discardBody();
+                // closeAll puede volver a ver una llave ya cancelada
+                if (!connection.closed) {
+                    connection.closed = true;
+                    metrics.connectionClosed();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            SocketChannel channel;
+            while ((channel = pendingChannels.poll()) != null) {
+                closeQuietly(channel);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error cerrando Selector", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Error cerrando canal", e);
+        }
+    }
+
+    /**
+     * Estado por conexión: bytes recibidos pendientes de procesar junto
+     * con el decoder incremental de la solicitud en curso, respuestas en cola
+     * y datos de keep-alive (solicitudes atendidas y última actividad).
+     */
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final ServerMetrics metrics;
+        private final HttpRequestDecoder decoder = new HttpRequestDecoder();
+        private final HttpBodyDecoder bodyDecoder = HttpBodyDecoder.fromSystemProperties();
+        private byte[] inbound = new byte[1024];
+        private ByteBuffer inboundView = ByteBuffer.wrap(inbound);
+        private int size;
+        private boolean headComplete;
+        private boolean continueRequested;
+        private RequestBody body;
+        private final Deque<PendingWrite> outbound = new ArrayDeque<>();
+        // Bytes encolados y enviados desde que se abrió la conexión; su diferencia es lo pendiente
+        private long enqueuedBytes;
+        private long sentBytes;
+        private boolean aborted;
+        private int requestsServed;
+        private long lastActivity = System.currentTimeMillis();
+        private boolean closeAfterWrite;
+        private boolean closed;
+        private long parseNanos;
+        private long writeStarted;
+
+        Connection(SocketChannel channel, ServerMetrics metrics) {
+            this.channel = channel;
+            this.metrics = metrics;
+        }
+
+        void append(ByteBuffer data) {
+            int needed = size + data.remaining();
+            if (needed > inbound.length) {
+                byte[] grown = new byte[Math.max(needed, inbound.length * 2)];
+                System.arraycopy(inbound, 0, grown, 0, size);
+                inbound = grown;
+                inboundView = ByteBuffer.wrap(inbound);
+            }
+            data.get(inbound, size, data.remaining());
+            size = needed;
+        }
+
+        void enqueue(PendingWrite write) {
+            if (outbound.isEmpty()) {
+                writeStarted = System.nanoTime();
+            }
+            outbound.add(write);
+            enqueuedBytes += write.size();
+        }
+
+        void releasePendingOutput() {
+            PendingWrite pending;
+            while ((pending = outbound.poll()) != null) {
+                pending.release();
+            }
+            sentBytes = enqueuedBytes;
+        }
+
+        /**
+         * @param start valor de {@link #enqueuedBytes} cuando empezó la respuesta
+         * @return bytes de esa respuesta que siguen en cola
+         */
+        long pendingSince(long start) {
+            return enqueuedBytes - Math.max(start, sentBytes);
+        }
+
+        /**
+         * Descarta de la cola los últimos {@code bytes} encolados, que son de la respuesta en curso;
+         * las respuestas anteriores se siguen enviando.
+         */
+        void dropTail(long bytes) {
+            while (bytes > 0 && !outbound.isEmpty()) {
+                PendingWrite last = outbound.pollLast();
+                bytes -= last.size();
+                enqueuedBytes -= last.size();
+                last.release();
+            }
+        }
+
+        boolean hasPendingOutput() {
+            return !outbound.isEmpty();
+        }
+
+        /**
+         * Escribe lo que acepte el socket sin bloquear; lo que no quepa se envía cuando vuelva a ser escribible.
+         * Al vaciar la cola registra el tiempo desde que se encoló la primera escritura pendiente.
+         */
+        void writeAvailable() throws IOException {
+            if (!hasPendingOutput()) {
+                return;
+            }
+            while (hasPendingOutput()) {
+                if (!outbound.peek().writeTo(channel)) {
+                    return;
+                }
+                PendingWrite written = outbound.poll();
+                sentBytes += written.size();
+                written.release();
+            }
+            metrics.recordWrite(System.nanoTime() - writeStarted);
+        }
+
+        /**
+         * Avanza los decoders con los bytes recibidos: primero los headers y luego el body
+         * (Content-Length o chunked). Los bytes restantes quedan para la siguiente solicitud.
+         *
+         * @return true si hay una solicitud completa en {@link #decoder} y {@link #body}
+         * @throws HttpParseException si la solicitud está mal formada o supera los límites
+         * @throws IOException si falla la escritura del body en disco
+         */
+        boolean takeRequest() throws IOException {
+            inboundView.limit(size).position(0);
+            try {
+                if (!headComplete) {
+                    // Solo el tiempo del decoder, acumulado entre lecturas parciales
+                    long start = System.nanoTime();
+                    boolean complete = decoder.decode(inboundView);
+                    parseNanos += System.nanoTime() - start;
+                    if (!complete) {
+                        return false;
+                    }
+                    metrics.recordParse(parseNanos);
+                    parseNanos = 0;
+                    headComplete = true;
+                    bodyDecoder.start(decoder.head());
+                    continueRequested = bodyDecoder.expectsContinue();
+                }
+                if (!bodyDecoder.decode(inboundView)) {
+                    return false;
+                }
+                continueRequested = false;
+                body = bodyDecoder.finish();
+                return true;
+            } finally {
+                consume(inboundView.position());
+            }
+        }
+
+        void nextRequest() {
+            headComplete = false;
+            body = null;
+            decoder.reset();
+        }
+
+        void discardBody() {
+            bodyDecoder.discard();
+        }
+
+        private void consume(int count) {
+            System.arraycopy(inbound, count, inbound, 0, size - count);
+            size -= count;
+        }
+    }
+
+    /**
+     * Salida de una solicitud en el motor NIO. Acumula los bytes en memoria y, cuando se envía
+     * un archivo, encola el segmento como {@link FileRegion} en lugar de copiarlo.
+     */
+    private static final class ExchangeOutputStream extends HttpOutputStream {
+
+        private final Connection connection;
+        private final ByteArrayOutputStream buffer;
+        // Posición de la conexión al empezar esta respuesta, para no contar las anteriores
+        private final long start;
+
+        ExchangeOutputStream(Connection connection) {
+            this(connection, new ByteArrayOutputStream());
+        }
+
+        private ExchangeOutputStream(Connection connection, ByteArrayOutputStream buffer) {
+            super(buffer);
+            this.connection = connection;
+            this.buffer = buffer;
+            this.start = connection.enqueuedBytes;
+        }
+
+        /**
+         * Una respuesta en streaming pide enviar lo escrito: se encola y se escribe lo que acepte el socket.
+         * El handler corre en el event loop y no puede esperar a que el socket vuelva a ser escribible, así que
+         * si el cliente lee más lento de lo que el handler produce, la cola crece. Si lo pendiente de esta
+         * respuesta pasa de {@link #STREAM_HIGH_WATER_BYTES}, se descarta, el handler recibe una IOException
+         * y la conexión se cierra después de enviar las respuestas anteriores.
+         * Una respuesta de larga duración (SSE) detiene además las demás conexiones de ese event loop.
+         */
+        @Override
+        public void flush() throws IOException {
+            ensureNotAborted();
+            finish();
+            connection.writeAvailable();
+            long pending = connection.pendingSince(start);
+            if (pending > STREAM_HIGH_WATER_BYTES) {
+                connection.aborted = true;
+                connection.closeAfterWrite = true;
+                connection.dropTail(pending);
+                throw new IOException("El cliente no lee la respuesta al ritmo del handler; se cierra la conexión");
+            }
+        }
+
+        /**
+         * Un handler que escribe sin llamar a flush tampoco acumula más de {@link #STREAM_FLUSH_BYTES} en memoria.
+         */
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureNotAborted();
+            super.write(b, off, len);
+            if (buffer.size() >= STREAM_FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void ensureNotAborted() throws IOException {
+            if (connection.aborted) {
+                buffer.reset();
+                throw new IOException("La respuesta se abortó");
+            }
+        }
+
+        /**
+         * Encola headers y body juntos para una escritura gathering. Los headers se copian
+         * porque su buffer vuelve al pool; el body se encola sin copiarlo.
+         */
+        @Override
+        public void write(ByteBuffer head, byte[] body) {
+            recordWrite(head, body != null ? body.length : 0);
+            finish();
+            ByteBuffer headers = ByteBuffer.allocate(head.remaining()).put(head).flip();
+            ByteBuffer[] buffers = body == null ? new ByteBuffer[]{headers}
+                    : new ByteBuffer[]{headers, ByteBuffer.wrap(body)};
+            connection.enqueue(new BufferWrite(buffers));
+        }
+
+        @Override
+        public void write(ByteBuffer head, ByteBuffer body) {
+            recordWrite(head, body.remaining());
+            finish();
+            ByteBuffer headers = ByteBuffer.allocate(head.remaining()).put(head).flip();
+            connection.enqueue(new BufferWrite(new ByteBuffer[]{headers, body}));
+        }
+
+        @Override
+        public void sendFile(Path file, long position, long count) throws IOException {
+            recordWrite(count);
+            finish();
+            connection.enqueue(new FileRegion(FileChannel.open(file, StandardOpenOption.READ), position, count));
+        }
+
+        /**
+         * Encola los bytes acumulados hasta ahora.
+         */
+        void finish() {
+            if (connection.aborted) {
+                buffer.reset();
+                return;
+            }
+            if (buffer.size() > 0) {
+                connection.enqueue(new BufferWrite(new ByteBuffer[]{ByteBuffer.wrap(buffer.toByteArray())}));
+                buffer.reset();
+            }
+        }
+    }
+
+    /**
+     * Escritura pendiente en la cola de salida de una conexión.
+     */
+    private interface PendingWrite {
+
+        /**
+         * Escribe lo que acepte el socket sin bloquear.
+         *
+         * @return true si ya se escribió por completo
+         */
+        boolean writeTo(SocketChannel channel) throws IOException;
+
+        /**
+         * @return bytes que ocupa en la cola al encolarse
+         */
+        long size();
+
+        /**
+         * Libera los recursos asociados (archivos abiertos).
+         */
+        void release();
+    }
+
+    /**
+     * Buffers en memoria enviados con una sola escritura gathering.
+     */
+    private static final class BufferWrite implements PendingWrite {
+
+        private final ByteBuffer[] buffers;
+        private final long size;
+
+        BufferWrite(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+            long total = 0;
+            for (ByteBuffer buffer : buffers) {
+                total += buffer.remaining();
+            }
+            this.size = total;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public boolean writeTo(SocketChannel channel) throws IOException {
+            channel.write(buffers);
+            for (ByteBuffer buffer : buffers) {
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void release() {
+            // Nada que liberar: el buffer lo recoge el GC
+        }
+    }
+
+    /**
+     * Segmento de archivo enviado con {@link FileChannel#transferTo} directamente al socket.
+     */
+    private static final class FileRegion implements PendingWrite {
+
+        private final FileChannel file;
+        private long position;
+        private final long end;
+        private final long count;
+
+        FileRegion(FileChannel file, long position, long count) {
+            this.file = file;
+            this.position = position;
+            this.end = position + count;
+            this.count = count;
+        }
+
+        /**
+         * El archivo no ocupa heap, pero cuenta para el límite como bytes pendientes de envío.
+         */
+        @Override
+        public long size() {
+            return count;
+        }
+
+        @Override
+        public boolean writeTo(SocketChannel channel) throws IOException {
+            while (position < end) {
+                long transferred = file.transferTo(position, end - position, channel);
+                if (transferred == 0) {
+                    if (position >= file.size()) {
+                        throw new IOException("El archivo terminó antes de lo esperado");
+                    }
+                    return false;
+                }
+                position += transferred;
+            }
+            return true;
+        }
+
+        @Override
+        public void release() {
+            closeQuietly(file);
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package escuela.edu.co.server.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import escuela.edu.co.request.RequestHandler;
+import escuela.edu.co.server.ExecutionMode;
 import escuela.edu.co.server.HttpServerInterface;
+import escuela.edu.co.server.ServerConfig;
+import escuela.edu.co.utils.HttpResponseHelper;
 
 /**
  * Implementación simple del servidor HTTP.
@@ -17,11 +33,17 @@ public class SimpleHttpServer implements HttpServerInterface {
     
     private static final Logger LOGGER = Logger.getLogger(SimpleHttpServer.class.getName());
     private static final int DEFAULT_PORT = 35000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    // Límites para descartar la solicitud de una conexión rechazada antes de cerrarla
+    private static final int REJECT_DRAIN_MILLIS = 100;
+    private static final int REJECT_DRAIN_BYTES = 64 * 1024;
     
     private final int port;
     private final RequestHandler requestHandler;
-    private boolean running = false;
+    private final ServerConfig config;
+    private volatile boolean running = false;
     private ServerSocket serverSocket;
+    private ExecutorService workers;
     
     /**
      * Constructor que inyecta las dependencias.
@@ -35,8 +57,22 @@ public class SimpleHttpServer implements HttpServerInterface {
      * Constructor con puerto personalizado.
      */
     public SimpleHttpServer(int port, RequestHandler requestHandler) {
+        this(port, requestHandler, ServerConfig.sequential());
+    }
+    
+    /**
+     * Constructor con puerto y modelo de concurrencia personalizados.
+     */
+    public SimpleHttpServer(int port, RequestHandler requestHandler, ServerConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("La configuración no puede ser null");
+        }
+        if (config.getMode() == ExecutionMode.EVENT_LOOP) {
+            throw new IllegalArgumentException("El modo EVENT_LOOP lo implementa NioHttpServer");
+        }
         this.port = port;
         this.requestHandler = requestHandler;
+        this.config = config;
     }
     
     @Override
@@ -46,20 +82,30 @@ public class SimpleHttpServer implements HttpServerInterface {
             return;
         }
         
+        boolean started = false;
         try {
-            serverSocket = new ServerSocket(port);
+            workers = createWorkers();
+            // Abrir por canal hace que cada Socket aceptado exponga getChannel() para transferTo
+            serverSocket = ServerSocketChannel.open().socket();
+            serverSocket.bind(new InetSocketAddress(port));
             running = true;
+            started = true;
             
             System.out.println("Servidor HTTP iniciado en http://localhost:" + port);
-            LOGGER.info("Servidor iniciado en puerto: " + port);
+            LOGGER.info("Servidor iniciado en puerto: " + port + " con " + config);
             
             while (running) {
                 Socket clientSocket = serverSocket.accept();
-                // Manejo secuencial (sin crear hilos) según requisito del taller
-                requestHandler.handleRequest(clientSocket);
+                if (workers == null) {
+                    // Manejo secuencial (sin crear hilos) según requisito del taller
+                    requestHandler.handleRequest(clientSocket);
+                } else {
+                    dispatch(clientSocket);
+                }
             }
         } catch (IOException e) {
-            if (running) {
+            // Un error al iniciar (por ejemplo, el puerto ocupado) siempre se propaga
+            if (running || !started) {
                 LOGGER.log(Level.SEVERE, "Error en el servidor", e);
                 throw e;
             }
@@ -87,6 +133,88 @@ public class SimpleHttpServer implements HttpServerInterface {
         return running;
     }
     
+    /**
+     * Obtiene la configuración de concurrencia del servidor.
+     * 
+     * @return configuración usada por el servidor
+     */
+    public ServerConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * Crea el ejecutor según el modo configurado; en modo secuencial no se usa ejecutor.
+     */
+    private ExecutorService createWorkers() {
+        switch (config.getMode()) {
+            case POOLED:
+                return createWorkerPool();
+            case VIRTUAL:
+                return VirtualThreads.newThreadPerTaskExecutor();
+            default:
+                return null;
+        }
+    }
+    
+    private ThreadPoolExecutor createWorkerPool() {
+        int threads = config.getWorkerThreads();
+        BlockingQueue<Runnable> queue = config.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(config.getQueueCapacity())
+                : new SynchronousQueue<>();
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, queue,
+                new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Entrega la conexión al ejecutor. Si el pool está saturado responde 503 desde el hilo de accept.
+     */
+    private void dispatch(Socket clientSocket) {
+        try {
+            workers.execute(() -> {
+                try {
+                    requestHandler.handleRequest(clientSocket);
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Conexión terminada con error", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectConnection(clientSocket);
+        }
+    }
+    
+    /**
+     * Responde 503 y cierra con FIN: si se cerrara con la solicitud sin leer, el kernel enviaría un RST
+     * y el cliente podría perder el 503 antes de leerlo. Por eso se cierra la escritura y se descarta
+     * lo que envíe el cliente durante un tiempo acotado, ya que esto ocupa el hilo que acepta conexiones.
+     */
+    private void rejectConnection(Socket clientSocket) {
+        LOGGER.warning("Servidor saturado, conexión rechazada con 503");
+        try (Socket socket = clientSocket) {
+            HttpResponseHelper.send503(socket.getOutputStream());
+            socket.shutdownOutput();
+            drainInput(socket);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Error enviando 503", e);
+        }
+    }
+    
+    private static void drainInput(Socket socket) throws IOException {
+        socket.setSoTimeout(REJECT_DRAIN_MILLIS);
+        InputStream in = socket.getInputStream();
+        byte[] buffer = new byte[1024];
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REJECT_DRAIN_MILLIS);
+        int drained = 0;
+        try {
+            int read;
+            while (drained < REJECT_DRAIN_BYTES && System.nanoTime() - deadline < 0
+                    && (read = in.read(buffer)) != -1) {
+                drained += read;
+            }
+        } catch (SocketTimeoutException e) {
+            // El cliente no cerró a tiempo: se cierra igual
+        }
+    }
+    
     private void cleanup() {
         running = false;
         if (serverSocket != null && !serverSocket.isClosed()) {
@@ -96,5 +224,30 @@ public class SimpleHttpServer implements HttpServerInterface {
                 LOGGER.log(Level.WARNING, "Error durante cleanup", e);
             }
         }
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Fábrica de hilos con nombres legibles para los workers del pool.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "http-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
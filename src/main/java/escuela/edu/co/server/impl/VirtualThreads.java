@@ -0,0 +1,53 @@
+package escuela.edu.co.server.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acceso a los hilos virtuales de Java 21 sin exigir Java 21 para compilar.
+ * El proyecto compila con release 17, así que el ejecutor se obtiene por reflexión una sola vez.
+ */
+final class VirtualThreads {
+
+    private static final Method NEW_EXECUTOR = lookupExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Indica si la JVM actual soporta hilos virtuales.
+     *
+     * @return true si se ejecuta sobre Java 21 o superior
+     */
+    static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Crea un ejecutor que inicia un hilo virtual nuevo por tarea.
+     *
+     * @return ejecutor de hilos virtuales
+     * @throws IllegalStateException si la JVM no soporta hilos virtuales
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 o superior (JVM actual: "
+                    + Runtime.version() + ")");
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static Method lookupExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package escuela.edu.co.staticfiles;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Map;
 
 /**
  * Interface para el manejo de archivos estáticos.
@@ -25,4 +26,19 @@ public interface StaticFileHandler {
      * @throws IOException s
      */
     boolean serveStaticFile(String path, OutputStream out) throws IOException;
+    
+    /**
+     * Sirve un archivo estático considerando los headers de la solicitud,
+     * por ejemplo {@code If-None-Match} o {@code If-Modified-Since} para responder {@code 304 Not Modified}.
+     * Por defecto ignora los headers.
+     * 
+     * @param path el path del archivo solicitado
+     * @param headers headers de la solicitud con nombres en minúscula
+     * @param out el stream de salida para enviar la respuesta
+     * @return true si el archivo existe y se respondió
+     * @throws IOException si ocurre un error al escribir
+     */
+    default boolean serveStaticFile(String path, Map<String, String> headers, OutputStream out) throws IOException {
+        return serveStaticFile(path, out);
+    }
 }
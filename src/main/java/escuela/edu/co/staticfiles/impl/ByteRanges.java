@@ -0,0 +1,90 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interpretación del header {@code Range} en unidades de bytes (RFC 9110, sección 14).
+ * Cada rango se representa como {@code long[] {inicio, fin}} con el fin inclusivo.
+ */
+final class ByteRanges {
+
+    /** Más rangos que esto se trata como abuso y se responde el archivo completo. */
+    static final int MAX_RANGES = 16;
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Interpreta {@code bytes=0-499,1000-,-200} contra el tamaño del archivo.
+     *
+     * @param header valor del header {@code Range}
+     * @param length tamaño del archivo
+     * @return los rangos satisfacibles (lista vacía si ninguno lo es, para responder 416),
+     *         o null si el header es inválido o debe ignorarse y se responde 200 con el archivo completo
+     */
+    static List<long[]> parse(String header, long length) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String[] specs = value.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>();
+        for (String spec : specs) {
+            String range = spec.trim();
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                long[] parsed = dash == 0
+                        ? suffix(Long.parseLong(range.substring(1)), length)
+                        : bounded(range.substring(0, dash), range.substring(dash + 1), length);
+                if (parsed == null) {
+                    return null;
+                }
+                if (parsed.length > 0) {
+                    ranges.add(parsed);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * @return el rango, un arreglo vacío si no es satisfacible, o null si es inválido
+     */
+    private static long[] bounded(String first, String last, long length) {
+        long start = Long.parseLong(first.trim());
+        long end = last.isBlank() ? Long.MAX_VALUE : Long.parseLong(last.trim());
+        if (start < 0 || end < start) {
+            return null;
+        }
+        if (start >= length) {
+            return new long[0];
+        }
+        return new long[] {start, Math.min(end, length - 1)};
+    }
+
+    /**
+     * Rango {@code -N}: los últimos N bytes.
+     */
+    private static long[] suffix(long count, long length) {
+        if (count < 0) {
+            return null;
+        }
+        if (count == 0 || length == 0) {
+            return new long[0];
+        }
+        return new long[] {Math.max(0, length - count), length - 1};
+    }
+
+    static String contentRange(long[] range, long length) {
+        return "bytes " + range[0] + "-" + range[1] + "/" + length;
+    }
+}
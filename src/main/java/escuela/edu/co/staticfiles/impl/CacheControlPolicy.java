@@ -0,0 +1,83 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Política inmutable del header {@code Cache-Control} según la extensión del archivo.
+ * Por defecto el HTML se revalida siempre ({@code no-cache}, con ETag la revalidación cuesta un 304),
+ * mientras que estilos, scripts, imágenes y fuentes se guardan un día en el navegador.
+ */
+public final class CacheControlPolicy {
+
+    public static final String REVALIDATE = "no-cache";
+    public static final String ONE_DAY = "public, max-age=86400";
+    public static final String ONE_HOUR = "public, max-age=3600";
+
+    private final Map<String, String> byExtension;
+    private final String fallback;
+
+    private CacheControlPolicy(Map<String, String> byExtension, String fallback) {
+        this.byExtension = byExtension;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return la política por defecto: HTML revalidado, recursos estáticos cacheados un día y el resto una hora
+     */
+    public static CacheControlPolicy defaults() {
+        Map<String, String> rules = new HashMap<>();
+        rules.put("html", REVALIDATE);
+        rules.put("htm", REVALIDATE);
+        for (String extension : new String[] {"css", "js", "png", "jpg", "jpeg", "gif", "svg", "ico", "webp",
+                "woff", "woff2"}) {
+            rules.put(extension, ONE_DAY);
+        }
+        return new CacheControlPolicy(rules, ONE_HOUR);
+    }
+
+    /**
+     * Devuelve una copia con la regla indicada para una extensión.
+     *
+     * @param extension extensión sin punto, por ejemplo {@code "js"}
+     * @param cacheControl valor del header, por ejemplo {@code "public, max-age=31536000, immutable"}
+     * @return nueva política con la regla agregada o reemplazada
+     */
+    public CacheControlPolicy with(String extension, String cacheControl) {
+        if (extension == null || cacheControl == null) {
+            throw new IllegalArgumentException("La extensión y el valor no pueden ser null");
+        }
+        Map<String, String> rules = new HashMap<>(byExtension);
+        rules.put(extension.toLowerCase(Locale.ROOT), cacheControl);
+        return new CacheControlPolicy(rules, fallback);
+    }
+
+    /**
+     * Devuelve una copia con el valor usado para extensiones sin regla.
+     *
+     * @param cacheControl valor del header
+     * @return nueva política con el valor por defecto reemplazado
+     */
+    public CacheControlPolicy withDefault(String cacheControl) {
+        if (cacheControl == null) {
+            throw new IllegalArgumentException("El valor no puede ser null");
+        }
+        return new CacheControlPolicy(byExtension, cacheControl);
+    }
+
+    /**
+     * @param path path solicitado ({@code /} equivale a {@code /index.html})
+     * @return el valor de {@code Cache-Control} para el archivo
+     */
+    public String forPath(String path) {
+        if ("/".equals(path)) {
+            path = "/index.html";
+        }
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')) {
+            return fallback;
+        }
+        return byExtension.getOrDefault(path.substring(dot + 1).toLowerCase(Locale.ROOT), fallback);
+    }
+}
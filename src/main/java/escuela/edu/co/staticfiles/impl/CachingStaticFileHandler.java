@@ -0,0 +1,315 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import escuela.edu.co.staticfiles.StaticFileHandler;
+import escuela.edu.co.utils.ContentEncoding;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.ResponseWriter;
+
+/**
+ * Manejador de archivos estáticos con caché en memoria para los archivos más solicitados.
+ * Guarda los headers ya renderizados y el contenido, con un presupuesto de bytes y desalojo LRU.
+ * Cada acierto lee los atributos del archivo con una sola llamada ({@code readAttributes}) y compara
+ * la fecha de modificación y el tamaño: si cambiaron, la entrada se vuelve a cargar.
+ * Los archivos mayores a {@code maxEntryBytes} se delegan a {@link SimpleStaticFileHandler},
+ * que los envía sin copiarlos al heap.
+ * Los archivos de texto se guardan además comprimidos con cada codificación solicitada ({@code Accept-Encoding}),
+ * de modo que cada archivo se comprime una sola vez; para gzip se prefiere la versión {@code .gz} si existe,
+ * y esa variante se valida también contra los atributos del {@code .gz}.
+ * Cada entrada guarda su ETag y sus validadores, así que un {@code 304 Not Modified} no toca el disco más allá del stat.
+ * Aplica el principio abierto/cerrado (Open/Closed Principle): decora al manejador existente sin modificarlo.
+ */
+public class CachingStaticFileHandler implements StaticFileHandler {
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    public static final long DEFAULT_MAX_ENTRY_BYTES = 1024L * 1024;
+    /** Propiedad del sistema para el presupuesto en bytes, por ejemplo {@code -Dhttp.static.cache.bytes=0}. */
+    public static final String MAX_BYTES_PROPERTY = "http.static.cache.bytes";
+
+
+    private final SimpleStaticFileHandler delegate;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    // Orden de acceso: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public CachingStaticFileHandler() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Crea la caché con el presupuesto de {@value #MAX_BYTES_PROPERTY}, o {@link #DEFAULT_MAX_BYTES} si no está definido.
+     *
+     * @return caché sobre un {@link SimpleStaticFileHandler}
+     */
+    public static CachingStaticFileHandler fromSystemProperties() {
+        return new CachingStaticFileHandler(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * @param maxBytes bytes de contenido que puede ocupar la caché
+     */
+    public CachingStaticFileHandler(long maxBytes) {
+        this(new SimpleStaticFileHandler(), maxBytes, Math.min(maxBytes, DEFAULT_MAX_ENTRY_BYTES));
+    }
+
+    /**
+     * @param delegate manejador que resuelve los archivos y sirve los que no se guardan en caché
+     * @param maxBytes bytes de contenido que puede ocupar la caché
+     * @param maxEntryBytes tamaño máximo de un archivo para guardarlo en caché
+     */
+    public CachingStaticFileHandler(SimpleStaticFileHandler delegate, long maxBytes, long maxEntryBytes) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("El manejador delegado no puede ser null");
+        }
+        if (maxBytes < 0 || maxEntryBytes < 0) {
+            throw new IllegalArgumentException("Los límites de la caché no pueden ser negativos");
+        }
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    @Override
+    public void setStaticRoot(String path) {
+        delegate.setStaticRoot(path);
+        synchronized (this) {
+            entries.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    @Override
+    public boolean serveStaticFile(String path, OutputStream out) throws IOException {
+        return serveStaticFile(path, null, out);
+    }
+
+    @Override
+    public boolean serveStaticFile(String path, Map<String, String> requestHeaders, OutputStream out)
+            throws IOException {
+        File file = delegate.fileFor(path);
+        BasicFileAttributes attributes = SimpleStaticFileHandler.readAttributes(file);
+        if (attributes == null || attributes.isDirectory()) {
+            invalidate(path);
+            return false;
+        }
+
+        if (requestHeaders != null && requestHeaders.containsKey("range")) {
+            // Los rangos se envían desde disco, solo con los segmentos pedidos
+            return delegate.serveStaticFile(path, requestHeaders, out);
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long length = attributes.size();
+        Entry identity = lookup(path, lastModified, length);
+        if (identity == null) {
+            if (length > maxEntryBytes) {
+                return delegate.serveStaticFile(path, requestHeaders, out);
+            }
+            identity = load(file, path, attributes);
+            store(path, identity);
+        }
+
+        Entry entry = identity;
+        String encoding = acceptedEncoding(out);
+        if (encoding != null && identity.compressible && identity.body.length >= ContentEncoding.MIN_COMPRESS_BYTES
+                && !identity.incompressible.contains(encoding)) {
+            String key = path + "#" + encoding;
+            entry = lookupVariant(key, lastModified, length);
+            if (entry == null) {
+                entry = loadVariant(file, path, identity, encoding, out);
+                if (entry == identity) {
+                    // No se guarda otra copia: la marca evita volver a comprimir mientras el archivo no cambie
+                    identity.incompressible.add(encoding);
+                } else {
+                    store(key, entry);
+                }
+            }
+        }
+
+        if (ConditionalRequests.isNotModified(requestHeaders, entry.entityTag, lastModified)) {
+            ConditionalRequests.sendNotModified(out, entry.validators);
+            return true;
+        }
+        ResponseWriter.writePreEncoded(out, entry.headers, entry.body);
+        return true;
+    }
+
+    /**
+     * @return cantidad de archivos en caché
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return bytes de contenido ocupados por la caché
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private synchronized Entry lookup(String path, long lastModified, long length) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.lastModified != lastModified || entry.sourceLength != length) {
+            remove(path);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Como {@link #lookup}, pero una variante tomada del {@code .gz} se descarta también si ese archivo cambió.
+     */
+    private Entry lookupVariant(String key, long lastModified, long length) {
+        Entry entry = lookup(key, lastModified, length);
+        if (entry == null || entry.sibling == null) {
+            return entry;
+        }
+        BasicFileAttributes sibling = SimpleStaticFileHandler.readAttributes(entry.sibling);
+        if (sibling != null && sibling.lastModifiedTime().toMillis() == entry.siblingLastModified
+                && sibling.size() == entry.body.length) {
+            return entry;
+        }
+        synchronized (this) {
+            if (entries.get(key) == entry) {
+                remove(key);
+            }
+        }
+        return null;
+    }
+
+    private synchronized void invalidate(String path) {
+        for (String key : new String[] {path, path + "#" + ContentEncoding.GZIP, path + "#" + ContentEncoding.DEFLATE}) {
+            if (entries.containsKey(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    private synchronized void store(String path, Entry entry) {
+        if (entry.body.length > maxEntryBytes) {
+            return;
+        }
+        if (entries.containsKey(path)) {
+            remove(path);
+        }
+        entries.put(path, entry);
+        cachedBytes += entry.body.length;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().body.length;
+            eldest.remove();
+        }
+    }
+
+    private void remove(String path) {
+        cachedBytes -= entries.remove(path).body.length;
+    }
+
+    /**
+     * Lee el archivo fuera del lock; el Content-Length se toma de los bytes leídos.
+     */
+    private Entry load(File file, String path, BasicFileAttributes attributes) throws IOException {
+        byte[] body = Files.readAllBytes(file.toPath());
+        String contentType = delegate.determineMimeType(file, path);
+        boolean compressible = ContentEncoding.isCompressible(contentType);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Mismo ETag que usa el delegado, para que If-Range valide los rangos que se sirven desde disco
+        String entityTag = ConditionalRequests.entityTag(attributes);
+        String validators = ConditionalRequests.validatorHeaders(entityTag, lastModified, delegate.cacheControl(path)) +
+                (compressible ? ContentEncoding.VARY_HEADER : "");
+        return new Entry(contentType, body, entityTag, validators, lastModified, body.length, compressible, null, 0);
+    }
+
+    /**
+     * Genera la variante comprimida a partir de la versión {@code .gz} o comprimiendo el contenido en memoria.
+     * Si comprimir no reduce el tamaño se reutiliza la versión sin comprimir.
+     */
+    private Entry loadVariant(File file, String path, Entry identity, String encoding, OutputStream out)
+            throws IOException {
+        File gzipped = ContentEncoding.GZIP.equals(encoding) ? delegate.precompressedSibling(file, out) : null;
+        BasicFileAttributes siblingAttributes =
+                gzipped != null ? SimpleStaticFileHandler.readAttributes(gzipped) : null;
+        byte[] body;
+        String entityTag;
+        if (siblingAttributes != null) {
+            body = Files.readAllBytes(gzipped.toPath());
+            entityTag = ConditionalRequests.entityTag(siblingAttributes);
+        } else {
+            body = ContentEncoding.compress(identity.body, encoding);
+            entityTag = ConditionalRequests.variantTag(identity.entityTag, encoding);
+        }
+        if (body.length >= identity.body.length) {
+            return identity;
+        }
+        String validators = ConditionalRequests.validatorHeaders(entityTag, identity.lastModified,
+                delegate.cacheControl(path)) +
+                "Content-Encoding: " + encoding + "\r\n" +
+                ContentEncoding.VARY_HEADER;
+        return new Entry(identity.contentType, body, entityTag, validators, identity.lastModified,
+                identity.sourceLength, true, siblingAttributes != null ? gzipped : null,
+                siblingAttributes != null ? siblingAttributes.lastModifiedTime().toMillis() : 0);
+    }
+
+    private static String acceptedEncoding(OutputStream out) {
+        if (!(out instanceof HttpOutputStream)) {
+            return null;
+        }
+        return ContentEncoding.negotiate(((HttpOutputStream) out).getAcceptEncoding());
+    }
+
+    /**
+     * Respuesta renderizada salvo el header {@code Connection}, que depende de la conexión.
+     * Los validadores se guardan aparte para responder 304 sin volver a calcularlos.
+     */
+    private static final class Entry {
+        final byte[] headers;
+        final String contentType;
+        final byte[] body;
+        final String entityTag;
+        final String validators;
+        final long lastModified;
+        final long sourceLength;
+        final boolean compressible;
+        // Archivo .gz del que salió esta variante, o null si se comprimió en memoria
+        final File sibling;
+        final long siblingLastModified;
+        // Codificaciones que no reducen el tamaño de esta versión; se envía sin comprimir
+        final Set<String> incompressible = ConcurrentHashMap.newKeySet();
+
+        Entry(String contentType, byte[] body, String entityTag, String validators, long lastModified,
+              long sourceLength, boolean compressible, File sibling, long siblingLastModified) {
+            String headers = "HTTP/1.1 200 OK\r\n" +
+                    "Content-Type: " + contentType + "\r\n" +
+                    "Content-Length: " + body.length + "\r\n" +
+                    SimpleStaticFileHandler.ACCEPT_RANGES_HEADER +
+                    validators;
+            this.headers = headers.getBytes(StandardCharsets.US_ASCII);
+            this.contentType = contentType;
+            this.body = body;
+            this.entityTag = entityTag;
+            this.validators = validators;
+            this.lastModified = lastModified;
+            this.sourceLength = sourceLength;
+            this.compressible = compressible;
+            this.sibling = sibling;
+            this.siblingLastModified = siblingLastModified;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import escuela.edu.co.utils.HttpResponseHelper;
+
+/**
+ * Validadores de caché HTTP para archivos estáticos: ETags fuertes a partir de los metadatos del archivo,
+ * fechas {@code Last-Modified} y evaluación de {@code If-None-Match} / {@code If-Modified-Since}.
+ */
+final class ConditionalRequests {
+
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * ETag fuerte a partir del tamaño y la fecha de modificación (en nanosegundos) del archivo, entre comillas.
+     * No lee el contenido: un archivo grande o pedido por rangos no se recorre entero solo para validarlo,
+     * y no hace falta recordar el resultado porque calcularlo cuesta lo mismo que el stat.
+     */
+    static String entityTag(BasicFileAttributes attributes) {
+        return "\"" + Long.toHexString(attributes.size()) + "-" +
+                Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)) + "\"";
+    }
+
+    /**
+     * ETag de una variante comprimida generada en memoria: distinto del original porque los bytes son otros.
+     */
+    static String variantTag(String entityTag, String encoding) {
+        return entityTag.substring(0, entityTag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    static String httpDate(long millis) {
+        return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Headers de validación que acompañan tanto al 200 como al 304.
+     */
+    static String validatorHeaders(String entityTag, long lastModified, String cacheControl) {
+        return "ETag: " + entityTag + "\r\n" +
+                "Last-Modified: " + httpDate(lastModified) + "\r\n" +
+                "Cache-Control: " + cacheControl + "\r\n";
+    }
+
+    /**
+     * Evalúa las precondiciones como indica RFC 9110: si hay {@code If-None-Match} se ignora
+     * {@code If-Modified-Since}. La comparación de ETags es débil (se ignora el prefijo {@code W/}).
+     *
+     * @return true si el cliente ya tiene esta versión y debe responderse 304
+     */
+    static boolean isNotModified(Map<String, String> headers, String entityTag, long lastModified) {
+        if (headers == null) {
+            return false;
+        }
+        String ifNoneMatch = headers.get("if-none-match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if ("*".equals(tag) || entityTag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = headers.get("if-modified-since");
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            // Last-Modified tiene resolución de segundos
+            return lastModified / 1000 <= since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Evalúa {@code If-Range}: el rango solo se aplica si el cliente tiene exactamente esta versión.
+     * Los ETags se comparan de forma fuerte y las fechas deben coincidir al segundo.
+     *
+     * @param ifRange valor del header, o null si no se envió
+     * @return true si debe respetarse el header {@code Range}
+     */
+    static boolean ifRangeMatches(String ifRange, String entityTag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(entityTag);
+        }
+        try {
+            long date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Envía un {@code 304 Not Modified} sin body, con los mismos validadores que tendría el 200.
+     */
+    static void sendNotModified(OutputStream out, String headers) throws IOException {
+        String response = "HTTP/1.1 304 Not Modified\r\n" +
+                headers +
+                HttpResponseHelper.connectionHeader(out) + "\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+    }
+}
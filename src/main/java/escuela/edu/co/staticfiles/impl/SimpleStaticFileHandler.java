@@ -3,18 +3,48 @@ package escuela.edu.co.staticfiles.impl;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import escuela.edu.co.staticfiles.StaticFileHandler;
+import escuela.edu.co.utils.ContentEncoding;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpResponseHelper;
+import escuela.edu.co.utils.ResponseWriter;
 
 /**
  * Implementación simple del manejador de archivos estáticos.
+ * Las respuestas llevan ETag fuerte, {@code Last-Modified} y {@code Cache-Control}, y se responde
+ * {@code 304 Not Modified} cuando el cliente ya tiene la versión actual.
+ * Soporta {@code Range} e {@code If-Range}: responde {@code 206 Partial Content} enviando solo los segmentos pedidos.
  * Aplica el principio de responsabilidad única (Single Responsibility Principle).
  */
 public class SimpleStaticFileHandler implements StaticFileHandler {
     
+    static final String ACCEPT_RANGES_HEADER = "Accept-Ranges: bytes\r\n";
+    
+    private final CacheControlPolicy cacheControlPolicy;
     private String staticRoot = "src/main/resources/static";
     
+    public SimpleStaticFileHandler() {
+        this(CacheControlPolicy.defaults());
+    }
+    
+    /**
+     * @param cacheControlPolicy valores de {@code Cache-Control} por extensión
+     */
+    public SimpleStaticFileHandler(CacheControlPolicy cacheControlPolicy) {
+        if (cacheControlPolicy == null) {
+            throw new IllegalArgumentException("La política de Cache-Control no puede ser null");
+        }
+        this.cacheControlPolicy = cacheControlPolicy;
+    }
+    
     @Override
     public void setStaticRoot(String path) {
         if (path == null) {
@@ -35,33 +65,184 @@ public class SimpleStaticFileHandler implements StaticFileHandler {
     
     @Override
     public boolean serveStaticFile(String path, OutputStream out) throws IOException {
-        if ("/".equals(path)) {
-            path = "/index.html";
+        return serveStaticFile(path, null, out);
+    }
+    
+    @Override
+    public boolean serveStaticFile(String path, Map<String, String> headers, OutputStream out) throws IOException {
+        File file = resolveFile(path);
+        if (file == null) {
+            return false;
         }
         
-        File file = new File(staticRoot + path);
+        sendFileResponse(out, file, path, headers);
+        return true;
+    }
+    
+    /**
+     * Resuelve el path solicitado contra el directorio raíz ({@code /} equivale a {@code /index.html}).
+     * 
+     * @param path el path del archivo solicitado
+     * @return el archivo, o null si no existe o es un directorio
+     */
+    File resolveFile(String path) {
+        File file = fileFor(path);
         
         if (!file.exists() || file.isDirectory()) {
-            return false;
+            return null;
         }
-        
-        sendFileResponse(out, file, path);
-        return true;
+        return file;
     }
     
-    private void sendFileResponse(OutputStream out, File file, String path) throws IOException {
+    /**
+     * Ubicación del archivo para el path solicitado, sin comprobar que exista.
+     */
+    File fileFor(String path) {
+        if ("/".equals(path)) {
+            path = "/index.html";
+        }
+        return new File(staticRoot + path);
+    }
+    
+    /**
+     * Lee tamaño, fecha de modificación y tipo del archivo con una sola llamada al sistema de archivos.
+     * 
+     * @return los atributos, o null si el archivo no existe
+     */
+    static BasicFileAttributes readAttributes(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Envía el archivo sin cargarlo completo en memoria: por {@code transferTo} cuando la salida
+     * es un {@link HttpOutputStream}, o copiando con un buffer fijo en otro caso.
+     * Si el cliente acepta gzip y existe una versión precomprimida ({@code archivo.gz}), se envía esa.
+     */
+    private void sendFileResponse(OutputStream out, File file, String path, Map<String, String> requestHeaders)
+            throws IOException {
         String mimeType = determineMimeType(file, path);
-        byte[] content = Files.readAllBytes(file.toPath());
+        long lastModified = file.lastModified();
+        String encodingHeaders = "";
+        if (ContentEncoding.isCompressible(mimeType)) {
+            File gzipped = precompressedSibling(file, out);
+            if (gzipped != null) {
+                file = gzipped;
+                encodingHeaders = "Content-Encoding: " + ContentEncoding.GZIP + "\r\n";
+            }
+            encodingHeaders += ContentEncoding.VARY_HEADER;
+        }
+        long length = file.length();
+        String entityTag = entityTag(file);
+        String validators = ConditionalRequests.validatorHeaders(entityTag, lastModified, cacheControl(path)) +
+                encodingHeaders;
+        if (ConditionalRequests.isNotModified(requestHeaders, entityTag, lastModified)) {
+            ConditionalRequests.sendNotModified(out, validators);
+            return;
+        }
+        
+        String range = requestHeaders != null ? requestHeaders.get("range") : null;
+        if (range != null
+                && ConditionalRequests.ifRangeMatches(requestHeaders.get("if-range"), entityTag, lastModified)) {
+            List<long[]> ranges = ByteRanges.parse(range, length);
+            if (ranges != null) {
+                sendPartialContent(out, file, mimeType, length, ranges, validators);
+                return;
+            }
+        }
         
-        String response = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: " + mimeType + "\r\n" +
-                "Content-Length: " + content.length + "\r\n" +
-                "Connection: close\r\n\r\n";
-        out.write(response.getBytes());
-        out.write(content);
+        ResponseWriter.writeHead(out, "200 OK", mimeType, length, ACCEPT_RANGES_HEADER + validators);
+        if (out instanceof HttpOutputStream) {
+            ((HttpOutputStream) out).sendFile(file.toPath(), 0, length);
+        } else {
+            Files.copy(file.toPath(), out);
+        }
+    }
+    
+    /**
+     * Responde {@code 206 Partial Content} enviando solo los segmentos pedidos del archivo:
+     * un rango va como body directo, varios como {@code multipart/byteranges}.
+     * Si ningún rango es satisfacible responde {@code 416 Range Not Satisfiable}.
+     */
+    private void sendPartialContent(OutputStream out, File file, String mimeType, long length,
+                                    List<long[]> ranges, String validators) throws IOException {
+        if (ranges.isEmpty()) {
+            String response = "HTTP/1.1 416 Range Not Satisfiable\r\n" +
+                    "Content-Range: bytes */" + length + "\r\n" +
+                    "Content-Length: 0\r\n" +
+                    HttpResponseHelper.connectionHeader(out) + "\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        // Sin canal, HttpOutputStream copia el segmento con un buffer fijo
+        HttpOutputStream body = out instanceof HttpOutputStream ? (HttpOutputStream) out : new HttpOutputStream(out);
+        if (ranges.size() == 1) {
+            long[] single = ranges.get(0);
+            ResponseWriter.writeHead(out, "206 Partial Content", mimeType, single[1] - single[0] + 1,
+                    "Content-Range: " + ByteRanges.contentRange(single, length) + "\r\n" + validators);
+            body.sendFile(file.toPath(), single[0], single[1] - single[0] + 1);
+            return;
+        }
+        
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        long contentLength = closing.length;
+        for (long[] range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n" +
+                    "Content-Type: " + mimeType + "\r\n" +
+                    "Content-Range: " + ByteRanges.contentRange(range, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range[1] - range[0] + 1;
+        }
+        String response = "HTTP/1.1 206 Partial Content\r\n" +
+                "Content-Type: multipart/byteranges; boundary=" + boundary + "\r\n" +
+                "Content-Length: " + contentLength + "\r\n" +
+                validators +
+                HttpResponseHelper.connectionHeader(out) + "\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            out.write(partHeaders.get(i));
+            body.sendFile(file.toPath(), range[0], range[1] - range[0] + 1);
+        }
+        out.write(closing);
+    }
+    
+    /**
+     * Busca la versión {@code .gz} del archivo si el cliente prefiere gzip.
+     * Se ignora si es más antigua que el original, para no servir contenido desactualizado.
+     * 
+     * @return el archivo precomprimido, o null si no aplica
+     */
+    File precompressedSibling(File file, OutputStream out) {
+        if (!(out instanceof HttpOutputStream)
+                || !ContentEncoding.GZIP.equals(ContentEncoding.negotiate(((HttpOutputStream) out).getAcceptEncoding()))) {
+            return null;
+        }
+        File gzipped = new File(file.getPath() + ".gz");
+        if (!gzipped.isFile() || gzipped.lastModified() < file.lastModified()) {
+            return null;
+        }
+        return gzipped;
+    }
+    
+    /**
+     * Devuelve el ETag fuerte del archivo, derivado de su tamaño y fecha de modificación sin leer el contenido.
+     */
+    String entityTag(File file) throws IOException {
+        return ConditionalRequests.entityTag(Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+    }
+    
+    String cacheControl(String path) {
+        return cacheControlPolicy.forPath(path);
     }
     
-    private String determineMimeType(File file, String path) throws IOException {
+    String determineMimeType(File file, String path) throws IOException {
         String mimeType = Files.probeContentType(file.toPath());
         if (mimeType == null) {
             if (path.endsWith(".html"))
@@ -0,0 +1,90 @@
+package escuela.edu.co.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool acotado de {@link ByteBuffer} de heap del mismo tamaño.
+ * Guarda los buffers libres en ranuras que se toman y devuelven con compare-and-set, sin locks,
+ * empezando por una ranura que depende del hilo para que hilos distintos no compitan por la misma.
+ * No usa {@code ThreadLocal} porque con hilos virtuales cada solicitud tendría su propio hilo y el buffer
+ * no se reutilizaría. Si no encuentra un buffer libre crea uno nuevo, y si no hay ranura libre al devolverlo
+ * lo descarta, así que nunca bloquea.
+ */
+public final class BufferPool {
+
+    private static final int PROBES = 4;
+
+    private final int bufferSize;
+    private final AtomicReferenceArray<ByteBuffer> slots;
+    private final int mask;
+
+    /**
+     * @param bufferSize capacidad de cada buffer
+     * @param maxPooled cantidad máxima de buffers libres retenidos; se redondea a una potencia de dos
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("El tamaño y la cantidad de buffers deben ser positivos");
+        }
+        int capacity = Integer.highestOneBit(Math.max(maxPooled, PROBES) * 2 - 1);
+        this.bufferSize = bufferSize;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return un buffer vacío de {@link #getBufferSize()} bytes; debe devolverse con {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire() {
+        int start = start();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            ByteBuffer buffer = slots.get(slot);
+            if (buffer != null && slots.compareAndSet(slot, buffer, null)) {
+                return buffer.clear();
+            }
+        }
+        return ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Devuelve un buffer al pool. Los de otro tamaño se ignoran.
+     *
+     * @param buffer buffer obtenido con {@link #acquire()}; no debe usarse después
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || buffer.isDirect()) {
+            return;
+        }
+        int start = start();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return cantidad de buffers libres en el pool
+     */
+    public int available() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int start() {
+        int hash = System.identityHashCode(Thread.currentThread());
+        return (hash ^ (hash >>> 16)) * PROBES;
+    }
+}
@@ -0,0 +1,123 @@
+package escuela.edu.co.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utilidad para negociar y aplicar la compresión de las respuestas ({@code Accept-Encoding}).
+ * Solo se comprimen contenidos de texto (HTML, CSS, JS, JSON, XML) a partir de {@link #MIN_COMPRESS_BYTES}:
+ * por debajo el ahorro no compensa los headers extra ni el costo de CPU.
+ * Aplica el principio de responsabilidad única (Single Responsibility Principle).
+ */
+public final class ContentEncoding {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final int MIN_COMPRESS_BYTES = 1024;
+    public static final String VARY_HEADER = "Vary: Accept-Encoding\r\n";
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Elige la codificación preferida por el cliente entre gzip y deflate.
+     * Respeta los pesos {@code q}; ante un empate se prefiere gzip y {@code *} equivale a gzip.
+     *
+     * @param acceptEncoding valor del header {@code Accept-Encoding}, puede ser null
+     * @return {@link #GZIP}, {@link #DEFLATE} o null si el cliente no acepta ninguna
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                gzip = quality;
+            } else if (DEFLATE.equals(name)) {
+                deflate = quality;
+            } else if ("*".equals(name)) {
+                any = quality;
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    /**
+     * Indica si vale la pena comprimir el tipo de contenido; imágenes y binarios ya vienen comprimidos.
+     *
+     * @param contentType valor del header {@code Content-Type}
+     * @return true para texto, JSON, JavaScript, XML y SVG
+     */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+                || type.contains("xml");
+    }
+
+    /**
+     * Comprime el contenido con la codificación indicada.
+     *
+     * @param body bytes sin comprimir
+     * @param encoding {@link #GZIP} o {@link #DEFLATE} (formato zlib, como exige HTTP)
+     * @return bytes comprimidos
+     */
+    public static byte[] compress(byte[] body, String encoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (OutputStream compressor = GZIP.equals(encoding)
+                ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer)) {
+            compressor.write(body);
+        } catch (IOException e) {
+            // ByteArrayOutputStream no lanza IOException
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Codificación a usar para esta respuesta según lo negociado en el stream de salida.
+     *
+     * @param out stream de la respuesta; solo un {@link HttpOutputStream} conoce el {@code Accept-Encoding}
+     * @param contentType tipo del contenido
+     * @param length tamaño del body sin comprimir
+     * @return la codificación o null si la respuesta se envía sin comprimir
+     */
+    public static String select(OutputStream out, String contentType, long length) {
+        if (!(out instanceof HttpOutputStream) || length < MIN_COMPRESS_BYTES || !isCompressible(contentType)) {
+            return null;
+        }
+        return negotiate(((HttpOutputStream) out).getAcceptEncoding());
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
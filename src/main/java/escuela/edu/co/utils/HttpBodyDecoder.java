@@ -0,0 +1,362 @@
+package escuela.edu.co.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import escuela.edu.co.RequestBody;
+
+/**
+ * Decoder incremental del body de una solicitud, delimitado por {@code Content-Length} o
+ * codificado con {@code Transfer-Encoding: chunked} (RFC 9112, secciones 6 y 7).
+ * Como {@link HttpRequestDecoder}, consume los bytes en trozos tal como llegan y conserva el estado
+ * entre llamadas. El body se acumula en memoria hasta un umbral; por encima se escribe en un archivo
+ * temporal, de modo que las subidas grandes no ocupan el heap. Los bodies que superan el máximo
+ * se rechazan con 413 sin terminar de leerlos.
+ */
+public final class HttpBodyDecoder {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpBodyDecoder.class.getName());
+
+    public static final String MAX_BYTES_PROPERTY = "http.body.max.bytes";
+    public static final String MEMORY_BYTES_PROPERTY = "http.body.memory.bytes";
+    public static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_MEMORY_BYTES = 64 * 1024;
+
+    private static final int MAX_CHUNK_LINE = 1024;
+    private static final int MAX_TRAILER_BYTES = 8 * 1024;
+
+    private enum State { DONE, FIXED, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER }
+
+    private final long maxBytes;
+    private final int memoryBytes;
+    private final Path spoolDirectory;
+
+    private State state = State.DONE;
+    private long remaining;
+    private long received;
+    private boolean expectContinue;
+    private int trailerBytes;
+    private final byte[] line = new byte[MAX_CHUNK_LINE];
+    private int lineLength;
+    private boolean lineComplete;
+
+    private byte[] memory;
+    private int memoryLength;
+    private Path spoolFile;
+    private FileChannel spool;
+
+    /**
+     * Decoder con los límites por defecto: 10 MB de body y 64 KB en memoria.
+     */
+    public HttpBodyDecoder() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MEMORY_BYTES);
+    }
+
+    /**
+     * @param maxBytes tamaño máximo del body; si se supera se responde 413
+     * @param memoryBytes bytes que se guardan en memoria antes de pasar a un archivo temporal
+     */
+    public HttpBodyDecoder(long maxBytes, int memoryBytes) {
+        this(maxBytes, memoryBytes, null);
+    }
+
+    /**
+     * @param maxBytes tamaño máximo del body; si se supera se responde 413
+     * @param memoryBytes bytes que se guardan en memoria antes de pasar a un archivo temporal
+     * @param spoolDirectory directorio de los archivos temporales, o null para el del sistema
+     */
+    public HttpBodyDecoder(long maxBytes, int memoryBytes, Path spoolDirectory) {
+        if (maxBytes < 0 || memoryBytes < 0) {
+            throw new IllegalArgumentException("Los límites del body no pueden ser negativos");
+        }
+        this.maxBytes = maxBytes;
+        this.memoryBytes = memoryBytes;
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    /**
+     * Crea un decoder con los límites de {@code http.body.max.bytes} y {@code http.body.memory.bytes}.
+     *
+     * @return el decoder configurado
+     */
+    public static HttpBodyDecoder fromSystemProperties() {
+        return new HttpBodyDecoder(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES),
+                Integer.getInteger(MEMORY_BYTES_PROPERTY, DEFAULT_MEMORY_BYTES));
+    }
+
+    /**
+     * Prepara la lectura del body según los headers de la solicitud.
+     *
+     * @param head la solicitud cuyos headers ya se decodificaron
+     * @throws HttpParseException 400 si el framing es ambiguo, 413 si el Content-Length supera el máximo
+     *         o 501 si la codificación de transferencia no es {@code chunked}
+     */
+    public void start(HttpRequestHead head) throws HttpParseException {
+        discard();
+        received = 0;
+        String transferEncoding = head.getHeader("transfer-encoding");
+        int contentLength = head.getContentLength();
+        if (transferEncoding != null) {
+            // Con ambos headers el mensaje podría interpretarse de dos formas (request smuggling)
+            if (contentLength >= 0) {
+                throw new HttpParseException(HttpParseException.BAD_REQUEST,
+                        "Transfer-Encoding y Content-Length en la misma solicitud");
+            }
+            if (!"chunked".equalsIgnoreCase(transferEncoding.trim())) {
+                throw new HttpParseException(HttpParseException.NOT_IMPLEMENTED,
+                        "Transfer-Encoding no soportado: " + transferEncoding);
+            }
+            state = State.CHUNK_SIZE;
+            lineLength = 0;
+            lineComplete = false;
+            trailerBytes = 0;
+        } else if (contentLength > 0) {
+            if (contentLength > maxBytes) {
+                throw new HttpParseException(HttpParseException.PAYLOAD_TOO_LARGE,
+                        "Body de " + contentLength + " bytes supera el máximo de " + maxBytes);
+            }
+            state = State.FIXED;
+            remaining = contentLength;
+            if (contentLength <= memoryBytes) {
+                memory = new byte[contentLength];
+            }
+        } else {
+            state = State.DONE;
+        }
+        expectContinue = state != State.DONE && "100-continue".equalsIgnoreCase(head.getHeader("expect"));
+    }
+
+    /**
+     * @return true si el cliente espera un {@code 100 Continue} antes de enviar el body
+     */
+    public boolean expectsContinue() {
+        return expectContinue;
+    }
+
+    /**
+     * Consume bytes del body desde {@code in}, sin pasar del final de la solicitud actual.
+     *
+     * @param in bytes recibidos, en modo lectura
+     * @return true si el body está completo
+     * @throws HttpParseException si el chunked está mal formado o el body supera el máximo
+     * @throws IOException si falla la escritura del archivo temporal
+     */
+    public boolean decode(ByteBuffer in) throws IOException {
+        try {
+            while (state != State.DONE && in.hasRemaining()) {
+                switch (state) {
+                    case FIXED:
+                        remaining -= write(in, remaining);
+                        if (remaining == 0) {
+                            state = State.DONE;
+                        }
+                        break;
+                    case CHUNK_SIZE:
+                        if (readLine(in)) {
+                            startChunk();
+                        }
+                        break;
+                    case CHUNK_DATA:
+                        remaining -= write(in, remaining);
+                        if (remaining == 0) {
+                            state = State.CHUNK_END;
+                        }
+                        break;
+                    case CHUNK_END:
+                        if (readLine(in)) {
+                            if (lineLength != 0) {
+                                throw new HttpParseException(HttpParseException.BAD_REQUEST,
+                                        "Falta CRLF al final del chunk");
+                            }
+                            state = State.CHUNK_SIZE;
+                        }
+                        break;
+                    case TRAILER:
+                        // Los campos de trailer se descartan; solo importa la línea vacía final
+                        if (readLine(in)) {
+                            trailerBytes += lineLength + 2;
+                            if (trailerBytes > MAX_TRAILER_BYTES) {
+                                throw new HttpParseException(HttpParseException.BAD_REQUEST, "Trailer demasiado grande");
+                            }
+                            if (lineLength == 0) {
+                                state = State.DONE;
+                            }
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException(state.name());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            discard();
+            throw e;
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * Entrega el body completo y deja el decoder listo para la siguiente solicitud.
+     * El llamador se hace cargo del body y debe cerrarlo para borrar el archivo temporal.
+     *
+     * @throws IOException si falla el cierre del archivo temporal
+     */
+    public RequestBody finish() throws IOException {
+        if (state != State.DONE) {
+            throw new IllegalStateException("El body todavía no está completo");
+        }
+        RequestBody body;
+        if (spool != null) {
+            spool.close();
+            body = RequestBody.ofFile(spoolFile, received);
+        } else if (memory == null) {
+            body = RequestBody.EMPTY;
+        } else {
+            byte[] bytes = memory;
+            if (memoryLength < bytes.length) {
+                byte[] exact = new byte[memoryLength];
+                System.arraycopy(bytes, 0, exact, 0, memoryLength);
+                bytes = exact;
+            }
+            body = RequestBody.of(bytes);
+        }
+        memory = null;
+        memoryLength = 0;
+        spool = null;
+        spoolFile = null;
+        return body;
+    }
+
+    /**
+     * Descarta el body a medio leer y borra su archivo temporal; se usa al cerrar la conexión o ante un error.
+     */
+    public void discard() {
+        state = State.DONE;
+        memory = null;
+        memoryLength = 0;
+        if (spool != null) {
+            try {
+                spool.close();
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "No se pudo borrar el archivo temporal " + spoolFile, e);
+            }
+            spool = null;
+            spoolFile = null;
+        }
+    }
+
+    /**
+     * Tamaño del chunk en hexadecimal, ignorando las extensiones tras {@code ;}.
+     */
+    private void startChunk() throws HttpParseException {
+        long size = 0;
+        int digits = 0;
+        int i = 0;
+        for (; i < lineLength; i++) {
+            int digit = Character.digit(line[i], 16);
+            if (digit < 0) {
+                break;
+            }
+            size = size * 16 + digit;
+            if (++digits > 15) {
+                throw new HttpParseException(HttpParseException.PAYLOAD_TOO_LARGE, "Chunk demasiado grande");
+            }
+        }
+        while (i < lineLength && (line[i] == ' ' || line[i] == '\t')) {
+            i++;
+        }
+        if (digits == 0 || (i < lineLength && line[i] != ';')) {
+            throw new HttpParseException(HttpParseException.BAD_REQUEST, "Tamaño de chunk inválido");
+        }
+        if (size == 0) {
+            state = State.TRAILER;
+            return;
+        }
+        if (received + size > maxBytes) {
+            throw new HttpParseException(HttpParseException.PAYLOAD_TOO_LARGE,
+                    "Body chunked supera el máximo de " + maxBytes + " bytes");
+        }
+        remaining = size;
+        state = State.CHUNK_DATA;
+    }
+
+    /**
+     * Acumula una línea de control del chunked (sin CRLF) en {@link #line}.
+     *
+     * @return true si la línea está completa; su longitud queda en {@link #lineLength}
+     */
+    private boolean readLine(ByteBuffer in) throws HttpParseException {
+        if (lineComplete) {
+            lineLength = 0;
+            lineComplete = false;
+        }
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                lineComplete = true;
+                return true;
+            }
+            if (lineLength == line.length) {
+                throw new HttpParseException(HttpParseException.BAD_REQUEST, "Línea de chunk demasiado larga");
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    /**
+     * Copia hasta {@code max} bytes del body, en memoria o en el archivo temporal si se supera el umbral.
+     *
+     * @return los bytes consumidos de {@code in}
+     */
+    private long write(ByteBuffer in, long max) throws IOException {
+        int count = (int) Math.min(max, in.remaining());
+        received += count;
+        if (spool == null && memoryLength + count > memoryBytes) {
+            startSpool();
+        }
+        if (spool != null) {
+            int limit = in.limit();
+            in.limit(in.position() + count);
+            while (in.hasRemaining()) {
+                spool.write(in);
+            }
+            in.limit(limit);
+        } else {
+            if (memory == null || memoryLength + count > memory.length) {
+                byte[] grown = new byte[Math.min(memoryBytes, Math.max(memoryLength + count, memoryLength * 2))];
+                if (memory != null) {
+                    System.arraycopy(memory, 0, grown, 0, memoryLength);
+                }
+                memory = grown;
+            }
+            in.get(memory, memoryLength, count);
+            memoryLength += count;
+        }
+        return count;
+    }
+
+    private void startSpool() throws IOException {
+        spoolFile = spoolDirectory != null
+                ? Files.createTempFile(spoolDirectory, "http-body-", ".tmp")
+                : Files.createTempFile("http-body-", ".tmp");
+        spool = FileChannel.open(spoolFile, StandardOpenOption.WRITE);
+        if (memoryLength > 0) {
+            ByteBuffer buffered = ByteBuffer.wrap(memory, 0, memoryLength);
+            while (buffered.hasRemaining()) {
+                spool.write(buffered);
+            }
+        }
+        memory = null;
+        memoryLength = 0;
+    }
+}
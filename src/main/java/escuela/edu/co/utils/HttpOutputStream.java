@@ -0,0 +1,271 @@
+package escuela.edu.co.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stream de salida de una conexión HTTP que puede atender varias solicitudes.
+ * Conoce si la conexión se mantiene abierta tras la respuesta actual y qué codificaciones acepta
+ * el cliente, de modo que los helpers escriban los headers adecuados, y {@link #close()} no cierra el socket.
+ * Si la conexión expone su canal, {@link #sendFile(Path, long, long)} envía archivos sin copiarlos al heap
+ * y {@link #write(ByteBuffer, byte[])} envía headers y body grandes en una sola escritura gathering.
+ * Cuenta los bytes escritos y toma el código de estado de la línea de estado de cada respuesta, para las métricas.
+ */
+public class HttpOutputStream extends FilterOutputStream {
+
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+
+    private final WritableByteChannel channel;
+    private boolean keepAlive;
+    private String acceptEncoding;
+    private boolean chunkedSupported = true;
+    private long bytesWritten;
+    private int status;
+
+    public HttpOutputStream(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * @param out stream (normalmente con buffer) sobre el socket
+     * @param channel canal del mismo socket para {@code transferTo}, o null si no existe
+     */
+    public HttpOutputStream(OutputStream out, WritableByteChannel channel) {
+        super(out);
+        this.channel = channel;
+    }
+
+    /**
+     * Indica si la conexión seguirá abierta después de la respuesta actual.
+     *
+     * @return true si se responde con {@code Connection: keep-alive}
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Valor del header {@code Accept-Encoding} de la solicitud actual.
+     *
+     * @return el header, o null si el cliente no lo envió
+     */
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    public void setAcceptEncoding(String acceptEncoding) {
+        this.acceptEncoding = acceptEncoding;
+    }
+
+    /**
+     * Indica si el cliente entiende {@code Transfer-Encoding: chunked} (HTTP/1.1).
+     *
+     * @return false para clientes HTTP/1.0
+     */
+    public boolean isChunkedSupported() {
+        return chunkedSupported;
+    }
+
+    public void setChunkedSupported(boolean chunkedSupported) {
+        this.chunkedSupported = chunkedSupported;
+    }
+
+    /**
+     * @return bytes entregados a este stream desde que se creó, incluidos los archivos enviados con sendFile
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Código de la respuesta en curso, tomado de la primera línea de estado escrita desde {@link #resetStatus()}.
+     * Las respuestas provisionales (1xx) no cuentan.
+     *
+     * @return el código, o 0 si todavía no se escribió ninguna respuesta
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Se llama al empezar cada solicitud de la conexión.
+     */
+    public void resetStatus() {
+        status = 0;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        bytesWritten++;
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        recordWrite(b, off, len);
+        out.write(b, off, len);
+    }
+
+    /**
+     * Escribe los headers de una respuesta seguidos de su body.
+     * Los bodies pequeños se copian al buffer y salen con los headers al vaciarlo; con canal disponible,
+     * los grandes se envían junto con los headers en una escritura gathering, sin copiarlos.
+     * Las subclases pueden retener {@code body} hasta enviarlo, pero no {@code head}, que vuelve a un pool.
+     *
+     * @param head headers codificados, entre position y limit; se consume por completo
+     * @param body el body, o null si se envía aparte
+     * @throws IOException si falla la escritura
+     */
+    public void write(ByteBuffer head, byte[] body) throws IOException {
+        recordWrite(head, body != null ? body.length : 0);
+        if (body != null && body.length > COPY_BUFFER_SIZE && channel instanceof GatheringByteChannel) {
+            gather(head, ByteBuffer.wrap(body));
+            return;
+        }
+        writeHead(head);
+        if (body != null) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Igual que {@link #write(ByteBuffer, byte[])} con un body que ya está en un {@link ByteBuffer},
+     * por ejemplo un buffer directo o una porción de otro más grande. Con canal disponible los bodies grandes
+     * se envían sin copiarlos; sin canal, un buffer directo se copia al stream por bloques.
+     *
+     * @param head headers codificados, entre position y limit; se consume por completo
+     * @param body el body, entre position y limit; se consume por completo y no debe modificarse hasta enviarlo
+     * @throws IOException si falla la escritura
+     */
+    public void write(ByteBuffer head, ByteBuffer body) throws IOException {
+        recordWrite(head, body.remaining());
+        if (body.remaining() > COPY_BUFFER_SIZE && channel instanceof GatheringByteChannel) {
+            gather(head, body);
+            return;
+        }
+        writeHead(head);
+        if (body.hasArray()) {
+            out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+            body.position(body.limit());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(COPY_BUFFER_SIZE, body.remaining())];
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * Registra bytes escritos; si todavía no hay código de estado y el bloque empieza con una línea de estado
+     * ({@code HTTP/1.x NNN}), toma el código. Lo llaman todas las escrituras, incluidas las de las subclases.
+     */
+    protected final void recordWrite(byte[] b, int off, int len) {
+        bytesWritten += len;
+        if (status == 0 && len >= 12 && b[off] == 'H' && b[off + 4] == '/' && b[off + 8] == ' ') {
+            int code = (b[off + 9] - '0') * 100 + (b[off + 10] - '0') * 10 + (b[off + 11] - '0');
+            if (code >= 200 && code < 600) {
+                status = code;
+            }
+        }
+    }
+
+    /**
+     * Igual que {@link #recordWrite(byte[], int, int)} para headers en un buffer de heap seguidos de un body.
+     */
+    protected final void recordWrite(ByteBuffer head, long bodyLength) {
+        recordWrite(head.array(), head.arrayOffset() + head.position(), head.remaining());
+        bytesWritten += bodyLength;
+    }
+
+    /**
+     * Registra bytes de body que no pasan por un arreglo, como los de un archivo.
+     */
+    protected final void recordWrite(long count) {
+        bytesWritten += count;
+    }
+
+    private void writeHead(ByteBuffer head) throws IOException {
+        out.write(head.array(), head.arrayOffset() + head.position(), head.remaining());
+        head.position(head.limit());
+    }
+
+    private void gather(ByteBuffer head, ByteBuffer body) throws IOException {
+        flush();
+        ByteBuffer[] buffers = {head, body};
+        GatheringByteChannel gathering = (GatheringByteChannel) channel;
+        while (body.hasRemaining()) {
+            gathering.write(buffers);
+        }
+    }
+
+    /**
+     * Envía un segmento de un archivo como parte del body.
+     * Con canal disponible usa {@link FileChannel#transferTo}, que en Linux pasa los bytes
+     * del page cache al socket sin copiarlos al heap; si no, copia con un buffer de tamaño fijo.
+     * Los segmentos pequeños se copian al buffer para salir junto con los headers en una sola escritura.
+     *
+     * @param file archivo a enviar
+     * @param position byte inicial
+     * @param count cantidad de bytes
+     * @throws IOException si el archivo se acorta durante el envío o falla la escritura
+     */
+    public void sendFile(Path file, long position, long count) throws IOException {
+        recordWrite(count);
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel != null && count > COPY_BUFFER_SIZE) {
+                // Los headers pueden seguir en el buffer: deben salir antes que el archivo
+                flush();
+                transferTo(source, position, count);
+            } else {
+                copyTo(source, position, count);
+            }
+        }
+    }
+
+    private void transferTo(FileChannel source, long position, long count) throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            long transferred = source.transferTo(position + sent, count - sent, channel);
+            if (transferred <= 0) {
+                throw new IOException("El archivo terminó antes de lo esperado: " + sent + " de " + count + " bytes");
+            }
+            sent += transferred;
+        }
+    }
+
+    private void copyTo(FileChannel source, long position, long count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, Math.max(count, 1)));
+        long sent = 0;
+        while (sent < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - sent));
+            int read = source.read(buffer, position + sent);
+            if (read == -1) {
+                throw new IOException("El archivo terminó antes de lo esperado: " + sent + " de " + count + " bytes");
+            }
+            out.write(buffer.array(), 0, read);
+            sent += read;
+        }
+    }
+
+    /**
+     * Solo vacía el buffer: el ciclo de vida del socket lo controla el manejador de la conexión.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,30 @@
+package escuela.edu.co.utils;
+
+import java.io.IOException;
+
+/**
+ * Solicitud HTTP mal formada o que supera los límites del parser.
+ * Indica el código de estado con el que debe responderse antes de cerrar la conexión.
+ */
+public class HttpParseException extends IOException {
+
+    public static final int BAD_REQUEST = 400;
+    public static final int PAYLOAD_TOO_LARGE = 413;
+    public static final int URI_TOO_LONG = 414;
+    public static final int HEADERS_TOO_LARGE = 431;
+    public static final int NOT_IMPLEMENTED = 501;
+
+    private final int status;
+
+    public HttpParseException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * @return 400, 413, 414, 431 o 501
+     */
+    public int getStatus() {
+        return status;
+    }
+}
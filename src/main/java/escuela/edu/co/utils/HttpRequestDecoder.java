@@ -0,0 +1,359 @@
+package escuela.edu.co.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Parser incremental de la línea de request y los headers HTTP/1.1 que trabaja directamente sobre bytes.
+ * Recibe los datos en trozos de cualquier tamaño, tal como llegan del socket, y conserva el estado
+ * entre llamadas; no usa {@code Reader}, {@code readLine} ni {@code split}.
+ * Tolera lo que permite RFC 9112: líneas vacías antes de la solicitud, fin de línea con LF solo,
+ * varios espacios o tabuladores entre las partes de la línea de request, espacio opcional alrededor
+ * del valor de cada header y headers plegados ({@code obs-fold}). Los nombres de header se pasan a
+ * minúsculas sin crear cadenas intermedias y los métodos, versiones y headers habituales reutilizan
+ * constantes, así que por solicitud solo se crean las cadenas de los valores.
+ * Aplica el principio de responsabilidad única (Single Responsibility Principle).
+ */
+public final class HttpRequestDecoder {
+
+    public static final int DEFAULT_MAX_REQUEST_LINE = 8 * 1024;
+    public static final int DEFAULT_MAX_HEADER_BYTES = 16 * 1024;
+    public static final int DEFAULT_MAX_HEADERS = 100;
+
+    private static final String DEFAULT_VERSION = "HTTP/1.0";
+    private static final String[] KNOWN_METHODS = {
+            "GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH"
+    };
+    private static final String[] KNOWN_VERSIONS = {"HTTP/1.1", "HTTP/1.0"};
+    private static final String[] KNOWN_HEADERS = {
+            "host", "user-agent", "accept", "accept-encoding", "accept-language", "connection",
+            "content-length", "content-type", "transfer-encoding", "cookie", "cache-control", "pragma",
+            "if-none-match", "if-modified-since", "range", "if-range", "referer", "origin", "authorization",
+            "upgrade-insecure-requests", "expect", "dnt", "sec-fetch-site", "sec-fetch-mode", "sec-fetch-dest"
+    };
+
+    private final int maxRequestLine;
+    private final int maxHeaderBytes;
+    private final int maxHeaders;
+    private final HttpRequestHead head = new HttpRequestHead();
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private boolean readingHeaders;
+    private boolean complete;
+    private int headerBytes;
+    private int headerCount;
+    private String lastHeader;
+
+    /**
+     * Decoder con los límites por defecto: 8 KB de línea de request, 16 KB y 100 headers.
+     */
+    public HttpRequestDecoder() {
+        this(DEFAULT_MAX_REQUEST_LINE, DEFAULT_MAX_HEADER_BYTES, DEFAULT_MAX_HEADERS);
+    }
+
+    /**
+     * @param maxRequestLine bytes máximos de la línea de request; si se supera se responde 414
+     * @param maxHeaderBytes bytes máximos de todos los headers juntos; si se supera se responde 431
+     * @param maxHeaders cantidad máxima de líneas de header; si se supera se responde 431
+     */
+    public HttpRequestDecoder(int maxRequestLine, int maxHeaderBytes, int maxHeaders) {
+        if (maxRequestLine < 1 || maxHeaderBytes < 1 || maxHeaders < 1) {
+            throw new IllegalArgumentException("Los límites del parser deben ser positivos");
+        }
+        this.maxRequestLine = maxRequestLine;
+        this.maxHeaderBytes = maxHeaderBytes;
+        this.maxHeaders = maxHeaders;
+    }
+
+    /**
+     * Consume bytes de {@code in} hasta terminar los headers o agotar el buffer.
+     * Al completar deja {@code in} posicionado en el primer byte del body (o de la siguiente solicitud).
+     *
+     * @param in bytes recibidos, en modo lectura
+     * @return true si la solicitud actual ya tiene línea de request y headers completos
+     * @throws HttpParseException si la solicitud está mal formada o supera los límites
+     */
+    public boolean decode(ByteBuffer in) throws HttpParseException {
+        while (!complete && in.hasRemaining()) {
+            int start = in.position();
+            int limit = in.limit();
+            int end = indexOfLineFeed(in, start, limit);
+            append(in, end - start);
+            if (end == limit) {
+                return false;
+            }
+            in.get();
+            complete = completeLine();
+        }
+        return complete;
+    }
+
+    /**
+     * @return la solicitud decodificada; válida cuando {@link #decode} devolvió true
+     */
+    public HttpRequestHead head() {
+        return head;
+    }
+
+    /**
+     * Prepara el decoder y el {@link HttpRequestHead} para la siguiente solicitud de la conexión.
+     */
+    public void reset() {
+        head.reset();
+        lineLength = 0;
+        readingHeaders = false;
+        complete = false;
+        headerBytes = 0;
+        headerCount = 0;
+        lastHeader = null;
+    }
+
+    /**
+     * @return la posición del siguiente LF, o {@code limit} si aún no llegó
+     */
+    private static int indexOfLineFeed(ByteBuffer in, int start, int limit) {
+        int end = start;
+        if (in.hasArray()) {
+            byte[] array = in.array();
+            int offset = in.arrayOffset();
+            while (end < limit && array[offset + end] != '\n') {
+                end++;
+            }
+        } else {
+            while (end < limit && in.get(end) != '\n') {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    private void append(ByteBuffer in, int count) throws HttpParseException {
+        int needed = lineLength + count;
+        if (!readingHeaders && needed > maxRequestLine) {
+            throw new HttpParseException(HttpParseException.URI_TOO_LONG, "Línea de request demasiado larga");
+        }
+        if (readingHeaders && headerBytes + needed > maxHeaderBytes) {
+            throw new HttpParseException(HttpParseException.HEADERS_TOO_LARGE, "Headers demasiado grandes");
+        }
+        if (needed > line.length) {
+            byte[] grown = new byte[Math.max(needed, line.length * 2)];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        in.get(line, lineLength, count);
+        lineLength = needed;
+    }
+
+    /**
+     * Interpreta la línea acumulada (sin el LF final).
+     *
+     * @return true si era la línea vacía que cierra los headers
+     */
+    private boolean completeLine() throws HttpParseException {
+        int length = lineLength;
+        lineLength = 0;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+
+        if (!readingHeaders) {
+            if (length == 0) {
+                // RFC 9112 2.2: se ignoran líneas vacías antes de la línea de request
+                headerBytes += 2;
+                if (headerBytes > maxRequestLine) {
+                    throw new HttpParseException(HttpParseException.BAD_REQUEST, "Demasiadas líneas vacías");
+                }
+                return false;
+            }
+            parseRequestLine(length);
+            readingHeaders = true;
+            headerBytes = 0;
+            return false;
+        }
+
+        if (length == 0) {
+            validateContentLength();
+            return true;
+        }
+        headerBytes += length + 2;
+        if (++headerCount > maxHeaders) {
+            throw new HttpParseException(HttpParseException.HEADERS_TOO_LARGE, "Demasiados headers");
+        }
+        if (isWhitespace(line[0])) {
+            unfold(length);
+        } else {
+            parseHeader(length);
+        }
+        return false;
+    }
+
+    /**
+     * {@code método SP request-target [SP versión]}, separando por cualquier cantidad de espacios o tabs.
+     * Sin versión se asume HTTP/1.0, como hacía el parser anterior.
+     */
+    private void parseRequestLine(int length) throws HttpParseException {
+        int methodEnd = skipToken(0, length);
+        int targetStart = skipWhitespace(methodEnd, length);
+        int targetEnd = skipToken(targetStart, length);
+        int versionStart = skipWhitespace(targetEnd, length);
+        int versionEnd = skipToken(versionStart, length);
+        if (methodEnd == 0 || targetStart == targetEnd || skipWhitespace(versionEnd, length) != length) {
+            throw new HttpParseException(HttpParseException.BAD_REQUEST, "Línea de request inválida");
+        }
+        for (int i = 0; i < methodEnd; i++) {
+            if (!isTokenChar(line[i])) {
+                throw new HttpParseException(HttpParseException.BAD_REQUEST, "Método inválido");
+            }
+        }
+
+        String method = known(KNOWN_METHODS, 0, methodEnd);
+        if (method == null) {
+            method = new String(line, 0, methodEnd, StandardCharsets.ISO_8859_1);
+        }
+
+        int query = targetStart;
+        while (query < targetEnd && line[query] != '?') {
+            query++;
+        }
+        String path = new String(line, targetStart, query - targetStart, StandardCharsets.ISO_8859_1);
+        String queryString = query < targetEnd
+                ? new String(line, query + 1, targetEnd - query - 1, StandardCharsets.ISO_8859_1)
+                : "";
+
+        String version = DEFAULT_VERSION;
+        if (versionStart < versionEnd) {
+            version = known(KNOWN_VERSIONS, versionStart, versionEnd - versionStart);
+            if (version == null) {
+                version = new String(line, versionStart, versionEnd - versionStart, StandardCharsets.ISO_8859_1);
+                if (!version.startsWith("HTTP/")) {
+                    throw new HttpParseException(HttpParseException.BAD_REQUEST, "Versión inválida: " + version);
+                }
+            }
+        }
+        head.setRequestLine(method, path, queryString, version);
+    }
+
+    /**
+     * {@code nombre ":" OWS valor OWS}. No se admite espacio entre el nombre y los dos puntos (RFC 9112 5.1).
+     */
+    private void parseHeader(int length) throws HttpParseException {
+        int colon = 0;
+        while (colon < length && line[colon] != ':') {
+            byte b = line[colon];
+            if (!isTokenChar(b)) {
+                throw new HttpParseException(HttpParseException.BAD_REQUEST, "Nombre de header inválido");
+            }
+            if (b >= 'A' && b <= 'Z') {
+                line[colon] = (byte) (b + ('a' - 'A'));
+            }
+            colon++;
+        }
+        if (colon == 0 || colon == length) {
+            throw new HttpParseException(HttpParseException.BAD_REQUEST, "Header sin nombre o sin ':'");
+        }
+
+        String name = known(KNOWN_HEADERS, 0, colon);
+        if (name == null) {
+            name = new String(line, 0, colon, StandardCharsets.ISO_8859_1);
+        }
+        String value = trimmedValue(colon + 1, length);
+        // RFC 9110 5.3: los headers repetidos equivalen a una lista separada por comas
+        head.getHeaders().merge(name, value, HttpRequestDecoder::combine);
+        lastHeader = name;
+    }
+
+    /**
+     * Línea de continuación ({@code obs-fold}): se une al header anterior con un espacio (RFC 9112 5.2).
+     */
+    private void unfold(int length) throws HttpParseException {
+        if (lastHeader == null) {
+            throw new HttpParseException(HttpParseException.BAD_REQUEST, "Línea de continuación sin header");
+        }
+        Map<String, String> headers = head.getHeaders();
+        headers.put(lastHeader, headers.get(lastHeader) + " " + trimmedValue(0, length));
+    }
+
+    private void validateContentLength() throws HttpParseException {
+        String value = head.getHeader("content-length");
+        if (value == null) {
+            return;
+        }
+        long length = value.isEmpty() ? -1 : 0;
+        for (int i = 0; i < value.length() && length >= 0; i++) {
+            char c = value.charAt(i);
+            length = c >= '0' && c <= '9' ? length * 10 + (c - '0') : -1;
+            if (length > Integer.MAX_VALUE) {
+                length = -1;
+            }
+        }
+        if (length < 0) {
+            throw new HttpParseException(HttpParseException.BAD_REQUEST, "Content-Length inválido: " + value);
+        }
+        head.setContentLength((int) length);
+    }
+
+    private String trimmedValue(int start, int end) {
+        while (start < end && isWhitespace(line[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(line[end - 1])) {
+            end--;
+        }
+        return start == end ? "" : new String(line, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Busca una constante igual a los bytes indicados para no crear una cadena nueva.
+     */
+    private String known(String[] candidates, int offset, int length) {
+        for (String candidate : candidates) {
+            if (candidate.length() == length && matches(candidate, offset)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(String candidate, int offset) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (line[offset + i] != candidate.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipToken(int pos, int end) {
+        while (pos < end && !isWhitespace(line[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipWhitespace(int pos, int end) {
+        while (pos < end && isWhitespace(line[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static String combine(String first, String second) {
+        return first + ", " + second;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    /**
+     * tchar de RFC 9110 5.6.2: caracteres visibles salvo los delimitadores.
+     */
+    private static boolean isTokenChar(byte b) {
+        if (b <= ' ' || b >= 127) {
+            return false;
+        }
+        return "\"(),/:;<=>?@[\\]{}".indexOf(b) < 0;
+    }
+}
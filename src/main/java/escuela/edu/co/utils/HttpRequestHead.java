@@ -0,0 +1,87 @@
+package escuela.edu.co.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Línea de request y headers de una solicitud, tal como los produce {@link HttpRequestDecoder}.
+ * El objeto se reutiliza entre solicitudes de la misma conexión: sus valores solo son válidos hasta
+ * que el decoder empiece la siguiente, por lo que quien necesite conservarlos debe copiarlos.
+ * Los nombres de header se guardan en minúsculas.
+ */
+public final class HttpRequestHead {
+
+    private String method;
+    private String path;
+    private String queryString = "";
+    private String version;
+    private int contentLength = -1;
+    private final Map<String, String> headers = new HashMap<>(32);
+
+    void reset() {
+        method = null;
+        path = null;
+        queryString = "";
+        version = null;
+        contentLength = -1;
+        headers.clear();
+    }
+
+    void setRequestLine(String method, String path, String queryString, String version) {
+        this.method = method;
+        this.path = path;
+        this.queryString = queryString;
+        this.version = version;
+    }
+
+    void setContentLength(int contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return el path del request-target, sin la query string ni decodificar
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return la query string sin el {@code ?}, o cadena vacía si no hay
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * @return la versión, por ejemplo {@code HTTP/1.1}; {@code HTTP/1.0} si la línea no la incluía
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param name nombre del header en minúsculas
+     * @return el valor, o null si no se envió
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * @return los headers con nombre en minúsculas; los repetidos se combinan separados por coma
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return el valor de {@code Content-Length} ya validado, o -1 si no se envió
+     */
+    public int getContentLength() {
+        return contentLength;
+    }
+}
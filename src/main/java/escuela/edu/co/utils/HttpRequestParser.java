@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -23,14 +24,16 @@ public class HttpRequestParser {
      * @param in el BufferedReader para leer los headers
      * @return un mapa con los headers parseados
      * @throws IOException si ocurre un error al leer
+     * @deprecated los servidores usan {@link HttpRequestDecoder}, que trabaja sobre bytes y aplica límites
      */
+    @Deprecated
     public static Map<String, String> parseHeaders(BufferedReader in) throws IOException {
         Map<String, String> headers = new HashMap<>();
         String headerLine;
         while ((headerLine = in.readLine()) != null && !headerLine.isEmpty()) {
             int sep = headerLine.indexOf(": ");
             if (sep != -1) {
-                String key = headerLine.substring(0, sep).toLowerCase();
+                String key = headerLine.substring(0, sep).toLowerCase(Locale.ROOT);
                 String value = headerLine.substring(sep + 2);
                 headers.put(key, value);
             }
@@ -67,11 +70,14 @@ public class HttpRequestParser {
     }
     
     /**
-     * Parsea la línea de request HTTP para extraer método, path y query string.
+     * Parsea la línea de request HTTP para extraer método, path, query string y versión.
+     * Si la línea no trae versión se asume HTTP/1.0.
      * 
      * @param requestLine la línea de request HTTP
-     * @return un array con [método, path, queryString]
+     * @return un array con [método, path, queryString, versión]
+     * @deprecated los servidores usan {@link HttpRequestDecoder}, que trabaja sobre bytes y aplica límites
      */
+    @Deprecated
     public static String[] parseRequestLine(String requestLine) {
         if (requestLine == null || requestLine.isEmpty()) {
             return null;
@@ -84,6 +90,7 @@ public class HttpRequestParser {
         
         String method = parts[0];
         String fullPath = parts[1];
+        String version = parts.length > 2 ? parts[2] : "HTTP/1.0";
         
         String path;
         String queryString = "";
@@ -95,6 +102,6 @@ public class HttpRequestParser {
             path = fullPath;
         }
         
-        return new String[]{method, path, queryString};
+        return new String[]{method, path, queryString, version};
     }
 }
@@ -0,0 +1,123 @@
+package escuela.edu.co.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import escuela.edu.co.RequestBody;
+
+/**
+ * Lee solicitudes sucesivas de un {@link InputStream} bloqueante con un {@link HttpRequestDecoder}
+ * para los headers y un {@link HttpBodyDecoder} para el body.
+ * Usa un único buffer por conexión: los bytes leídos de más (body o solicitudes en pipeline)
+ * quedan en él para la siguiente llamada.
+ */
+public final class HttpRequestReader {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream in;
+    private final HttpRequestDecoder decoder;
+    private final HttpBodyDecoder bodyDecoder;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+    private long bytesRead;
+    private long parseNanos;
+
+    public HttpRequestReader(InputStream in) {
+        this(in, new HttpRequestDecoder(), HttpBodyDecoder.fromSystemProperties());
+    }
+
+    public HttpRequestReader(InputStream in, HttpRequestDecoder decoder, HttpBodyDecoder bodyDecoder) {
+        if (in == null || decoder == null || bodyDecoder == null) {
+            throw new IllegalArgumentException("El stream y los decoders no pueden ser null");
+        }
+        this.in = in;
+        this.decoder = decoder;
+        this.bodyDecoder = bodyDecoder;
+    }
+
+    /**
+     * Lee la línea de request y los headers de la siguiente solicitud.
+     * El objeto devuelto se reutiliza en la siguiente llamada.
+     *
+     * @return la solicitud, o null si el stream terminó antes de completarla
+     * @throws HttpParseException si la solicitud está mal formada o supera los límites
+     * @throws IOException si ocurre un error al leer
+     */
+    public HttpRequestHead readHead() throws IOException {
+        decoder.reset();
+        parseNanos = 0;
+        while (true) {
+            long start = System.nanoTime();
+            boolean complete = decoder.decode(buffer);
+            parseNanos += System.nanoTime() - start;
+            if (complete) {
+                return decoder.head();
+            }
+            if (!fill()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Valida el framing del body de la solicitud leída con {@link #readHead()}.
+     *
+     * @return true si el cliente envió {@code Expect: 100-continue} y espera la respuesta provisional
+     * @throws HttpParseException si el body se rechaza antes de leerlo (400, 413 o 501)
+     */
+    public boolean beginBody() throws HttpParseException {
+        bodyDecoder.start(decoder.head());
+        return bodyDecoder.expectsContinue();
+    }
+
+    /**
+     * Lee el body completo de la solicitud, empezando por los bytes que ya estén en el buffer.
+     * Debe llamarse después de {@link #beginBody()}.
+     *
+     * @return el body; el llamador debe cerrarlo para borrar su archivo temporal
+     * @throws EOFException si el stream termina antes que el body
+     * @throws HttpParseException si el body está mal formado o supera el máximo
+     */
+    public RequestBody readBody() throws IOException {
+        try {
+            while (!bodyDecoder.decode(buffer)) {
+                if (!fill()) {
+                    throw new EOFException("Body incompleto");
+                }
+            }
+        } catch (IOException e) {
+            bodyDecoder.discard();
+            throw e;
+        }
+        return bodyDecoder.finish();
+    }
+
+    /**
+     * @return nanosegundos que tomó el decoder en la última llamada a {@link #readHead()},
+     *         sin contar la espera por el socket
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return bytes leídos del stream desde que se creó el lector
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * El decoder consume todo lo disponible antes de pedir más, así que el buffer se rellena desde el inicio.
+     */
+    private boolean fill() throws IOException {
+        int n = in.read(buffer.array(), 0, buffer.capacity());
+        buffer.position(0).limit(Math.max(n, 0));
+        if (n > 0) {
+            bytesRead += n;
+        }
+        return n > 0;
+    }
+}
@@ -2,6 +2,9 @@ package escuela.edu.co.utils;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.TreeSet;
 
 /**
  * Utilidad para generar respuestas HTTP.
@@ -9,6 +12,35 @@ import java.io.OutputStream;
  */
 public class HttpResponseHelper {
     
+    private static final String KEEP_ALIVE_HEADER = "Connection: keep-alive\r\n";
+    private static final String CLOSE_HEADER = "Connection: close\r\n";
+    private static final byte[] CONTINUE_RESPONSE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * Devuelve el header {@code Connection} según si la conexión se mantiene abierta.
+     * Cualquier stream que no sea un {@link HttpOutputStream} con keep-alive se cierra tras la respuesta.
+     * 
+     * @param out el OutputStream de la respuesta
+     * @return la línea de header terminada en CRLF
+     */
+    public static String connectionHeader(OutputStream out) {
+        if (out instanceof HttpOutputStream && ((HttpOutputStream) out).isKeepAlive()) {
+            return KEEP_ALIVE_HEADER;
+        }
+        return CLOSE_HEADER;
+    }
+    
+    /**
+     * Envía la respuesta provisional {@code 100 Continue} a un cliente que la pidió con {@code Expect}.
+     * No termina el intercambio: la respuesta final se envía después de leer el body.
+     *
+     * @param out el OutputStream de la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send100Continue(OutputStream out) throws IOException {
+        out.write(CONTINUE_RESPONSE);
+    }
+
     /**
      * Envía una respuesta JSON con código 200.
      * 
@@ -17,12 +49,7 @@ public class HttpResponseHelper {
      * @throws IOException si ocurre un error al escribir
      */
     public static void sendJsonResponse(OutputStream out, String json) throws IOException {
-        String response = "HTTP/1.1 200 OK\r\n" +
-                "Content-Type: application/json\r\n" +
-                "Content-Length: " + json.getBytes().length + "\r\n" +
-                "Access-Control-Allow-Origin: *\r\n" +
-                "Connection: close\r\n\r\n" + json;
-        out.write(response.getBytes());
+        writeResponse(out, "200 OK", "application/json", "Access-Control-Allow-Origin: *\r\n", json);
     }
     
     /**
@@ -32,12 +59,69 @@ public class HttpResponseHelper {
      * @throws IOException si ocurre un error al escribir
      */
     public static void send400(OutputStream out) throws IOException {
-        String response = "HTTP/1.1 400 Bad Request\r\n" +
-                "Content-Type: text/html\r\n\r\n" +
-                "<h1>400 - Solicitud Incorrecta</h1>";
-        out.write(response.getBytes());
+        writeResponse(out, "400 Bad Request", "text/html; charset=utf-8", "",
+                "<h1>400 - Solicitud Incorrecta</h1>");
     }
     
+    /**
+     * Envía una respuesta 413 Content Too Large.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send413(OutputStream out) throws IOException {
+        writeResponse(out, "413 Content Too Large", "text/html; charset=utf-8", "",
+                "<h1>413 - Contenido demasiado grande</h1>");
+    }
+
+    /**
+     * Envía una respuesta 414 URI Too Long.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send414(OutputStream out) throws IOException {
+        writeResponse(out, "414 URI Too Long", "text/html; charset=utf-8", "",
+                "<h1>414 - URI demasiado larga</h1>");
+    }
+
+    /**
+     * Envía una respuesta 431 Request Header Fields Too Large.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send431(OutputStream out) throws IOException {
+        writeResponse(out, "431 Request Header Fields Too Large", "text/html; charset=utf-8", "",
+                "<h1>431 - Headers demasiado grandes</h1>");
+    }
+
+    /**
+     * Responde a una solicitud que el parser rechazó con el código que indica la excepción.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @param error el error del parser
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void sendParseError(OutputStream out, HttpParseException error) throws IOException {
+        switch (error.getStatus()) {
+            case HttpParseException.PAYLOAD_TOO_LARGE:
+                send413(out);
+                break;
+            case HttpParseException.URI_TOO_LONG:
+                send414(out);
+                break;
+            case HttpParseException.HEADERS_TOO_LARGE:
+                send431(out);
+                break;
+            case HttpParseException.NOT_IMPLEMENTED:
+                send501(out);
+                break;
+            default:
+                send400(out);
+        }
+    }
+
     /**
      * Envía una respuesta 404 Not Found.
      * 
@@ -46,12 +130,10 @@ public class HttpResponseHelper {
      * @throws IOException si ocurre un error al escribir
      */
     public static void send404(OutputStream out, String path) throws IOException {
-        String response = "HTTP/1.1 404 Not Found\r\n" +
-                "Content-Type: text/html\r\n\r\n" +
+        writeResponse(out, "404 Not Found", "text/html; charset=utf-8", "",
                 "<h1>404 - No encontrado</h1>" +
                 "<p>Recurso no encontrado: " + path + "</p>" +
-                "<a href=\"/\">Volver al inicio</a>";
-        out.write(response.getBytes());
+                "<a href=\"/\">Volver al inicio</a>");
     }
     
     /**
@@ -61,10 +143,21 @@ public class HttpResponseHelper {
      * @throws IOException si ocurre un error al escribir
      */
     public static void send405(OutputStream out) throws IOException {
-        String response = "HTTP/1.1 405 Method Not Allowed\r\n" +
-                "Content-Type: text/html\r\n\r\n" +
-                "<h1>405 - Método no permitido</h1>";
-        out.write(response.getBytes());
+        writeResponse(out, "405 Method Not Allowed", "text/html; charset=utf-8", "",
+                "<h1>405 - Método no permitido</h1>");
+    }
+    
+    /**
+     * Envía una respuesta 405 Method Not Allowed indicando los métodos que sí admite el recurso.
+     * 
+     * @param out el OutputStream para enviar la respuesta
+     * @param allowedMethods métodos con handler registrado para el path
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send405(OutputStream out, Collection<String> allowedMethods) throws IOException {
+        writeResponse(out, "405 Method Not Allowed", "text/html; charset=utf-8",
+                "Allow: " + String.join(", ", new TreeSet<>(allowedMethods)) + "\r\n",
+                "<h1>405 - Método no permitido</h1>");
     }
     
     /**
@@ -74,11 +167,51 @@ public class HttpResponseHelper {
      * @throws IOException si ocurre un error al escribir
      */
     public static void send500(OutputStream out) throws IOException {
-        String body = "<h1>500 - Error interno</h1>";
-        String response = "HTTP/1.1 500 Internal Server Error\r\n" +
-                "Content-Type: text/html; charset=utf-8\r\n" +
-                "Content-Length: " + body.getBytes().length + "\r\n" +
-                "Connection: close\r\n\r\n" + body;
-        out.write(response.getBytes());
+        writeResponse(out, "500 Internal Server Error", "text/html; charset=utf-8", "",
+                "<h1>500 - Error interno</h1>");
+    }
+
+    /**
+     * Envía una respuesta 501 Not Implemented.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send501(OutputStream out) throws IOException {
+        writeResponse(out, "501 Not Implemented", "text/html; charset=utf-8", "",
+                "<h1>501 - No implementado</h1>");
+    }
+
+    /**
+     * Envía una respuesta 503 Service Unavailable cuando el servidor está saturado.
+     *
+     * @param out el OutputStream para enviar la respuesta
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void send503(OutputStream out) throws IOException {
+        writeResponse(out, "503 Service Unavailable", "text/html; charset=utf-8", "Retry-After: 1\r\n",
+                "<h1>503 - Servicio no disponible</h1>");
+    }
+    
+    /**
+     * Escribe una respuesta completa con Content-Length, necesario para mantener la conexión abierta.
+     * Si el cliente lo acepta, los bodies de texto a partir de {@link ContentEncoding#MIN_COMPRESS_BYTES}
+     * se envían comprimidos con gzip o deflate. Los headers se codifican con {@link ResponseWriter}.
+     * 
+     * @param out el OutputStream de la respuesta
+     * @param status código y texto de estado, por ejemplo {@code "200 OK"}
+     * @param contentType valor del header Content-Type
+     * @param extraHeaders headers adicionales terminados en CRLF, o cadena vacía
+     * @param body el body sin comprimir
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void sendResponse(OutputStream out, String status, String contentType,
+                                    String extraHeaders, byte[] body) throws IOException {
+        ResponseWriter.write(out, status, contentType, extraHeaders, body);
+    }
+    
+    private static void writeResponse(OutputStream out, String status, String contentType,
+                                      String extraHeaders, String body) throws IOException {
+        sendResponse(out, status, contentType, extraHeaders, body.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,323 @@
+package escuela.edu.co.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escribe respuestas HTTP sin construir los headers como {@code String}.
+ * Las líneas de estado, los {@code Content-Type} frecuentes y los headers fijos se codifican una sola vez;
+ * cada respuesta copia esos bytes a un buffer del {@link BufferPool}, escribe {@code Content-Length} como dígitos
+ * y envía headers y body juntos con {@link HttpOutputStream#write(ByteBuffer, byte[])}.
+ * Aplica el principio de responsabilidad única (Single Responsibility Principle).
+ */
+public final class ResponseWriter {
+
+    /**
+     * Tamaño de los buffers de headers del pool; las respuestas con headers más grandes usan un buffer propio.
+     */
+    public static final int HEADER_BUFFER_SIZE = 1024;
+
+    private static final int MAX_POOLED_BUFFERS = 256;
+    private static final int MAX_CACHED_CONTENT_TYPES = 256;
+
+    private static final BufferPool HEADER_BUFFERS = new BufferPool(HEADER_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private static final Map<String, byte[]> STATUS_LINES = new ConcurrentHashMap<>();
+    private static final Map<String, ContentTypeLine> CONTENT_TYPE_LINES = new ConcurrentHashMap<>();
+
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] CONTENT_ENCODING_GZIP = ascii("Content-Encoding: " + ContentEncoding.GZIP + "\r\n");
+    private static final byte[] CONTENT_ENCODING_DEFLATE = ascii("Content-Encoding: " + ContentEncoding.DEFLATE + "\r\n");
+    private static final byte[] VARY = ascii(ContentEncoding.VARY_HEADER);
+    private static final byte[] KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+    private static final byte[] CLOSE = ascii("Connection: close\r\n");
+    private static final byte[] CRLF = ascii("\r\n");
+
+    /**
+     * Espacio para {@code Content-Length}, {@code Content-Encoding}, {@code Vary}, {@code Connection} y la línea final.
+     */
+    private static final int FIXED_HEADERS_BYTES = 128;
+
+    static {
+        for (String status : new String[]{"200 OK", "400 Bad Request", "404 Not Found", "405 Method Not Allowed",
+                "413 Content Too Large", "500 Internal Server Error", "503 Service Unavailable"}) {
+            statusLine(status);
+        }
+        for (String contentType : new String[]{"text/plain; charset=utf-8", "text/html; charset=utf-8",
+                "application/json", "application/json; charset=utf-8"}) {
+            contentTypeLine(contentType);
+        }
+    }
+
+    private ResponseWriter() {
+    }
+
+    /**
+     * Escribe una respuesta completa con Content-Length, necesario para mantener la conexión abierta.
+     * Si el cliente lo acepta, los bodies de texto a partir de {@link ContentEncoding#MIN_COMPRESS_BYTES}
+     * se envían comprimidos con gzip o deflate.
+     *
+     * @param out el OutputStream de la respuesta
+     * @param status código y texto de estado, por ejemplo {@code "200 OK"}
+     * @param contentType valor del header Content-Type
+     * @param extraHeaders headers adicionales terminados en CRLF, o cadena vacía
+     * @param body el body sin comprimir; no debe modificarse después, porque la salida puede retenerlo hasta enviarlo
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void write(OutputStream out, String status, String contentType, String extraHeaders,
+                             byte[] body) throws IOException {
+        String encoding = ContentEncoding.select(out, contentType, body.length);
+        if (encoding != null) {
+            body = ContentEncoding.compress(body, encoding);
+        }
+        byte[] statusLine = statusLine(status);
+        ContentTypeLine contentTypeLine = contentTypeLine(contentType);
+        ByteBuffer head = acquire(statusLine.length + contentTypeLine.bytes.length, extraHeaders.length());
+        try {
+            byte[] array = head.array();
+            int position = put(array, 0, statusLine);
+            position = put(array, position, contentTypeLine.bytes);
+            position = put(array, position, CONTENT_LENGTH);
+            position = putDigits(array, position, body.length);
+            position = put(array, position, CRLF);
+            if (contentTypeLine.compressible) {
+                position = put(array, position, VARY);
+            }
+            if (encoding != null) {
+                position = put(array, position,
+                        ContentEncoding.GZIP.equals(encoding) ? CONTENT_ENCODING_GZIP : CONTENT_ENCODING_DEFLATE);
+            }
+            position = putHeaders(array, position, extraHeaders);
+            position = put(array, position, connectionHeader(out));
+            position = put(array, position, CRLF);
+            send(out, head.limit(position), body);
+        } finally {
+            HEADER_BUFFERS.release(head);
+        }
+    }
+
+    /**
+     * Escribe una respuesta completa con un body ya codificado en un {@link ByteBuffer}, que se envía tal cual:
+     * sin comprimir y, si la salida expone su canal, sin copiarlo. Sirve para bodies preparados de antemano,
+     * como buffers directos o respuestas binarias compartidas entre solicitudes (con {@code duplicate()}).
+     *
+     * @param out el OutputStream de la respuesta
+     * @param status código y texto de estado
+     * @param contentType valor del header Content-Type
+     * @param extraHeaders headers adicionales terminados en CRLF, o cadena vacía
+     * @param body el body entre position y limit; se consume y no debe modificarse hasta enviarlo
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void write(OutputStream out, String status, String contentType, String extraHeaders,
+                             ByteBuffer body) throws IOException {
+        writeHeaders(out, status, contentType, body.remaining(), extraHeaders, body);
+    }
+
+    /**
+     * Escribe solo la línea de estado y los headers de una respuesta cuyo body se envía aparte,
+     * por ejemplo con {@link HttpOutputStream#sendFile}.
+     *
+     * @param out el OutputStream de la respuesta
+     * @param status código y texto de estado
+     * @param contentType valor del header Content-Type
+     * @param contentLength longitud del body que se enviará
+     * @param extraHeaders headers adicionales terminados en CRLF, o cadena vacía
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void writeHead(OutputStream out, String status, String contentType, long contentLength,
+                                 String extraHeaders) throws IOException {
+        writeHeaders(out, status, contentType, contentLength, extraHeaders, null);
+    }
+
+    /**
+     * Escribe la línea de estado y los headers de una respuesta sin {@code Content-Length},
+     * cuyo body se envía en streaming ({@code Transfer-Encoding: chunked} o hasta cerrar la conexión).
+     *
+     * @param out el OutputStream de la respuesta
+     * @param status código y texto de estado
+     * @param contentType valor del header Content-Type
+     * @param extraHeaders headers adicionales terminados en CRLF, incluido {@code Transfer-Encoding} si aplica
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void writeStreamHead(OutputStream out, String status, String contentType,
+                                       String extraHeaders) throws IOException {
+        writeHeaders(out, status, contentType, -1, extraHeaders, null);
+    }
+
+    /**
+     * Escribe una respuesta cuyos headers ya están codificados, como las entradas de un caché;
+     * solo agrega {@code Connection} y la línea final.
+     *
+     * @param out el OutputStream de la respuesta
+     * @param headers línea de estado y headers terminados en CRLF, sin {@code Connection}
+     * @param body el body; no debe modificarse después
+     * @throws IOException si ocurre un error al escribir
+     */
+    public static void writePreEncoded(OutputStream out, byte[] headers, byte[] body) throws IOException {
+        ByteBuffer head = acquire(headers.length, 0);
+        try {
+            byte[] array = head.array();
+            int position = put(array, 0, headers);
+            position = put(array, position, connectionHeader(out));
+            position = put(array, position, CRLF);
+            send(out, head.limit(position), body);
+        } finally {
+            HEADER_BUFFERS.release(head);
+        }
+    }
+
+    /**
+     * @param contentLength longitud del body, o -1 para omitir {@code Content-Length}
+     * @param body body que sale junto con los headers, o null si se envía aparte
+     */
+    private static void writeHeaders(OutputStream out, String status, String contentType, long contentLength,
+                                     String extraHeaders, ByteBuffer body) throws IOException {
+        byte[] statusLine = statusLine(status);
+        byte[] contentTypeLine = contentTypeLine(contentType).bytes;
+        ByteBuffer head = acquire(statusLine.length + contentTypeLine.length, extraHeaders.length());
+        try {
+            byte[] array = head.array();
+            int position = put(array, 0, statusLine);
+            position = put(array, position, contentTypeLine);
+            if (contentLength >= 0) {
+                position = put(array, position, CONTENT_LENGTH);
+                position = putDigits(array, position, contentLength);
+                position = put(array, position, CRLF);
+            }
+            position = putHeaders(array, position, extraHeaders);
+            position = put(array, position, connectionHeader(out));
+            position = put(array, position, CRLF);
+            if (body == null) {
+                send(out, head.limit(position), (byte[]) null);
+            } else {
+                send(out, head.limit(position), body);
+            }
+        } finally {
+            HEADER_BUFFERS.release(head);
+        }
+    }
+
+    /**
+     * Devuelve el header {@code Connection} codificado según si la conexión se mantiene abierta.
+     *
+     * @param out el OutputStream de la respuesta
+     * @return la línea de header terminada en CRLF; no debe modificarse
+     */
+    static byte[] connectionHeader(OutputStream out) {
+        if (out instanceof HttpOutputStream && ((HttpOutputStream) out).isKeepAlive()) {
+            return KEEP_ALIVE;
+        }
+        return CLOSE;
+    }
+
+    private static void send(OutputStream out, ByteBuffer head, byte[] body) throws IOException {
+        if (out instanceof HttpOutputStream) {
+            ((HttpOutputStream) out).write(head, body);
+            return;
+        }
+        out.write(head.array(), head.arrayOffset() + head.position(), head.remaining());
+        if (body != null) {
+            out.write(body);
+        }
+    }
+
+    private static void send(OutputStream out, ByteBuffer head, ByteBuffer body) throws IOException {
+        if (out instanceof HttpOutputStream) {
+            ((HttpOutputStream) out).write(head, body);
+            return;
+        }
+        out.write(head.array(), head.arrayOffset() + head.position(), head.remaining());
+        if (body.hasArray()) {
+            out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+            body.position(body.limit());
+        } else {
+            byte[] copy = new byte[body.remaining()];
+            body.get(copy);
+            out.write(copy);
+        }
+    }
+
+    /**
+     * Los headers adicionales pueden ocupar hasta 3 bytes por carácter si no son ASCII.
+     */
+    private static ByteBuffer acquire(int encodedBytes, int headerChars) {
+        int needed = encodedBytes + headerChars * 3 + FIXED_HEADERS_BYTES;
+        return needed <= HEADER_BUFFER_SIZE ? HEADER_BUFFERS.acquire() : ByteBuffer.allocate(needed);
+    }
+
+    private static byte[] statusLine(String status) {
+        return STATUS_LINES.computeIfAbsent(status, s -> utf8("HTTP/1.1 " + s + "\r\n"));
+    }
+
+    /**
+     * Los tipos se cachean hasta un límite porque {@code sendWithContentType} admite cualquier valor.
+     */
+    private static ContentTypeLine contentTypeLine(String contentType) {
+        ContentTypeLine line = CONTENT_TYPE_LINES.get(contentType);
+        if (line == null) {
+            line = new ContentTypeLine(contentType);
+            if (CONTENT_TYPE_LINES.size() < MAX_CACHED_CONTENT_TYPES) {
+                CONTENT_TYPE_LINES.putIfAbsent(contentType, line);
+            }
+        }
+        return line;
+    }
+
+    private static int put(byte[] array, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, array, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /**
+     * Copia los headers carácter a carácter si son ASCII, que es el caso normal; si no, los codifica en UTF-8.
+     */
+    private static int putHeaders(byte[] array, int position, String headers) {
+        int length = headers.length();
+        for (int i = 0; i < length; i++) {
+            char c = headers.charAt(i);
+            if (c >= 0x80) {
+                return put(array, position, utf8(headers));
+            }
+            array[position + i] = (byte) c;
+        }
+        return position + length;
+    }
+
+    private static int putDigits(byte[] array, int position, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            array[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Línea {@code Content-Type} codificada junto con si el tipo admite compresión, para no evaluarlo en cada respuesta.
+     */
+    private static final class ContentTypeLine {
+
+        private final byte[] bytes;
+        private final boolean compressible;
+
+        ContentTypeLine(String contentType) {
+            this.bytes = utf8("Content-Type: " + contentType + "\r\n");
+            this.compressible = ContentEncoding.isCompressible(contentType);
+        }
+    }
+}
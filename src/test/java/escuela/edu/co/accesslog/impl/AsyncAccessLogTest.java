@@ -0,0 +1,88 @@
+package escuela.edu.co.accesslog.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import escuela.edu.co.accesslog.OverflowPolicy;
+
+/**
+ * Tests para el registro de acceso asíncrono.
+ */
+class AsyncAccessLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should write one escaped JSON line per request and drop entries after close")
+    void shouldWriteEscapedJsonLines() throws IOException {
+        // Given
+        Path file = dir.resolve("access.log");
+        AsyncAccessLog log = new AsyncAccessLog(file, 16, OverflowPolicy.DROP);
+
+        // When
+        log.log("GET", "/app/hello", 200, 153, 42_000);
+        log.log("GET", "/a\"b\n{\"status\":500}", 404, 90, 1_000);
+        log.close();
+        log.log("GET", "/tarde", 200, 10, 1_000);
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\{\"time\":\"[^\"]+Z\",\"method\":\"GET\",\"path\":\"/app/hello\","
+                + "\"status\":200,\"bytes\":153,\"duration_us\":42}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"path\":\"/a\\\"b\\u000a{\\\"status\\\":500}\",\"status\":404"),
+                lines.get(1));
+        assertEquals(1, log.getDropped(), "Las entradas posteriores al cierre se descartan");
+    }
+
+    @Test
+    @DisplayName("Should keep every entry from concurrent threads when blocking on a small buffer")
+    void shouldKeepEveryEntryWhenBlocking() throws Exception {
+        // Given
+        Path file = dir.resolve("block.log");
+        AsyncAccessLog log = new AsyncAccessLog(file, 8, OverflowPolicy.BLOCK);
+        int threads = 4;
+        int perThread = 5_000;
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String prefix = "/t" + t + "/";
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.log("GET", prefix + i, 200, i, i);
+                }
+            });
+        }
+
+        // When
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        log.close();
+
+        // Then: ninguna se pierde ni se repite aunque el buffer sea mucho menor que la carga
+        List<String> lines = Files.readAllLines(file);
+        Set<String> paths = new HashSet<>();
+        for (String line : lines) {
+            int start = line.indexOf("\"path\":\"") + 8;
+            paths.add(line.substring(start, line.indexOf('"', start)));
+        }
+        assertEquals(8, log.getCapacity());
+        assertEquals(0, log.getDropped());
+        assertEquals(threads * perThread, lines.size());
+        assertEquals(threads * perThread, paths.size());
+    }
+}
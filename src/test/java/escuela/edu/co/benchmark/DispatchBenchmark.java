@@ -0,0 +1,107 @@
+package escuela.edu.co.benchmark;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.framework.GreetingController;
+import escuela.edu.co.framework.MicroSpringBoot;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.TrieRouter;
+import escuela.edu.co.utils.HttpOutputStream;
+
+/**
+ * Mide el despacho completo de una solicitud ya parseada: búsqueda de la ruta, ejecución del handler
+ * y escritura de la respuesta. Cubre un lambda en {@link SimpleRouter} (con y sin Content-Type declarado),
+ * una ruta con variable en {@link TrieRouter} y un {@code @RestController} registrado con {@link MicroSpringBoot}.
+ * La salida descarta los bytes, así que no incluye red.
+ * Ejecutar el {@link #main} para obtener tiempo promedio y asignación por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private final HttpOutputStream out = new HttpOutputStream(OutputStream.nullOutputStream());
+    private final Response response = new Response(out);
+
+    private SimpleRouter simpleRouter;
+    private TrieRouter trieRouter;
+    private SimpleRouter controllerRouter;
+    private Request helloRequest;
+    private Request producesRequest;
+    private Request userRequest;
+    private Request greetingRequest;
+
+    @Setup
+    public void setUp() {
+        out.setKeepAlive(true);
+
+        simpleRouter = new SimpleRouter();
+        simpleRouter.registerRoute("/app/hello", (req, res) ->
+                "{\"message\": \"Hello " + req.getValues("name") + "\"}");
+        simpleRouter.registerRoute("GET", "/app/plain", "application/json; charset=utf-8", (req, res) ->
+                "{\"message\": \"Hello " + req.getValues("name") + "\"}");
+        helloRequest = new Request("GET", "/app/hello", Map.of("name", "JMH"), Map.of(), null);
+        producesRequest = new Request("GET", "/app/plain", Map.of("name", "JMH"), Map.of(), null);
+
+        trieRouter = new TrieRouter();
+        trieRouter.registerRoute("/app/users/{id}", (req, res) -> "{\"id\": \"" + req.getPathParam("id") + "\"}");
+        trieRouter.registerRoute("/app/users/{id}/orders", (req, res) -> "[]");
+        trieRouter.registerRoute("/app/files/*", (req, res) -> req.getPathParam("*"));
+        userRequest = new Request("GET", "/app/users/42", Map.of(), Map.of(), null);
+
+        controllerRouter = new SimpleRouter();
+        MicroSpringBoot.registerController(controllerRouter, new GreetingController());
+        greetingRequest = new Request("GET", "/greeting", Map.of("name", "JMH"), Map.of(), null);
+    }
+
+    @Benchmark
+    public boolean simpleRouterLambda() throws Exception {
+        return simpleRouter.handleRoute("GET", "/app/hello", helloRequest, response);
+    }
+
+    @Benchmark
+    public boolean simpleRouterProduces() throws Exception {
+        return simpleRouter.handleRoute("GET", "/app/plain", producesRequest, response);
+    }
+
+    @Benchmark
+    public boolean trieRouterPathVariable() throws Exception {
+        return trieRouter.handleRoute("GET", "/app/users/42", userRequest, response);
+    }
+
+    @Benchmark
+    public boolean restController() throws Exception {
+        return controllerRouter.handleRoute("GET", "/greeting", greetingRequest, response);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DispatchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
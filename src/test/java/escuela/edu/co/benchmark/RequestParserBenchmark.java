@@ -0,0 +1,94 @@
+package escuela.edu.co.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import escuela.edu.co.utils.HttpParseException;
+import escuela.edu.co.utils.HttpRequestDecoder;
+import escuela.edu.co.utils.HttpRequestHead;
+import escuela.edu.co.utils.HttpRequestParser;
+
+/**
+ * Compara el parseo de una solicitud típica de navegador con {@code BufferedReader}, {@code readLine}
+ * y {@code split} (ruta anterior) contra el {@link HttpRequestDecoder} incremental reutilizado por conexión,
+ * y mide {@link HttpRequestParser#parseQueryString}, que ambos motores usan para los parámetros.
+ * Ejecutar el {@link #main} para obtener tiempo promedio y asignación por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParserBenchmark {
+
+    private static final byte[] REQUEST = ("GET /app/hello?name=JMH HTTP/1.1\r\n" +
+            "Host: localhost:35000\r\n" +
+            "User-Agent: Mozilla/5.0 (X11; Linux x86_64; rv:128.0) Gecko/20100101 Firefox/128.0\r\n" +
+            "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8\r\n" +
+            "Accept-Language: es-CO,es;q=0.8,en-US;q=0.5,en;q=0.3\r\n" +
+            "Accept-Encoding: gzip, deflate, br\r\n" +
+            "Connection: keep-alive\r\n" +
+            "Upgrade-Insecure-Requests: 1\r\n" +
+            "If-None-Match: \"q1w2e3r4t5y6u7i8o9p0\"\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+    private static final String QUERY = "name=Ana+Mar%C3%ADa&city=Bogot%C3%A1&page=2&size=50&sort=name,desc";
+
+    private final HttpRequestDecoder decoder = new HttpRequestDecoder();
+    private final ByteBuffer input = ByteBuffer.wrap(REQUEST);
+
+    // El parser deprecado es justamente la línea base contra la que se compara el decodificador incremental
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void readerAndSplit(Blackhole blackhole) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(REQUEST), StandardCharsets.ISO_8859_1));
+        String[] requestLine = HttpRequestParser.parseRequestLine(in.readLine());
+        Map<String, String> headers = HttpRequestParser.parseHeaders(in);
+        blackhole.consume(requestLine);
+        blackhole.consume(headers);
+    }
+
+    @Benchmark
+    public HttpRequestHead incrementalDecoder() throws HttpParseException {
+        input.clear();
+        decoder.reset();
+        decoder.decode(input);
+        return decoder.head();
+    }
+
+    @Benchmark
+    public Map<String, String> queryString() {
+        return HttpRequestParser.parseQueryString(QUERY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,97 @@
+package escuela.edu.co.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import escuela.edu.co.Response;
+import escuela.edu.co.utils.ContentEncoding;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpResponseHelper;
+import escuela.edu.co.utils.ResponseWriter;
+
+/**
+ * Compara la escritura de una respuesta JSON pequeña con headers concatenados como {@code String}
+ * (ruta anterior de {@code HttpResponseHelper}) contra el {@link ResponseWriter} con bytes precodificados
+ * y buffers del pool, además de {@link Response#sendJson}, que agrega la codificación del {@code String}.
+ * La salida descarta los bytes, así que solo se mide la construcción de la respuesta.
+ * Ejecutar el {@link #main} para obtener tiempo promedio y asignación por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWriterBenchmark {
+
+    private static final String JSON = "{\"name\": \"JMH\", \"greeting\": \"Hola JMH\"}";
+    private static final byte[] BODY = JSON.getBytes(StandardCharsets.UTF_8);
+
+    private final HttpOutputStream out = new HttpOutputStream(OutputStream.nullOutputStream());
+    private final Response response = new Response(out);
+
+    public ResponseWriterBenchmark() {
+        out.setKeepAlive(true);
+    }
+
+    /**
+     * Copia de la versión anterior de {@code HttpResponseHelper.sendResponse}.
+     */
+    @Benchmark
+    public void concatenatedHeaders() throws IOException {
+        String contentType = "application/json; charset=utf-8";
+        String extraHeaders = "Access-Control-Allow-Origin: *\r\n";
+        byte[] body = BODY;
+        String encoding = ContentEncoding.select(out, contentType, body.length);
+        if (encoding != null) {
+            body = ContentEncoding.compress(body, encoding);
+            extraHeaders = "Content-Encoding: " + encoding + "\r\n" + extraHeaders;
+        }
+        if (ContentEncoding.isCompressible(contentType)) {
+            extraHeaders = ContentEncoding.VARY_HEADER + extraHeaders;
+        }
+        String headers = "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                extraHeaders +
+                HttpResponseHelper.connectionHeader(out) + "\r\n";
+        out.write(headers.getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+    }
+
+    @Benchmark
+    public void preEncodedWriter() throws IOException {
+        ResponseWriter.write(out, "200 OK", "application/json; charset=utf-8",
+                "Access-Control-Allow-Origin: *\r\n", BODY);
+    }
+
+    @Benchmark
+    public void responseSendJson() throws IOException {
+        response.sendJson(JSON);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ResponseWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
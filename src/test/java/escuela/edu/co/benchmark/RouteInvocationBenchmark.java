@@ -0,0 +1,107 @@
+package escuela.edu.co.benchmark;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.RouteHandler;
+import escuela.edu.co.framework.GreetingController;
+import escuela.edu.co.framework.HandlerMethod;
+import escuela.edu.co.framework.RequestParam;
+
+/**
+ * Compara la invocación de una ruta {@code @GetMapping} con reflexión en cada solicitud (ruta anterior
+ * de MicroSpringBoot) contra el {@link HandlerMethod} precompilado.
+ * Ejecutar el {@link #main} para obtener tiempo promedio y asignación por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteInvocationBenchmark {
+
+    private Request request;
+    private RouteHandler reflective;
+    private RouteHandler precompiled;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        GreetingController controller = new GreetingController();
+        Method method = GreetingController.class.getMethod("greeting", String.class);
+        request = new Request("GET", "/greeting", Map.of("name", "JMH"), Map.of(), null);
+        reflective = reflectiveHandler(controller, method);
+        precompiled = HandlerMethod.of(controller, method);
+    }
+
+    @Benchmark
+    public String reflective() throws Exception {
+        return reflective.handle(request, null);
+    }
+
+    @Benchmark
+    public String precompiled() throws Exception {
+        return precompiled.handle(request, null);
+    }
+
+    /**
+     * Réplica del lambda que registraba MicroSpringBoot: resuelve tipos y anotaciones en cada solicitud.
+     */
+    private static RouteHandler reflectiveHandler(Object controller, Method method) {
+        return (req, resp) -> {
+            try {
+                Class<?>[] paramTypes = method.getParameterTypes();
+                Annotation[][] paramAnnotations = method.getParameterAnnotations();
+                Object[] argsForMethod = new Object[paramTypes.length];
+                for (int i = 0; i < paramTypes.length; i++) {
+                    RequestParam reqParam = null;
+                    for (Annotation annotation : paramAnnotations[i]) {
+                        if (annotation instanceof RequestParam) {
+                            reqParam = (RequestParam) annotation;
+                            break;
+                        }
+                    }
+                    String value = reqParam != null ? reqParam.value() : null;
+                    String defaultValue = reqParam != null ? reqParam.defaultValue() : "";
+                    String paramValue = value != null ? req.getValues(value) : null;
+                    if (paramValue == null || paramValue.isEmpty()) {
+                        paramValue = defaultValue;
+                    }
+                    argsForMethod[i] = paramValue;
+                }
+                Object result = method.invoke(controller, argsForMethod);
+                return result instanceof String ? (String) result : "Error: El método debe retornar String";
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                return "Error al invocar método: " + e.getMessage();
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RouteInvocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
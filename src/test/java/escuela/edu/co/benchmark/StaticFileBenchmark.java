@@ -0,0 +1,140 @@
+package escuela.edu.co.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+import escuela.edu.co.utils.HttpOutputStream;
+
+/**
+ * Compara el envío de archivos estáticos con {@code Files.readAllBytes} (ruta anterior)
+ * contra {@code FileChannel.transferTo} sobre un socket real de loopback.
+ * Ejecutar el {@link #main} para obtener throughput y asignación por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticFileBenchmark {
+
+    @Param({"4096", "1048576", "16777216"})
+    private int fileSize;
+
+    private Path staticRoot;
+    private SimpleStaticFileHandler handler;
+    private ServerSocketChannel listener;
+    private SocketChannel sink;
+    private SocketChannel drain;
+    private Thread drainThread;
+    private OutputStream sinkStream;
+    private HttpOutputStream zeroCopyStream;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        staticRoot = Files.createTempDirectory("static-bench");
+        Files.write(staticRoot.resolve("asset.bin"), new byte[fileSize]);
+        handler = new SimpleStaticFileHandler();
+        handler.setStaticRoot(staticRoot.toString());
+
+        listener = ServerSocketChannel.open().bind(new InetSocketAddress("localhost", 0));
+        drain = SocketChannel.open(listener.getLocalAddress());
+        sink = listener.accept();
+        drainThread = new Thread(this::drainForever, "bench-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+
+        sinkStream = sink.socket().getOutputStream();
+        zeroCopyStream = new HttpOutputStream(new BufferedOutputStream(sinkStream, 8 * 1024), sink);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sink.close();
+        drain.close();
+        listener.close();
+        try (Stream<Path> files = Files.walk(staticRoot)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Ruta anterior: mismas comprobaciones del handler, pero el archivo completo se carga al heap.
+     */
+    @Benchmark
+    public boolean readAllBytes() throws IOException {
+        File file = new File(staticRoot + "/asset.bin");
+        if (!file.exists() || file.isDirectory()) {
+            return false;
+        }
+        String mimeType = Files.probeContentType(file.toPath());
+        byte[] content = Files.readAllBytes(file.toPath());
+        String response = "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: " + mimeType + "\r\n" +
+                "Content-Length: " + content.length + "\r\n" +
+                "Connection: close\r\n\r\n";
+        sinkStream.write(response.getBytes());
+        sinkStream.write(content);
+        return true;
+    }
+
+    /**
+     * Ruta actual: headers por el buffer y body con transferTo del page cache al socket.
+     */
+    @Benchmark
+    public boolean transferTo() throws IOException {
+        boolean served = handler.serveStaticFile("/asset.bin", zeroCopyStream);
+        zeroCopyStream.flush();
+        return served;
+    }
+
+    private void drainForever() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        try {
+            while (drain.read(buffer) != -1) {
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // El benchmark terminó y cerró el socket
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StaticFileBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
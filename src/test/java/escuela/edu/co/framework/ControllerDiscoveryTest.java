@@ -0,0 +1,156 @@
+package escuela.edu.co.framework;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.TrieRouter;
+
+/**
+ * Tests para el descubrimiento de controladores con el índice de rutas y con el escaneo del classpath.
+ */
+class ControllerDiscoveryTest {
+
+    @Test
+    @DisplayName("Should generate a route index at compile time and register routes from it")
+    void shouldGenerateAndUseRouteIndex(@TempDir Path dir) throws Exception {
+        // Given
+        Path source = dir.resolve("src/demo/ItemController.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, String.join("\n",
+                "package demo;",
+                "import escuela.edu.co.framework.*;",
+                "@RestController",
+                "public class ItemController {",
+                "    @GetMapping(\"/items\")",
+                "    public String list(@RequestParam(\"page\") int page, @RequestParam(\"tags\") java.util.List<String> tags) {",
+                "        return \"page \" + page + \" \" + tags;",
+                "    }",
+                "    @PostMapping(\"/items\")",
+                "    public String create(@RequestBody byte[] body) {",
+                "        return \"bytes \" + body.length;",
+                "    }",
+                "}"));
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+
+        // When
+        compileWithProcessor(source, classes);
+        SimpleRouter router = new SimpleRouter();
+        int routes;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                ControllerDiscoveryTest.class.getClassLoader())) {
+            routes = MicroSpringBoot.registerControllers(router, "demo", loader);
+        }
+
+        // Then
+        String index = Files.readString(classes.resolve(RouteIndex.LOCATION));
+        assertTrue(index.contains("GET\t/items\tdemo.ItemController\tlist\tint,java.util.List"));
+        assertTrue(index.contains("POST\t/items\tdemo.ItemController\tcreate\tbyte[]"));
+        assertEquals(2, routes);
+        Request request = new Request("GET", "/items", Map.of("page", "2", "tags", "a,b"), Map.of(), null);
+        assertEquals("page 2 [a, b]", router.getRoutes("GET").get("/items").handle(request, null));
+    }
+
+    @Test
+    @DisplayName("Should register the same routes from the index plus unindexed classes as by scanning alone")
+    void shouldMergeIndexWithUnindexedControllers() throws Exception {
+        // Given: target/classes trae el índice; target/test-classes no
+        long start = System.nanoTime();
+        assertNotNull(RouteIndex.load(getClass().getClassLoader()), "El build debe generar " + RouteIndex.LOCATION);
+        TrieRouter router = new TrieRouter();
+
+        // When
+        int routes = MicroSpringBoot.registerControllers(router, "escuela.edu.co.framework",
+                getClass().getClassLoader());
+
+        // Then
+        int scanned = 0;
+        for (Class<?> controller : ControllerScanner.scan("escuela.edu.co.framework", getClass().getClassLoader())) {
+            scanned += MicroSpringBoot.registerController(new TrieRouter(),
+                    controller.getDeclaredConstructor().newInstance());
+        }
+        assertEquals(scanned, routes, "Los controladores fuera del índice también se registran");
+        assertEquals(Set.of("GET"), router.allowedMethods("/hello"));
+        assertEquals(Set.of("GET"), router.allowedMethods("/greeting"));
+        assertTrue(router.allowedMethods("/notes").contains("POST"), "HandlerMethodTest.NoteController no está indexado");
+        assertTrue(MicroSpringBoot.checkStartupBudget(routes, start));
+    }
+
+    @Test
+    @DisplayName("Should scan the classpath when the route index has no entries for the package")
+    void shouldScanWhenIndexLacksPackage(@TempDir Path dir) throws Exception {
+        // Given: el controlador se compila sin el procesador, pero el índice de src/main sigue en el classpath
+        Path source = dir.resolve("src/unindexed/PingController.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, String.join("\n",
+                "package unindexed;",
+                "import escuela.edu.co.framework.*;",
+                "@RestController",
+                "public class PingController {",
+                "    @GetMapping(\"/ping\")",
+                "    public String ping() {",
+                "        return \"pong\";",
+                "    }",
+                "}"));
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        compile(source, classes, List.of());
+        SimpleRouter router = new SimpleRouter();
+
+        // When
+        int routes;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                ControllerDiscoveryTest.class.getClassLoader())) {
+            assertNotNull(RouteIndex.load(loader));
+            routes = MicroSpringBoot.registerControllers(router, "unindexed", loader);
+        }
+
+        // Then
+        assertEquals(1, routes);
+        assertEquals("pong", router.getRoutes().get("/ping").handle(null, null));
+    }
+
+    @Test
+    @DisplayName("Should find @RestController classes by scanning the classpath when there is no index")
+    void shouldScanClasspathForControllers() throws IOException {
+        List<Class<?>> controllers = ControllerScanner.scan("escuela.edu.co.framework", getClass().getClassLoader());
+
+        assertTrue(controllers.contains(FirstWebService.class));
+        assertTrue(controllers.contains(GreetingController.class));
+        assertTrue(controllers.contains(HandlerMethodTest.NoteController.class));
+        assertTrue(controllers.stream().allMatch(type -> type.isAnnotationPresent(RestController.class)));
+    }
+
+    private static void compileWithProcessor(Path source, Path classes) throws IOException {
+        compile(source, classes, List.of(new RouteIndexProcessor()));
+    }
+
+    private static void compile(Path source, Path classes, List<? extends Processor> processors) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, null,
+                    List.of("-d", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, files.getJavaFileObjects(source));
+            task.setProcessors(processors);
+            assertTrue(task.call(), "La compilación debe terminar sin errores");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package escuela.edu.co.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.TrieRouter;
+
+/**
+ * Tests para la invocación precompilada de rutas de controladores.
+ */
+class HandlerMethodTest {
+
+    @Test
+    @DisplayName("Should bind request params and fall back to their default values")
+    void shouldBindRequestParamsAndDefaults() throws Exception {
+        // Given
+        HandlerMethod handler = HandlerMethod.of(new GreetingController(),
+                GreetingController.class.getMethod("greeting", String.class));
+
+        // When
+        String named = handler.handle(request(Map.of("name", "Ana")), null);
+        String defaulted = handler.handle(request(Map.of("name", "")), null);
+
+        // Then
+        assertEquals("Hola Ana", named);
+        assertEquals("Hola World", defaulted);
+    }
+
+    @Test
+    @DisplayName("Should register every @GetMapping method of a controller")
+    void shouldRegisterGetMappingMethods() {
+        // Given
+        SimpleRouter router = new SimpleRouter();
+
+        // When
+        MicroSpringBoot.registerController(router, new FirstWebService());
+
+        // Then
+        assertEquals(1, router.getRoutes().size());
+        assertEquals(HandlerMethod.class, router.getRoutes().get("/hello").getClass());
+    }
+
+    @Test
+    @DisplayName("Should report controller methods that do not return a String")
+    void shouldReportNonStringResults() throws Exception {
+        HandlerMethod handler = HandlerMethod.of(new NumberController(), NumberController.class.getMethod("number"));
+        assertEquals("Error: El método debe retornar String, byte[] o ByteBuffer",
+                handler.handle(request(Map.of()), null));
+    }
+
+    @Test
+    @DisplayName("Should write declared content types and binary results without sniffing")
+    void shouldWriteProducedAndBinaryResults() throws Exception {
+        // Given
+        TrieRouter router = new TrieRouter();
+        MicroSpringBoot.registerController(router, new MediaController());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Response response = new Response(out);
+
+        // When
+        router.handleRoute("GET", "/report", request(Map.of()), response);
+        router.handleRoute("GET", "/logo", request(Map.of()), response);
+        router.handleRoute("GET", "/logo", request(Map.of()), response);
+        router.handleRoute("GET", "/blob", request(Map.of()), response);
+
+        // Then
+        String written = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(written.startsWith("HTTP/1.1 200 OK\r\nContent-Type: text/csv\r\nContent-Length: 9\r\n"));
+        assertTrue(written.contains("\r\n\r\n{a,b}\n1,2"));
+        String logo = "Content-Type: image/png\r\nContent-Length: 4\r\nConnection: close\r\n\r\n\u0089PNG";
+        assertEquals(2, written.split(java.util.regex.Pattern.quote(logo), -1).length - 1,
+                "El buffer compartido se envía completo en cada solicitud");
+        assertTrue(written.endsWith("Content-Type: application/octet-stream\r\nContent-Length: 3\r\n"
+                + "Connection: close\r\n\r\n\u0001\u0002\u0003"));
+    }
+
+    @Test
+    @DisplayName("Should dispatch write mappings by method and bind the request body")
+    void shouldDispatchWriteMappingsWithRequestBody() throws Exception {
+        // Given
+        TrieRouter router = new TrieRouter();
+        MicroSpringBoot.registerController(router, new NoteController());
+        Request post = new Request("POST", "/notes", Map.of(), Map.of(),
+                escuela.edu.co.RequestBody.of("titulo=hola+mundo&autor=ana".getBytes(StandardCharsets.UTF_8)));
+        Request put = new Request("PUT", "/notes", Map.of("id", "7"), Map.of(),
+                escuela.edu.co.RequestBody.of("texto nuevo".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        router.handleRoute("POST", "/notes", post, new Response(out));
+        router.handleRoute("PUT", "/notes", put, new Response(out));
+        router.handleRoute("DELETE", "/notes", request(Map.of("id", "7")), new Response(out));
+
+        // Then
+        String responses = out.toString(StandardCharsets.UTF_8);
+        assertTrue(responses.contains("creada: hola mundo de ana"));
+        assertTrue(responses.contains("7 = texto nuevo"));
+        assertTrue(responses.contains("borrada 7"));
+        assertEquals(Set.of("DELETE", "GET", "POST", "PUT"), router.allowedMethods("/notes"));
+    }
+
+    @Test
+    @DisplayName("Should convert typed request params and answer 400 for missing or malformed values")
+    void shouldBindTypedRequestParams() throws Exception {
+        // Given
+        HandlerMethod handler = HandlerMethod.of(new SearchController(), SearchController.class.getMethod("search",
+                int.class, boolean.class, TimeUnit.class, Optional.class, List.class));
+        ByteArrayOutputStream missing = new ByteArrayOutputStream();
+        ByteArrayOutputStream malformed = new ByteArrayOutputStream();
+
+        // When
+        String typed = handler.handle(request(Map.of("page", "3", "exact", "TRUE", "unit", "seconds",
+                "limit", "50", "ids", "1, 2,3")), null);
+        String defaults = handler.handle(request(Map.of("page", "1")), null);
+        String withoutPage = handler.handle(request(Map.of("ids", "1")), new Response(missing));
+        String badPage = handler.handle(request(Map.of("page", "tres")), new Response(malformed));
+
+        // Then
+        assertEquals("3 true SECONDS 50 [1, 2, 3]", typed);
+        assertEquals("1 false MILLISECONDS -1 []", defaults);
+        assertNull(withoutPage, "La respuesta 400 ya fue enviada");
+        assertNull(badPage);
+        assertTrue(missing.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 400 Bad Request"));
+        assertTrue(malformed.toString(StandardCharsets.UTF_8).contains("Valor inválido para el parámetro 'page': tres"));
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported parameter types and invalid defaults at registration")
+    void shouldRejectInvalidParamsAtRegistration() {
+        assertThrows(IllegalArgumentException.class, () -> HandlerMethod.of(new SearchController(),
+                SearchController.class.getMethod("badDefault", int.class)));
+        assertThrows(IllegalArgumentException.class, () -> HandlerMethod.of(new SearchController(),
+                SearchController.class.getMethod("unsupported", StringBuilder.class)));
+    }
+
+    private static Request request(Map<String, String> query) {
+        return new Request("GET", "/", query, Map.of(), null);
+    }
+
+    @RestController
+    public static class NoteController {
+        @GetMapping("/notes")
+        public String list() {
+            return "[]";
+        }
+
+        @PostMapping("/notes")
+        public String create(@RequestBody Map<String, String> form) {
+            return "creada: " + form.get("titulo") + " de " + form.get("autor");
+        }
+
+        @PutMapping("/notes")
+        public String update(@RequestParam("id") String id, @RequestBody String text) {
+            return id + " = " + text;
+        }
+
+        @DeleteMapping("/notes")
+        public String delete(@RequestParam("id") String id) {
+            return "borrada " + id;
+        }
+    }
+
+    @RestController
+    public static class SearchController {
+        @GetMapping("/search")
+        public String search(@RequestParam("page") int page,
+                             @RequestParam(value = "exact", defaultValue = "false") boolean exact,
+                             @RequestParam(value = "unit", defaultValue = "MILLISECONDS") TimeUnit unit,
+                             @RequestParam("limit") Optional<Long> limit,
+                             @RequestParam(value = "ids", required = false) List<Integer> ids) {
+            return page + " " + exact + " " + unit + " " + limit.orElse(-1L) + " " + ids;
+        }
+
+        public String badDefault(@RequestParam(value = "page", defaultValue = "uno") int page) {
+            return String.valueOf(page);
+        }
+
+        public String unsupported(@RequestParam("text") StringBuilder text) {
+            return text.toString();
+        }
+    }
+
+    @RestController
+    public static class MediaController {
+        private static final ByteBuffer LOGO = ByteBuffer.allocateDirect(4)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G'}).flip();
+
+        @GetMapping(value = "/report", produces = "text/csv")
+        public String report() {
+            return "{a,b}\n1,2";
+        }
+
+        @GetMapping(value = "/logo", produces = "image/png")
+        public ByteBuffer logo() {
+            return LOGO;
+        }
+
+        @GetMapping("/blob")
+        public byte[] blob() {
+            return new byte[]{1, 2, 3};
+        }
+    }
+
+    @RestController
+    public static class NumberController {
+        @GetMapping("/number")
+        public Object number() {
+            return 42;
+        }
+    }
+}
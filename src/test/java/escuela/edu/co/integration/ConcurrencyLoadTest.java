@@ -0,0 +1,118 @@
+package escuela.edu.co.integration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import escuela.edu.co.HttpServerApplication;
+import escuela.edu.co.routing.Router;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.server.ExecutionMode;
+import escuela.edu.co.server.HttpServerInterface;
+import escuela.edu.co.server.ServerConfig;
+import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+
+/**
+ * Prueba de carga que compara cómo escala la concurrencia en cada modo de ejecución.
+ * Registra un handler que simula I/O bloqueante y lanza ráfagas de clientes concurrentes.
+ * Esta clase se ejecuta directamente; el modo VIRTUAL solo se mide sobre Java 21+:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes escuela.edu.co.integration.ConcurrencyLoadTest
+ * </pre>
+ */
+public class ConcurrencyLoadTest {
+
+    private static final int BASE_PORT = 38200;
+    private static final int BLOCKING_MILLIS = 20;
+    private static final int REQUESTS_PER_CLIENT = 2;
+    private static final int SEQUENTIAL_MAX_CLIENTS = 100;
+    private static final int[] CONCURRENCY_LEVELS = {1, 10, 100, 1000};
+    private static final int STARTUP_TIMEOUT_SECONDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        List<ServerConfig> configs = new ArrayList<>();
+        configs.add(ServerConfig.sequential());
+        configs.add(ServerConfig.pooled(64, 4096));
+        if (Runtime.version().feature() >= 21) {
+            configs.add(ServerConfig.virtualThreads());
+        } else {
+            System.out.println("⚠️  Java " + Runtime.version().feature() + ": se omite el modo VIRTUAL");
+        }
+
+        System.out.printf("%-12s %12s %12s %14s %8s%n", "modo", "clientes", "requests", "req/s", "errores");
+        int port = BASE_PORT;
+        for (ServerConfig config : configs) {
+            HttpServerInterface server = startServer(port, config);
+            for (int clients : CONCURRENCY_LEVELS) {
+                if (config.getMode() == ExecutionMode.SEQUENTIAL && clients > SEQUENTIAL_MAX_CLIENTS) {
+                    // El modo secuencial tardaría clientes * requests * BLOCKING_MILLIS
+                    System.out.printf("%-12s %12d %12s%n", config.getMode(), clients, "(omitido)");
+                    continue;
+                }
+                runLevel(port, config, clients);
+            }
+            server.stop();
+            port++;
+        }
+        System.exit(0);
+    }
+
+    private static HttpServerInterface startServer(int port, ServerConfig config) throws InterruptedException {
+        Router router = new SimpleRouter();
+        router.registerRoute("/app/slow", (req, resp) -> {
+            Thread.sleep(BLOCKING_MILLIS);
+            return "{\"ok\": true}";
+        });
+        HttpServerInterface server = HttpServerApplication.createServer(port, router,
+                new SimpleStaticFileHandler(), config);
+        return ServerStarter.startAndAwait(server, STARTUP_TIMEOUT_SECONDS);
+    }
+
+    private static void runLevel(int port, ServerConfig config, int clients) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(clients);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            Thread client = new Thread(() -> {
+                for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                    if (sendRequest(port)) {
+                        ok.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%-12s %12d %12d %14.1f %8d%n", config.getMode(), clients, ok.get(),
+                ok.get() / seconds, errors.get());
+    }
+
+    private static boolean sendRequest(int port) {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(30_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /app/slow HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] status = new byte[12];
+            int read = in.readNBytes(status, 0, status.length);
+            in.transferTo(OutputStream.nullOutputStream());
+            return read == status.length && new String(status, StandardCharsets.US_ASCII).endsWith("200");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
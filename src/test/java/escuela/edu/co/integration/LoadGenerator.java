@@ -0,0 +1,339 @@
+package escuela.edu.co.integration;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import escuela.edu.co.HttpServerApplication;
+import escuela.edu.co.server.ExecutionMode;
+import escuela.edu.co.server.HttpServerInterface;
+import escuela.edu.co.server.ServerConfig;
+
+/**
+ * Generador de carga para comparar motores y configuraciones del servidor en una misma máquina.
+ * Inicia el servidor en este proceso con {@link HttpServerApplication#createServer(int, ServerConfig)}
+ * (archivos estáticos y endpoints {@code /app/*} por defecto) y lo carga con N clientes, cada uno con su socket.
+ * Por cada motor y path mide el throughput y los percentiles de latencia con HdrHistogram.
+ *
+ * <p>En lazo cerrado cada cliente envía la siguiente solicitud al recibir la respuesta. Con
+ * {@code -Dload.rate} (solicitudes por segundo en total) la carga es de lazo abierto: cada solicitud tiene
+ * una hora de envío programada y la latencia se mide desde esa hora, de modo que si el servidor se atrasa
+ * la espera acumulada aparece en los percentiles en lugar de bajar la carga (coordinated omission).
+ *
+ * <p>Se configura con propiedades del sistema; las de {@link ServerConfig} ({@code http.server.threads},
+ * {@code http.server.keepalive.max}, ...) se aplican a todos los motores:
+ * <ul>
+ *   <li>{@code load.modes}: motores separados por comas (por defecto {@code pooled,virtual,event_loop})</li>
+ *   <li>{@code load.clients}: conexiones concurrentes (16)</li>
+ *   <li>{@code load.rate}: solicitudes por segundo en lazo abierto; 0 para lazo cerrado (0)</li>
+ *   <li>{@code load.keepalive}: reutilizar la conexión o abrir una por solicitud (true)</li>
+ *   <li>{@code load.duration} y {@code load.warmup}: segundos de medición y de calentamiento por path (10 y 2)</li>
+ *   <li>{@code load.paths}: paths separados por comas</li>
+ *   <li>{@code load.port}: puerto del primer motor; cada motor usa el siguiente (38300)</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Dload.modes=pooled,event_loop -Dload.clients=64 -Dload.rate=20000 \
+ *      -cp target/classes:target/test-classes:$(cat target/cp.txt) escuela.edu.co.integration.LoadGenerator
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private static final String DEFAULT_PATHS = "/index.html,/style.css,/app/hello?name=carga,/app/pi";
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int SOCKET_TIMEOUT_MILLIS = 30_000;
+    private static final int STARTUP_TIMEOUT_SECONDS = 10;
+
+    private final int clients;
+    private final long rate;
+    private final boolean keepAlive;
+    private final long durationNanos;
+    private final long warmupNanos;
+
+    LoadGenerator(int clients, long rate, boolean keepAlive, int durationSeconds, int warmupSeconds) {
+        if (clients <= 0 || rate < 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Clientes y duración deben ser positivos; tasa y calentamiento, no negativos");
+        }
+        this.clients = clients;
+        this.rate = rate;
+        this.keepAlive = keepAlive;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator(
+                Integer.getInteger("load.clients", 16),
+                Long.getLong("load.rate", 0),
+                Boolean.parseBoolean(System.getProperty("load.keepalive", "true")),
+                Integer.getInteger("load.duration", 10),
+                Integer.getInteger("load.warmup", 2));
+        String[] paths = System.getProperty("load.paths", DEFAULT_PATHS).split(",");
+        int port = Integer.getInteger("load.port", 38300);
+
+        System.out.printf("Java %d, %d núcleos | %d clientes | %s | %s | %d s por path%n",
+                Runtime.version().feature(), Runtime.getRuntime().availableProcessors(), generator.clients,
+                generator.keepAlive ? "keep-alive" : "conexión por solicitud",
+                generator.rate > 0 ? "lazo abierto a " + generator.rate + " req/s" : "lazo cerrado",
+                TimeUnit.NANOSECONDS.toSeconds(generator.durationNanos));
+        System.out.printf("%-11s %-28s %11s %9s %9s %9s %9s %8s%n",
+                "motor", "path", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errores");
+
+        for (String mode : System.getProperty("load.modes", "pooled,virtual,event_loop").split(",")) {
+            ServerConfig config = config(mode.trim());
+            if (config.getMode() == ExecutionMode.VIRTUAL && Runtime.version().feature() < 21) {
+                System.out.printf("%-11s (omitido: requiere Java 21)%n", config.getMode());
+                continue;
+            }
+            HttpServerInterface server = startServer(port, config);
+            try {
+                for (String path : paths) {
+                    generator.run(port, path.trim(), false);
+                    Result result = generator.run(port, path.trim(), true);
+                    result.print(config.getMode(), path.trim());
+                }
+            } finally {
+                server.stop();
+            }
+            port++;
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Reutiliza la lectura de propiedades del servidor cambiando solo el modo.
+     */
+    private static ServerConfig config(String mode) {
+        System.setProperty(ServerConfig.MODE_PROPERTY, mode);
+        return ServerConfig.fromSystemProperties();
+    }
+
+    private static HttpServerInterface startServer(int port, ServerConfig config) throws InterruptedException {
+        HttpServerInterface server = HttpServerApplication.createServer(port, config);
+        return ServerStarter.startAndAwait(server, STARTUP_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Carga un path durante el calentamiento o la medición.
+     *
+     * @param record false para el calentamiento, cuyo resultado se descarta
+     */
+    Result run(int port, String path, boolean record) throws InterruptedException {
+        long duration = record ? durationNanos : warmupNanos;
+        Result result = new Result(duration);
+        if (duration == 0) {
+            return result;
+        }
+        byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+                + (keepAlive ? "" : "Connection: close\r\n") + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        // Cada cliente programa sus envíos con este intervalo; los inicios se escalonan para no llegar en ráfaga
+        long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(clients) / rate : 0;
+        long start = System.nanoTime();
+        long end = start + duration;
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long firstSend = start + interval * i / clients;
+            Thread client = new Thread(() -> drive(port, request, firstSend, interval, end, result),
+                    "load-client-" + i);
+            client.setDaemon(true);
+            client.start();
+            threads.add(client);
+        }
+        for (Thread client : threads) {
+            client.join();
+        }
+        return result;
+    }
+
+    private void drive(int port, byte[] request, long firstSend, long interval, long end, Result result) {
+        Histogram histogram = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long errors = 0;
+        try (Connection connection = new Connection(port, keepAlive)) {
+            long intended = firstSend;
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    while (now < intended) {
+                        LockSupport.parkNanos(intended - now);
+                        now = System.nanoTime();
+                    }
+                }
+                if (now >= end) {
+                    break;
+                }
+                long sent = interval > 0 ? intended : now;
+                if (connection.exchange(request)) {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+                    histogram.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                } else {
+                    errors++;
+                }
+                intended += interval;
+            }
+        }
+        result.add(histogram, errors);
+    }
+
+    /**
+     * Latencias y errores de todos los clientes de una corrida.
+     */
+    static final class Result {
+
+        private final Histogram latencies = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        private long errors;
+        private final long durationNanos;
+
+        Result(long durationNanos) {
+            this.durationNanos = durationNanos;
+        }
+
+        synchronized void add(Histogram histogram, long clientErrors) {
+            latencies.add(histogram);
+            errors += clientErrors;
+        }
+
+        synchronized long completed() {
+            return latencies.getTotalCount();
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        double throughput() {
+            return completed() / (durationNanos / 1_000_000_000.0);
+        }
+
+        void print(ExecutionMode mode, String path) {
+            System.out.printf(Locale.ROOT, "%-11s %-28s %11.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    mode, path, throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+                    percentileMillis(100), errors());
+        }
+    }
+
+    /**
+     * Conexión de un cliente: reutiliza el socket mientras el servidor lo mantenga abierto y se reconecta
+     * si lo cierra (por ejemplo al llegar a {@code http.server.keepalive.max}) o si falla.
+     */
+    private static final class Connection implements Closeable {
+
+        private final int port;
+        private final boolean keepAlive;
+        private final byte[] line = new byte[8 * 1024];
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        Connection(int port, boolean keepAlive) {
+            this.port = port;
+            this.keepAlive = keepAlive;
+        }
+
+        /**
+         * Envía la solicitud y consume la respuesta completa.
+         *
+         * @return true si la respuesta fue 200
+         */
+        boolean exchange(byte[] request) {
+            try {
+                if (socket == null) {
+                    socket = new Socket("localhost", port);
+                    socket.setTcpNoDelay(true);
+                    socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+                    in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+                    out = socket.getOutputStream();
+                }
+                out.write(request);
+                out.flush();
+                boolean ok = readResponse();
+                if (!keepAlive) {
+                    close();
+                }
+                return ok;
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+        }
+
+        private boolean readResponse() throws IOException {
+            String statusLine = readLine();
+            boolean ok = statusLine.startsWith("HTTP/1.1 200") || statusLine.startsWith("HTTP/1.0 200");
+            long contentLength = -1;
+            boolean chunked = false;
+            boolean close = false;
+            String header;
+            while (!(header = readLine()).isEmpty()) {
+                String lower = header.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("content-length:")) {
+                    contentLength = Long.parseLong(lower.substring(15).trim());
+                } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                    chunked = true;
+                } else if (lower.startsWith("connection:") && lower.contains("close")) {
+                    close = true;
+                }
+            }
+            if (chunked) {
+                long size;
+                while ((size = Long.parseLong(readLine().split(";", 2)[0].trim(), 16)) > 0) {
+                    in.skipNBytes(size + 2);
+                }
+                while (!readLine().isEmpty()) {
+                    // Trailers
+                }
+            } else if (contentLength >= 0) {
+                in.skipNBytes(contentLength);
+            } else {
+                in.transferTo(OutputStream.nullOutputStream());
+                close = true;
+            }
+            if (close) {
+                close();
+            }
+            return ok;
+        }
+
+        private String readLine() throws IOException {
+            int length = 0;
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    throw new EOFException("El servidor cerró la conexión");
+                }
+                if (b != '\r' && length < line.length) {
+                    line[length++] = (byte) b;
+                }
+            }
+            return new String(line, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // La conexión ya no se usa
+                }
+                socket = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package escuela.edu.co.integration;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import escuela.edu.co.server.HttpServerInterface;
+
+/**
+ * Arranque compartido por las herramientas de carga: inicia el servidor en un hilo daemon
+ * y espera a que acepte conexiones, propagando el error si {@code start()} falla.
+ */
+final class ServerStarter {
+
+    private ServerStarter() {
+    }
+
+    /**
+     * @param server servidor ya configurado
+     * @param timeoutSeconds segundos máximos de espera hasta que {@link HttpServerInterface#isRunning()} sea true
+     * @return el mismo servidor, ya en ejecución
+     * @throws IllegalStateException si {@code start()} falla o no termina de iniciar a tiempo
+     */
+    static HttpServerInterface startAndAwait(HttpServerInterface server, int timeoutSeconds)
+            throws InterruptedException {
+        // start() bloquea mientras el servidor corre: si termina antes de que isRunning() sea true, falló
+        CompletableFuture<Void> startFailure = new CompletableFuture<>();
+        Thread serverThread = new Thread(() -> {
+            try {
+                server.start();
+                startFailure.completeExceptionally(new IOException("start() terminó sin iniciar el servidor"));
+            } catch (IOException | RuntimeException e) {
+                startFailure.completeExceptionally(e);
+            }
+        }, "load-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!server.isRunning()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("El servidor no inició en " + timeoutSeconds + " s");
+            }
+            try {
+                startFailure.get(10, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("No se pudo iniciar el servidor", e.getCause());
+            } catch (TimeoutException e) {
+                // Todavía no arranca ni falló
+            }
+        }
+        return server;
+    }
+}
@@ -0,0 +1,286 @@
+package escuela.edu.co.request.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.ResponseStream;
+import escuela.edu.co.ServerSentEvents;
+import escuela.edu.co.api.ApiRequestHandler;
+import escuela.edu.co.metrics.ServerMetrics;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.routing.impl.TrieRouter;
+import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+import escuela.edu.co.utils.HttpOutputStream;
+import escuela.edu.co.utils.HttpRequestReader;
+
+/**
+ * Tests para el manejo de conexiones persistentes en HttpRequestHandler.
+ */
+class HttpRequestHandlerTest {
+
+    private HttpRequestHandler handler;
+    private ByteArrayOutputStream buffer;
+    private HttpOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        SimpleRouter router = new SimpleRouter();
+        router.registerRoute("/app/echo", (req, resp) -> "{\"name\": \"" + req.getValues("name") + "\"}");
+        handler = new HttpRequestHandler(router, new SimpleStaticFileHandler(), new ApiRequestHandler());
+        buffer = new ByteArrayOutputStream();
+        out = new HttpOutputStream(buffer);
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests in order keeping the connection open")
+    void shouldAnswerPipelinedRequestsInOrder() throws IOException {
+        // Given
+        HttpRequestReader in = reader(
+                "GET /app/echo?name=uno HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+                "GET /app/echo?name=dos HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+        // When
+        boolean firstKeepAlive = handler.process(in, out, true);
+        boolean secondKeepAlive = handler.process(in, out, true);
+        boolean thirdKeepAlive = handler.process(in, out, true);
+
+        // Then
+        String responses = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(firstKeepAlive);
+        assertTrue(secondKeepAlive);
+        assertFalse(thirdKeepAlive, "Fin del stream: no hay más solicitudes");
+        assertTrue(responses.indexOf("\"uno\"") < responses.indexOf("\"dos\""));
+        assertTrue(responses.contains("Connection: keep-alive"));
+    }
+
+    @Test
+    @DisplayName("Should close when the client asks for it or the request limit is reached")
+    void shouldCloseWhenRequestedOrLimitReached() throws IOException {
+        assertFalse(handler.process(reader("GET /app/pi HTTP/1.1\r\nConnection: close\r\n\r\n"), out, true));
+        assertFalse(handler.process(reader("GET /app/pi HTTP/1.0\r\n\r\n"), out, true));
+        assertFalse(handler.process(reader("GET /app/pi HTTP/1.1\r\n\r\n"), out, false));
+        assertFalse(buffer.toString(StandardCharsets.UTF_8).contains("Connection: keep-alive"));
+    }
+
+    @Test
+    @DisplayName("Should keep HTTP/1.0 connections open when keep-alive is requested")
+    void shouldKeepHttp10ConnectionsOpenWhenRequested() throws IOException {
+        assertTrue(handler.process(reader("GET /app/pi HTTP/1.0\r\nConnection: keep-alive\r\n\r\n"), out, true));
+        assertTrue(buffer.toString(StandardCharsets.UTF_8).contains("Connection: keep-alive"));
+    }
+
+    @Test
+    @DisplayName("Should consume an unread body before the next pipelined request")
+    void shouldConsumeUnreadBodyBeforeNextRequest() throws IOException {
+        // Given: el handler de /app/hello no lee el body del POST
+        HttpRequestReader in = reader(
+                "POST /app/hello HTTP/1.1\r\nContent-Length: 11\r\n\r\nhello=world" +
+                "GET /app/echo?name=siguiente HTTP/1.1\r\n\r\n");
+
+        // When
+        assertTrue(handler.process(in, out, true));
+        assertTrue(handler.process(in, out, true));
+
+        // Then
+        assertTrue(buffer.toString(StandardCharsets.UTF_8).endsWith("{\"name\": \"siguiente\"}"));
+    }
+
+    @Test
+    @DisplayName("Should gzip large JSON responses only when the client accepts it")
+    void shouldGzipLargeJsonWhenAccepted() throws IOException {
+        // Given
+        String name = "x".repeat(2000);
+        String request = "GET /app/echo?name=" + name + " HTTP/1.1\r\n";
+
+        // When
+        handler.process(reader(request + "Accept-Encoding: gzip;q=0.8, deflate;q=0.5\r\n\r\n"), out, false);
+        byte[] compressed = buffer.toByteArray();
+        buffer.reset();
+        handler.process(reader(request + "Accept-Encoding: gzip;q=0\r\n\r\n"), out, false);
+
+        // Then
+        String headers = new String(compressed, StandardCharsets.ISO_8859_1);
+        int bodyStart = headers.indexOf("\r\n\r\n") + 4;
+        assertTrue(headers.substring(0, bodyStart).contains("Content-Encoding: gzip"));
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(compressed, bodyStart,
+                compressed.length - bodyStart)).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(json.endsWith(name + "\"}"));
+        assertFalse(buffer.toString(StandardCharsets.UTF_8).contains("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Should answer 405 with Allow when the path exists only for other methods")
+    void shouldAnswer405WithAllowForOtherMethods() throws IOException {
+        // When
+        handler.process(reader("DELETE /app/echo HTTP/1.1\r\n\r\n"), out, false);
+        String notAllowed = buffer.toString(StandardCharsets.UTF_8);
+        buffer.reset();
+        handler.process(reader("DELETE /app/missing HTTP/1.1\r\n\r\n"), out, false);
+
+        // Then
+        assertTrue(notAllowed.startsWith("HTTP/1.1 405"));
+        assertTrue(notAllowed.contains("Allow: GET\r\n"));
+        assertTrue(buffer.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 404"));
+    }
+
+    @Test
+    @DisplayName("Should answer 431 and close when the headers exceed the parser limit")
+    void shouldAnswer431WhenHeadersTooLarge() throws IOException {
+        // Given
+        String request = "GET /app/pi HTTP/1.1\r\nCookie: " + "a".repeat(20 * 1024) + "\r\n\r\n";
+
+        // When
+        boolean keepAlive = handler.process(reader(request), out, true);
+
+        // Then
+        assertFalse(keepAlive);
+        String response = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(response.startsWith("HTTP/1.1 431"));
+        assertTrue(response.contains("Connection: close"));
+    }
+
+    @Test
+    @DisplayName("Should pass a chunked body to the handler after answering 100 Continue")
+    void shouldReadChunkedBodyAfterContinue() throws IOException {
+        // Given
+        TrieRouter router = new TrieRouter();
+        router.registerRoute("POST", "/app/upload", (req, resp) -> "recibido: " + req.readBody());
+        HttpRequestHandler uploads = new HttpRequestHandler(router, new SimpleStaticFileHandler(), new ApiRequestHandler());
+        HttpRequestReader in = reader("POST /app/upload HTTP/1.1\r\nTransfer-Encoding: chunked\r\n" +
+                "Expect: 100-continue\r\n\r\n7\r\nñandú\r\n2\r\n!!\r\n0\r\n\r\n" +
+                "GET /app/upload HTTP/1.1\r\n\r\n");
+
+        // When
+        assertTrue(uploads.process(in, out, true));
+        assertTrue(uploads.process(in, out, true));
+
+        // Then
+        String responses = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(responses.startsWith("HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 200"));
+        assertTrue(responses.contains("recibido: ñandú!!"));
+        assertTrue(responses.contains("HTTP/1.1 405"), "La solicitud siguiente empieza tras el body chunked");
+    }
+
+    @Test
+    @DisplayName("Should stream chunked responses and server-sent events, closing streams left open")
+    void shouldStreamChunkedResponsesAndEvents() throws IOException {
+        // Given
+        TrieRouter router = new TrieRouter();
+        router.registerRoute("/app/big", (req, resp) -> {
+            ResponseStream body = resp.startStream("application/json");
+            body.write("[");
+            body.write("\"" + "x".repeat(ResponseStream.BUFFER_SIZE) + "\"");
+            body.write("]");
+            return null;
+        });
+        router.registerRoute("/app/events", (req, resp) -> {
+            try (ServerSentEvents events = resp.startEventStream()) {
+                events.send("1", "tick", "línea uno\nlínea dos");
+            }
+            return null;
+        });
+        handler = new HttpRequestHandler(router, new SimpleStaticFileHandler(), new ApiRequestHandler());
+        HttpRequestReader in = reader("GET /app/big HTTP/1.1\r\n\r\nGET /app/events HTTP/1.1\r\n\r\n");
+
+        // When
+        boolean firstKeepAlive = handler.process(in, out, true);
+        boolean secondKeepAlive = handler.process(in, out, true);
+
+        // Then
+        String responses = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(firstKeepAlive);
+        assertTrue(secondKeepAlive);
+        assertFalse(responses.contains("Content-Length"));
+        assertTrue(responses.startsWith("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"
+                + "Transfer-Encoding: chunked\r\n"));
+        assertTrue(responses.contains("\r\n1\r\n[\r\n2002\r\n\"xxx"), "El bloque grande sale como su propio chunk");
+        assertTrue(responses.contains("\"\r\n1\r\n]\r\n0\r\n\r\nHTTP/1.1 200 OK\r\n"));
+        assertTrue(responses.contains("Content-Type: text/event-stream; charset=utf-8\r\n"));
+        assertTrue(responses.contains("id: 1\nevent: tick\ndata: línea uno\ndata: línea dos\n\n"));
+        assertTrue(responses.endsWith("\r\n0\r\n\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should close the connection when a streaming handler fails after sending headers")
+    void shouldCloseConnectionWhenStreamingHandlerFails() throws IOException {
+        // Given
+        TrieRouter router = new TrieRouter();
+        router.registerRoute("/app/fail", (req, resp) -> {
+            resp.startStream("text/plain").write("parcial");
+            throw new IllegalStateException("falla a mitad de la respuesta");
+        });
+        handler = new HttpRequestHandler(router, new SimpleStaticFileHandler(), new ApiRequestHandler());
+
+        // When
+        boolean keepAlive = handler.process(reader("GET /app/fail HTTP/1.1\r\n\r\n"), out, true);
+        out.flush();
+
+        // Then
+        String response = buffer.toString(StandardCharsets.UTF_8);
+        assertFalse(keepAlive);
+        assertFalse(response.contains("500"));
+        assertFalse(response.endsWith("0\r\n\r\n"), "Sin chunk final el cliente detecta la respuesta incompleta");
+    }
+
+    @Test
+    @DisplayName("Should count requests by route template and status and export them in Prometheus format")
+    void shouldRecordMetricsByRouteAndStatus() throws IOException {
+        // Given
+        TrieRouter router = new TrieRouter();
+        router.registerRoute("/app/users/{id}", (req, resp) -> "{\"id\": \"" + req.getPathParam("id") + "\"}");
+        ServerMetrics metrics = new ServerMetrics();
+        HttpRequestHandler measured = new HttpRequestHandler(router, new SimpleStaticFileHandler(),
+                new ApiRequestHandler(), 5000, 100, metrics);
+        HttpRequestReader in = reader(
+                "GET /app/users/1 HTTP/1.1\r\n\r\n" +
+                "GET /app/users/2 HTTP/1.1\r\n\r\n" +
+                "GET /app/missing HTTP/1.1\r\n\r\n" +
+                "GET /bad path HTTP/1.1\r\n\r\n");
+
+        // When
+        while (measured.process(in, out, true)) {
+            // atiende hasta la solicitud mal formada
+        }
+
+        // Then
+        assertEquals(2, metrics.getRequests("GET", "/app/users/{id}"), "Una serie por plantilla, no por path");
+        assertEquals(1, metrics.getRequests("GET", ServerMetrics.ROUTE_UNMATCHED));
+        assertEquals(2, metrics.getResponses(200));
+        assertEquals(1, metrics.getResponses(404));
+        assertEquals(1, metrics.getResponses(400));
+        String exported = metrics.export();
+        assertTrue(exported.contains("http_server_requests_total{method=\"GET\",route=\"/app/users/{id}\"} 2\n"));
+        assertTrue(exported.contains("http_server_responses_total{code=\"400\"} 1\n"));
+        assertTrue(exported.contains("http_server_parse_duration_seconds_count 3\n"));
+        assertTrue(exported.contains("http_server_route_duration_seconds_bucket{le=\"+Inf\"} 3\n"));
+    }
+
+    @Test
+    @DisplayName("Should record nothing with the disabled metrics")
+    void shouldIgnoreDisabledMetrics() throws IOException {
+        // Given
+        HttpRequestHandler unmeasured = new HttpRequestHandler(new TrieRouter(), new SimpleStaticFileHandler(),
+                new ApiRequestHandler(), 5000, 100, ServerMetrics.DISABLED);
+
+        // When
+        unmeasured.process(reader("GET /app/missing HTTP/1.1\r\n\r\n"), out, true);
+
+        // Then
+        assertEquals(0, ServerMetrics.DISABLED.getResponses(404));
+        assertEquals(0, ServerMetrics.DISABLED.getRequests("GET", ServerMetrics.ROUTE_UNMATCHED));
+    }
+
+    private static HttpRequestReader reader(String raw) {
+        return new HttpRequestReader(new ByteArrayInputStream(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,247 @@
+package escuela.edu.co.routing.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.ResponseStream;
+import escuela.edu.co.framework.Cacheable;
+import escuela.edu.co.framework.GetMapping;
+import escuela.edu.co.framework.MicroSpringBoot;
+import escuela.edu.co.framework.ParameterConverters;
+import escuela.edu.co.framework.PostMapping;
+import escuela.edu.co.framework.RequestParam;
+import escuela.edu.co.utils.HttpOutputStream;
+
+/**
+ * Tests para la caché de respuestas de rutas GET.
+ */
+class ResponseCacheTest {
+
+    private ResponseCache cache;
+    private TrieRouter router;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(1024 * 1024);
+        router = new TrieRouter();
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should replay the encoded response for the same path and query in any order")
+    void shouldReplayResponseForSameQuery() throws Exception {
+        // Given
+        router.registerRoute("/app/sum", cache.cached((req, resp) -> {
+            calls.incrementAndGet();
+            int sum = Integer.parseInt(req.getValues("a")) + Integer.parseInt(req.getValues("b"));
+            return "{\"sum\": " + sum + "}";
+        }, Duration.ofMinutes(1)));
+
+        // When
+        String first = get("/app/sum", true, "a", "1", "b", "2");
+        String reordered = get("/app/sum", false, "b", "2", "a", "1");
+        String other = get("/app/sum", true, "a", "5", "b", "2");
+
+        // Then
+        assertEquals(2, calls.get(), "Los mismos parámetros en otro orden son la misma llave");
+        assertEquals(1, cache.getHits());
+        assertTrue(first.contains("Connection: keep-alive") && first.endsWith("{\"sum\": 3}"));
+        assertTrue(reordered.contains("Connection: close"), "El header Connection es el de cada conexión");
+        assertEquals(first.replace("keep-alive", "close"), reordered);
+        assertTrue(other.endsWith("{\"sum\": 7}"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not store errors and should recompute once the TTL expires")
+    void shouldSkipErrorsAndHonorTtl() throws Exception {
+        // Given
+        router.registerRoute("/app/missing", cache.cached((req, resp) -> {
+            calls.incrementAndGet();
+            resp.send404(req.getPath());
+            return null;
+        }, Duration.ofMinutes(1)));
+        router.registerRoute("/app/now", cache.cached((req, resp) -> "t" + calls.incrementAndGet(), Duration.ofNanos(1)));
+
+        // When
+        String missing = get("/app/missing", true);
+        get("/app/missing", true);
+        String firstNow = get("/app/now", true);
+        String secondNow = get("/app/now", true);
+
+        // Then
+        assertTrue(missing.startsWith("HTTP/1.1 404"));
+        assertTrue(firstNow.endsWith("t3") && secondNow.endsWith("t4"), "Una entrada vencida no se reenvía");
+        assertEquals(0, cache.getHits());
+        assertThrows(IllegalArgumentException.class, () -> cache.cached((req, resp) -> "", Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Should run the handler once when concurrent requests miss the same key")
+    void shouldCollapseConcurrentMisses() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        router.registerRoute("/app/slow", cache.cached((req, resp) -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "{\"value\": 42}";
+        }, Duration.ofMinutes(1)));
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+        try {
+            // When
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                responses.add(pool.submit(() -> get("/app/slow", true)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Then
+            for (Future<String> response : responses) {
+                assertTrue(response.get(5, TimeUnit.SECONDS).endsWith("{\"value\": 42}"));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(clients - 1, cache.getHits());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream straight to the connection without storing the response")
+    void shouldPassStreamingThrough() throws Exception {
+        // Given
+        router.registerRoute("/app/feed", cache.cached((req, resp) -> {
+            calls.incrementAndGet();
+            ResponseStream body = resp.startStream("text/plain");
+            body.write("uno\n");
+            body.flush();
+            body.write("dos\n");
+            return null;
+        }, Duration.ofMinutes(1)));
+
+        // When
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(buffer);
+        out.setKeepAlive(true);
+        out.setChunkedSupported(true);
+        Response response = new Response(out);
+        router.handleRoute("GET", "/app/feed", new Request("GET", "/app/feed", Map.of(), Map.of(), null), response);
+        boolean committed = response.isCommitted();
+        response.finish();
+        get("/app/feed", true);
+
+        // Then
+        String raw = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(committed, "El stream se inicia sobre la respuesta real");
+        assertTrue(raw.contains("Transfer-Encoding: chunked") && raw.contains("uno\n") && raw.endsWith("0\r\n\r\n"));
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should run the handler itself when the shared computation takes too long")
+    void shouldFallBackWhenWaitTimesOut() throws Exception {
+        // Given
+        ResponseCache impatient = new ResponseCache(1024 * 1024, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        router.registerRoute("/app/stuck", impatient.cached((req, resp) -> {
+            if (calls.incrementAndGet() == 1) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return "{\"value\": " + calls.get() + "}";
+        }, Duration.ofMinutes(1)));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            Future<String> leader = pool.submit(() -> get("/app/stuck", true));
+            while (calls.get() == 0) {
+                Thread.sleep(5);
+            }
+            String waiter = get("/app/stuck", true);
+            release.countDown();
+
+            // Then
+            assertTrue(waiter.endsWith("{\"value\": 2}"), "La espera vence y se ejecuta el handler");
+            assertTrue(leader.get(5, TimeUnit.SECONDS).endsWith("{\"value\": 2}"));
+            assertEquals(0, impatient.getHits());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should cache @Cacheable controller methods and reject it on writes")
+    void shouldCacheCacheableControllerMethods() throws Exception {
+        // Given
+        CatalogController controller = new CatalogController();
+        MicroSpringBoot.registerController(router, controller, ParameterConverters.defaults(), cache);
+
+        // When
+        get("/items", true, "page", "2");
+        String cached = get("/items", true, "page", "2");
+
+        // Then
+        assertEquals(1, controller.calls);
+        assertTrue(cached.endsWith("page 2"));
+        assertThrows(IllegalArgumentException.class, () -> MicroSpringBoot.registerController(new TrieRouter(),
+                new CachedWriteController(), ParameterConverters.defaults(), cache));
+    }
+
+    private String get(String path, boolean keepAlive, String... query) throws Exception {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < query.length; i += 2) {
+            params.put(query[i], query[i + 1]);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(buffer);
+        out.setKeepAlive(keepAlive);
+        Request request = new Request("GET", path, params, Map.of(), null);
+        assertTrue(router.handleRoute("GET", path, request, new Response(out)));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    public static class CatalogController {
+        int calls;
+
+        @GetMapping("/items")
+        @Cacheable(ttl = 30)
+        public String items(@RequestParam("page") int page) {
+            calls++;
+            return "page " + page;
+        }
+    }
+
+    public static class CachedWriteController {
+        @PostMapping("/items")
+        @Cacheable(ttl = 30)
+        public String create() {
+            return "creado";
+        }
+    }
+}
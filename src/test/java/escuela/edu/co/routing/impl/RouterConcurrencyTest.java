@@ -0,0 +1,90 @@
+package escuela.edu.co.routing.impl;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+import escuela.edu.co.routing.Router;
+
+/**
+ * Prueba de estrés: lectores concurrentes mientras se registran y eliminan rutas en caliente.
+ */
+class RouterConcurrencyTest {
+
+    private static final int READERS = 8;
+    private static final int WRITES = 500;
+
+    static List<Supplier<Router>> routers() {
+        return List.of(SimpleRouter::new, TrieRouter::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("routers")
+    @DisplayName("Should keep serving stable routes while others are added and removed")
+    void shouldServeStableRoutesDuringHotRegistration(Supplier<Router> factory) throws Exception {
+        // Given
+        Router router = factory.get();
+        router.registerRoute("/app/stable", (req, resp) -> "ok");
+        Response response = new Response(OutputStream.nullOutputStream());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong lookups = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(READERS);
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+
+        // When: los lectores consultan sin pausa mientras un escritor modifica la tabla
+        Future<?>[] results = new Future<?>[READERS];
+        for (int r = 0; r < READERS; r++) {
+            int reader = r;
+            results[r] = readers.submit(() -> {
+                started.countDown();
+                while (writing.get()) {
+                    assertTrue(router.handleRoute("GET", "/app/stable", request("/app/stable"), response),
+                            "La ruta estable nunca debe desaparecer");
+                    String hot = "/app/hot" + (reader % 4);
+                    router.handleRoute("GET", hot, request(hot), response);
+                    lookups.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        started.await();
+        for (int i = 0; i < WRITES; i++) {
+            String hot = "/app/hot" + (i % 4);
+            router.registerRoute(hot, (req, resp) -> "hot");
+            assertTrue(router.removeRoute("GET", hot));
+        }
+        router.registerRoute("/app/final", (req, resp) -> "final");
+        writing.set(false);
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        readers.shutdown();
+
+        // Then
+        assertTrue(lookups.get() > 0);
+        assertTrue(router.handleRoute("GET", "/app/final", request("/app/final"), response));
+        assertFalse(router.handleRoute("GET", "/app/hot0", request("/app/hot0"), response));
+        assertEquals(1, router.allowedMethods("/app/stable").size());
+    }
+
+    private static Request request(String path) {
+        return new Request("GET", path, new HashMap<>(), new HashMap<>(), null);
+    }
+}
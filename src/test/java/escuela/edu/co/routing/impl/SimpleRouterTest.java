@@ -2,6 +2,7 @@ package escuela.edu.co.routing.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.util.HashMap;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -96,6 +97,27 @@ class SimpleRouterTest {
         assertFalse(handled);
     }
     
+    @Test
+    @DisplayName("Should keep a separate route table per HTTP method")
+    void shouldKeepSeparateTablePerMethod() throws Exception {
+        // Given
+        String path = "/items";
+        router.registerRoute(path, (req, resp) -> "listado");
+        router.registerRoute("POST", path, (req, resp) -> "creado");
+        
+        Request request = new Request("POST", path, new HashMap<>(), new HashMap<>(), null);
+        
+        // When
+        boolean handled = router.handleRoute("POST", path, request, response);
+        
+        // Then
+        assertTrue(handled);
+        assertTrue(outputStream.toString().contains("creado"));
+        assertEquals(Set.of("GET", "POST"), router.allowedMethods(path));
+        assertTrue(router.removeRoute("POST", path));
+        assertEquals(Set.of("GET"), router.allowedMethods(path));
+    }
+    
     @Test
     @DisplayName("Should throw exception for null path")
     void shouldThrowExceptionForNullPath() {
@@ -137,4 +159,23 @@ class SimpleRouterTest {
         assertTrue(actualResponse.contains("application/json"));
         assertTrue(actualResponse.contains(jsonResponse));
     }
+    
+    @Test
+    @DisplayName("Should send results with the declared content type instead of sniffing them")
+    void shouldUseDeclaredContentType() throws Exception {
+        // Given
+        router.registerRoute("GET", "/csv", "text/csv; charset=utf-8", (req, resp) -> "[no es json]");
+        Request request = new Request("GET", "/csv", new HashMap<>(), new HashMap<>(), null);
+        
+        // When
+        boolean handled = router.handleRoute("GET", "/csv", request, response);
+        
+        // Then
+        assertTrue(handled);
+        String actualResponse = outputStream.toString();
+        assertTrue(actualResponse.startsWith("HTTP/1.1 200 OK\r\nContent-Type: text/csv; charset=utf-8\r\n"));
+        assertTrue(actualResponse.endsWith("\r\n\r\n[no es json]"));
+        assertThrows(IllegalArgumentException.class,
+                () -> router.registerRoute("GET", "/csv", " ", (req, resp) -> ""));
+    }
 }
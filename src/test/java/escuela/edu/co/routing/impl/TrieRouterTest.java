@@ -0,0 +1,140 @@
+package escuela.edu.co.routing.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.Request;
+import escuela.edu.co.Response;
+
+/**
+ * Tests para TrieRouter.
+ */
+class TrieRouterTest {
+
+    private TrieRouter router;
+    private ByteArrayOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() {
+        router = new TrieRouter();
+        outputStream = new ByteArrayOutputStream();
+    }
+
+    @Test
+    @DisplayName("Should match path templates and expose their variables")
+    void shouldMatchTemplatesAndExposeVariables() throws Exception {
+        // Given
+        router.registerRoute("/app/users/{id}", (req, resp) -> "user " + req.getPathParam("id"));
+        router.registerRoute("/app/users/{id}/posts/{postId}",
+                (req, resp) -> req.getPathParam("id") + ":" + req.getPathParam("postId"));
+
+        // When
+        Request request = request("GET", "/app/users/42/posts/7");
+        boolean handled = router.handleRoute("GET", "/app/users/42/posts/7", request, new Response(outputStream));
+
+        // Then
+        assertTrue(handled);
+        assertTrue(body().endsWith("42:7"));
+        assertFalse(router.handleRoute("GET", "/app/users/", request("GET", "/app/users/"), new Response(outputStream)));
+    }
+
+    @Test
+    @DisplayName("Should prefer static segments over variables and variables over wildcards")
+    void shouldPreferStaticThenVariableThenWildcard() throws Exception {
+        // Given
+        router.registerRoute("/app/users/me", (req, resp) -> "static");
+        router.registerRoute("/app/users/{id}", (req, resp) -> "param " + req.getPathParam("id"));
+        router.registerRoute("/app/*", (req, resp) -> "wildcard " + req.getPathParam("*"));
+
+        // When / Then
+        assertEquals("static", handle("/app/users/me"));
+        assertEquals("param mem", handle("/app/users/mem"));
+        assertEquals("wildcard users/42/extra", handle("/app/users/42/extra"));
+        assertEquals("wildcard ", handle("/app/"));
+    }
+
+    @Test
+    @DisplayName("Should keep a handler table per method and report the allowed methods")
+    void shouldDispatchPerMethodAndReportAllowedMethods() throws Exception {
+        // Given
+        router.registerRoute("GET", "/app/items/{id}", (req, resp) -> "get");
+        router.registerRoute("DELETE", "/app/items/{id}", (req, resp) -> "delete");
+
+        // When
+        boolean deleted = router.handleRoute("DELETE", "/app/items/1", request("DELETE", "/app/items/1"),
+                new Response(outputStream));
+        boolean posted = router.handleRoute("POST", "/app/items/1", request("POST", "/app/items/1"),
+                new Response(outputStream));
+
+        // Then
+        assertTrue(deleted);
+        assertTrue(body().endsWith("delete"));
+        assertFalse(posted);
+        assertEquals(Set.of("GET", "DELETE"), router.allowedMethods("/app/items/1"));
+        assertTrue(router.allowedMethods("/app/other").isEmpty(), "Sin coincidencia: 404, no 405");
+    }
+
+    @Test
+    @DisplayName("Should fall back to a variable segment when the static match lacks the method")
+    void shouldBacktrackByMethod() throws Exception {
+        // Given
+        router.registerRoute("GET", "/users/{id}", (req, resp) -> "user " + req.getPathParam("id"));
+        router.registerRoute("POST", "/users/new", (req, resp) -> "created");
+        router.registerRoute("DELETE", "/users/*", (req, resp) -> "deleted");
+
+        // When / Then
+        assertEquals("user new", handle("/users/new"));
+        assertEquals(Set.of("GET", "POST", "DELETE"), router.allowedMethods("/users/new"));
+        assertEquals(Set.of("GET", "DELETE"), router.allowedMethods("/users/7"));
+    }
+
+    @Test
+    @DisplayName("Should replace a route registered again with the same method and template")
+    void shouldReplaceRegisteredRoute() throws Exception {
+        // Given
+        router.registerRoute("/app/a/{id}", (req, resp) -> "a " + req.getPathParam("id"));
+        router.registerRoute("POST", "/app/a/{id}", (req, resp) -> "post");
+
+        // When
+        router.registerRoute("/app/a/{name}", (req, resp) -> "b " + req.getPathParam("name"));
+
+        // Then
+        assertEquals("b 1", handle("/app/a/1"));
+        assertEquals(Set.of("GET", "POST"), router.allowedMethods("/app/a/1"));
+        assertTrue(router.removeRoute("GET", "/app/a/{name}"));
+        assertFalse(router.removeRoute("GET", "/app/a/{id}"), "La plantilla anterior ya no está registrada");
+    }
+
+    @Test
+    @DisplayName("Should reject invalid templates")
+    void shouldRejectInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> router.registerRoute("/app/{id}.json", (req, resp) -> "c"));
+        assertThrows(IllegalArgumentException.class, () -> router.registerRoute("/app/*/x", (req, resp) -> "d"));
+        assertThrows(IllegalArgumentException.class, () -> router.registerRoute("app", (req, resp) -> "e"));
+    }
+
+    private String handle(String path) throws Exception {
+        outputStream.reset();
+        assertTrue(router.handleRoute("GET", path, request("GET", path), new Response(outputStream)));
+        String response = body();
+        return response.substring(response.indexOf("\r\n\r\n") + 4);
+    }
+
+    private String body() {
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Request request(String method, String path) {
+        return new Request(method, path, new HashMap<>(), new HashMap<>(), null);
+    }
+}
@@ -0,0 +1,209 @@
+package escuela.edu.co.server.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import escuela.edu.co.ResponseStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.api.ApiRequestHandler;
+import escuela.edu.co.routing.impl.SimpleRouter;
+import escuela.edu.co.staticfiles.impl.SimpleStaticFileHandler;
+
+/**
+ * Tests para el motor no bloqueante NioHttpServer.
+ */
+class NioHttpServerTest {
+
+    private static final int TEST_PORT = 38102;
+
+    private static final int FLOOD_CHUNKS = 1024;
+    private static final int BIG_BYTES = 16 * 1024 * 1024;
+    private static final int FEED_CHUNKS = 8;
+
+    private NioHttpServer server;
+    private Thread serverThread;
+    private final CountDownLatch floodAborted = new CountDownLatch(1);
+    private final CountDownLatch feedCompleted = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        SimpleRouter router = new SimpleRouter();
+        router.registerRoute("/app/echo", (req, resp) -> "{\"name\": \"" + req.getValues("name") + "\"}");
+        router.registerRoute("/app/flood", (req, resp) -> {
+            ResponseStream body = resp.startStream("application/octet-stream");
+            byte[] chunk = new byte[64 * 1024];
+            try {
+                for (int i = 0; i < FLOOD_CHUNKS; i++) {
+                    body.write(chunk);
+                    body.flush();
+                }
+            } catch (IOException e) {
+                floodAborted.countDown();
+                throw e;
+            }
+            return null;
+        });
+        router.registerRoute("/app/big", (req, resp) -> {
+            resp.sendWithContentType(new byte[BIG_BYTES], "application/octet-stream");
+            return null;
+        });
+        router.registerRoute("/app/feed", (req, resp) -> {
+            ResponseStream body = resp.startStream("application/octet-stream");
+            byte[] chunk = new byte[64 * 1024];
+            for (int i = 0; i < FEED_CHUNKS; i++) {
+                body.write(chunk);
+                body.flush();
+            }
+            feedCompleted.countDown();
+            return null;
+        });
+        server = new NioHttpServer(TEST_PORT, router, new SimpleStaticFileHandler(), new ApiRequestHandler(), 2);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!server.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop();
+        // El event loop libera el puerto al terminar
+        serverThread.join(5000);
+    }
+
+    @Test
+    @DisplayName("Should dispatch registered routes through the shared Router")
+    void shouldDispatchRegisteredRoutes() throws IOException {
+        // When
+        String response = get("/app/echo?name=nio");
+
+        // Then
+        assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+        assertTrue(response.contains("application/json"));
+        assertTrue(response.endsWith("{\"name\": \"nio\"}"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to predefined API endpoints and static files")
+    void shouldFallBackToApiAndStaticFiles() throws IOException {
+        assertTrue(get("/app/pi").contains("\"pi\""));
+        assertTrue(get("/").contains("<!DOCTYPE html>"));
+        assertTrue(get("/missing.txt").startsWith("HTTP/1.1 404"));
+    }
+
+    @Test
+    @DisplayName("Should serve many concurrent connections with two event loops")
+    void shouldServeManyConcurrentConnections() throws Exception {
+        // Given
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        List<Future<String>> responses = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            int id = i;
+            responses.add(clients.submit(() -> get("/app/echo?name=" + id)));
+        }
+
+        // Then
+        for (int i = 0; i < responses.size(); i++) {
+            assertTrue(responses.get(i).get().endsWith("{\"name\": \"" + i + "\"}"));
+        }
+        clients.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests in order on a persistent connection")
+    void shouldAnswerPipelinedRequestsInOrder() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(5000);
+            // When: dos solicitudes en una sola escritura, la segunda cierra la conexión
+            socket.getOutputStream().write((
+                    "GET /app/echo?name=uno HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+                    "GET /app/echo?name=dos HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            // Then
+            String responses = new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            int first = responses.indexOf("{\"name\": \"uno\"}");
+            int second = responses.indexOf("{\"name\": \"dos\"}");
+            assertTrue(first > 0 && second > first);
+            assertTrue(responses.contains("Connection: keep-alive"));
+            assertTrue(responses.endsWith("{\"name\": \"dos\"}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should abort a stream instead of queueing it when the client does not read")
+    void shouldAbortStreamForSlowClient() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setReceiveBufferSize(16 * 1024);
+            socket.setSoTimeout(5000);
+            // When: el cliente pide 64 MB y no lee
+            socket.getOutputStream().write("GET /app/flood HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            // Then: el handler recibe la IOException y la conexión se cierra sin enviar el resto
+            assertTrue(floodAborted.await(5, TimeUnit.SECONDS));
+            long received = socket.getInputStream().readAllBytes().length;
+            assertTrue(received < FLOOD_CHUNKS * 64L * 1024, "Recibidos " + received);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not count earlier pipelined responses against a stream's queue limit")
+    void shouldLimitEachStreamByItsOwnBacklog() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setReceiveBufferSize(16 * 1024);
+            socket.setSoTimeout(5000);
+            // When: 16 MB quedan en cola sin leer y detrás llega un streaming de 512 KB
+            socket.getOutputStream().write(("GET /app/big HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /app/feed HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            // Then: el streaming termina y ambas respuestas llegan completas
+            assertTrue(feedCompleted.await(5, TimeUnit.SECONDS));
+            byte[] received = socket.getInputStream().readAllBytes();
+            String tail = new String(received, received.length - 5, 5, StandardCharsets.US_ASCII);
+            assertTrue(received.length > BIG_BYTES + FEED_CHUNKS * 64 * 1024, "Recibidos " + received.length);
+            assertTrue(tail.equals("0\r\n\r\n"), "El stream termina con el chunk final");
+        }
+    }
+
+    private static String get(String target) throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            // Se envía en dos partes para ejercitar la lectura incremental
+            out.write(("GET " + target + " HTTP/1.1\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            out.write("Host: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package escuela.edu.co.server.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import escuela.edu.co.request.RequestHandler;
+import escuela.edu.co.server.ServerConfig;
+
+/**
+ * Tests para el modo concurrente de SimpleHttpServer.
+ */
+class SimpleHttpServerTest {
+
+    private static final int TEST_PORT = 38101;
+
+    private SimpleHttpServer server;
+    private final List<Socket> clients = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve other clients while one connection is stalled")
+    void shouldServeOtherClientsWhileOneConnectionIsStalled() throws Exception {
+        // Given: un handler que bloquea hasta que el cliente envía una línea
+        server = startServer(ServerConfig.pooled(2, 4), blockingUntilLineHandler());
+        Socket slowClient = connect();
+
+        // When: otro cliente envía su línea
+        Socket fastClient = connect();
+        fastClient.getOutputStream().write("ping\n".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals("HTTP/1.1 200 OK", readStatusLine(fastClient));
+        assertTrue(slowClient.isConnected());
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when pool and queue are full")
+    void shouldRejectWith503WhenPoolAndQueueAreFull() throws Exception {
+        // Given: un worker y una posición en cola
+        CountDownLatch started = new CountDownLatch(1);
+        server = startServer(ServerConfig.pooled(1, 1), socket -> {
+            started.countDown();
+            blockingUntilLineHandler().handleRequest(socket);
+        });
+        connect();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        connect();
+
+        // When: llega una tercera conexión
+        Socket rejected = connect();
+
+        // Then
+        assertEquals("HTTP/1.1 503 Service Unavailable", readStatusLine(rejected));
+    }
+
+    @Test
+    @DisplayName("Should close a rejected connection gracefully after the client sent its request")
+    void shouldCloseRejectedConnectionGracefully() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        server = startServer(ServerConfig.pooled(1, 1), socket -> {
+            started.countDown();
+            blockingUntilLineHandler().handleRequest(socket);
+        });
+        connect();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        connect();
+
+        // When: la conexión rechazada envía su solicitud sin esperar la respuesta
+        Socket rejected = connect();
+        rejected.getOutputStream().write("GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+        String response = new String(rejected.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        // Then: termina con FIN y no con un RST que haga perder el 503
+        assertTrue(response.startsWith("HTTP/1.1 503 Service Unavailable"), response);
+    }
+
+    @Test
+    @DisplayName("Should serve each connection on a virtual thread on Java 21+")
+    void shouldServeEachConnectionOnVirtualThread() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "Requiere Java 21+");
+        // Given
+        server = startServer(ServerConfig.virtualThreads(), blockingUntilLineHandler());
+        connect();
+
+        // When
+        Socket client = connect();
+        client.getOutputStream().write("ping\n".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals("HTTP/1.1 200 OK", readStatusLine(client));
+    }
+
+    @Test
+    @DisplayName("Should fail fast when virtual threads are not supported")
+    void shouldFailFastWhenVirtualThreadsAreNotSupported() {
+        assumeFalse(VirtualThreads.isSupported(), "La JVM soporta hilos virtuales");
+        // Given
+        SimpleHttpServer httpServer = new SimpleHttpServer(TEST_PORT, blockingUntilLineHandler(),
+                ServerConfig.virtualThreads());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, httpServer::start);
+        assertFalse(httpServer.isRunning());
+    }
+
+    private SimpleHttpServer startServer(ServerConfig config, RequestHandler handler) throws InterruptedException {
+        SimpleHttpServer httpServer = new SimpleHttpServer(TEST_PORT, handler, config);
+        Thread serverThread = new Thread(() -> {
+            try {
+                httpServer.start();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!httpServer.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return httpServer;
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", TEST_PORT);
+        socket.setSoTimeout(5000);
+        clients.add(socket);
+        return socket;
+    }
+
+    private static String readStatusLine(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        return in.readLine();
+    }
+
+    private static RequestHandler blockingUntilLineHandler() {
+        return socket -> {
+            try (Socket client = socket) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                in.readLine();
+                OutputStream out = client.getOutputStream();
+                out.write("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import escuela.edu.co.utils.ContentEncoding;
+import escuela.edu.co.utils.HttpOutputStream;
+
+/**
+ * Tests para la caché en memoria de archivos estáticos.
+ */
+class CachingStaticFileHandlerTest {
+
+    @TempDir
+    Path staticRoot;
+
+    private SimpleStaticFileHandler delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new SimpleStaticFileHandler();
+        delegate.setStaticRoot(staticRoot.toString());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated hits from memory until the file mtime changes")
+    void shouldServeFromMemoryUntilMtimeChanges() throws IOException {
+        // Given
+        Path file = staticRoot.resolve("app.js");
+        Files.writeString(file, "console.log('v1');");
+        FileTime original = Files.getLastModifiedTime(file);
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 1024, 1024);
+        serve(handler, "/app.js");
+
+        // When: mismo tamaño y misma fecha, el contenido en disco no se vuelve a leer
+        Files.writeString(file, "console.log('v2');");
+        Files.setLastModifiedTime(file, original);
+        String cached = serve(handler, "/app.js");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(original.toMillis() + 2000));
+        String reloaded = serve(handler, "/app.js");
+
+        // Then
+        assertTrue(cached.endsWith("console.log('v1');"));
+        assertTrue(reloaded.endsWith("console.log('v2');"));
+        assertTrue(reloaded.contains("Content-Length: 18\r\n"));
+        assertTrue(reloaded.contains("Connection: keep-alive\r\n\r\n"));
+        assertEquals(1, handler.size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used file when the byte budget is exceeded")
+    void shouldEvictLeastRecentlyUsedFile() throws IOException {
+        // Given: presupuesto para dos archivos de 100 bytes
+        for (String name : new String[] {"a.txt", "b.txt", "c.txt"}) {
+            Files.write(staticRoot.resolve(name), new byte[100]);
+        }
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 250, 250);
+        serve(handler, "/a.txt");
+        serve(handler, "/b.txt");
+        serve(handler, "/a.txt");
+
+        // When
+        serve(handler, "/c.txt");
+        Files.write(staticRoot.resolve("a.txt"), new byte[100]);
+        Files.write(staticRoot.resolve("b.txt"), new byte[] {1});
+
+        // Then: b.txt era el menos usado y se lee de nuevo desde disco
+        assertEquals(2, handler.size());
+        assertEquals(200, handler.getCachedBytes());
+        assertTrue(serve(handler, "/b.txt").contains("Content-Length: 1\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should delegate files larger than the entry limit and forget deleted files")
+    void shouldDelegateLargeFilesAndForgetDeletedOnes() throws IOException {
+        // Given
+        Files.write(staticRoot.resolve("big.bin"), new byte[2048]);
+        Files.writeString(staticRoot.resolve("index.html"), "<h1>hola</h1>");
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 4096, 1024);
+
+        // When
+        String big = serve(handler, "/big.bin");
+        serve(handler, "/");
+        int cachedBeforeDelete = handler.size();
+        Files.delete(staticRoot.resolve("index.html"));
+
+        // Then
+        assertTrue(big.contains("Content-Length: 2048\r\n"));
+        assertEquals(1, cachedBeforeDelete);
+        assertFalse(handler.serveStaticFile("/", new ByteArrayOutputStream()));
+        assertEquals(0, handler.size());
+    }
+
+    @Test
+    @DisplayName("Should compress text files once per negotiated encoding")
+    void shouldCompressTextFilesOncePerEncoding() throws IOException {
+        // Given
+        String script = "console.log('hola mundo');\n".repeat(200);
+        Files.writeString(staticRoot.resolve("app.js"), script);
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 1 << 20, 1 << 20);
+
+        // When
+        byte[] gzip = serveRaw(handler, "/app.js", "gzip, deflate, br");
+        byte[] deflate = serveRaw(handler, "/app.js", "deflate");
+        byte[] identity = serveRaw(handler, "/app.js", null);
+        serveRaw(handler, "/app.js", "gzip");
+
+        // Then
+        String gzipHeaders = headers(gzip);
+        assertTrue(gzipHeaders.contains("Content-Encoding: gzip\r\n"));
+        assertTrue(gzipHeaders.contains("Vary: Accept-Encoding\r\n"));
+        assertEquals(script, new String(new GZIPInputStream(new ByteArrayInputStream(body(gzip))).readAllBytes(),
+                StandardCharsets.UTF_8));
+        assertEquals(script, new String(new InflaterInputStream(new ByteArrayInputStream(body(deflate))).readAllBytes(),
+                StandardCharsets.UTF_8));
+        assertFalse(headers(identity).contains("Content-Encoding"));
+        assertEquals(3, handler.size(), "Identidad, gzip y deflate");
+    }
+
+    @Test
+    @DisplayName("Should not store a second copy when compression does not shrink the file")
+    void shouldNotStoreIncompressibleVariant() throws IOException {
+        // Given: bytes aleatorios con un tipo de texto, que gzip no logra reducir
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        Files.write(staticRoot.resolve("noise.txt"), noise);
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 1 << 20, 1 << 20);
+
+        // When
+        byte[] first = serveRaw(handler, "/noise.txt", "gzip");
+        byte[] second = serveRaw(handler, "/noise.txt", "gzip");
+
+        // Then
+        assertFalse(headers(first).contains("Content-Encoding"));
+        assertArrayEquals(first, second);
+        assertEquals(1, handler.size());
+        assertEquals(4096, handler.getCachedBytes(), "El contenido se cuenta una sola vez");
+    }
+
+    @Test
+    @DisplayName("Should prefer an up-to-date precompressed .gz sibling for gzip clients")
+    void shouldPreferPrecompressedSibling() throws IOException {
+        // Given: el .gz contiene un marcador distinto para distinguirlo de la compresión en memoria
+        Files.writeString(staticRoot.resolve("style.css"), "body { color: red; }\n".repeat(100));
+        byte[] precompressed = ContentEncoding.compress("/* precomprimido */".getBytes(StandardCharsets.UTF_8),
+                ContentEncoding.GZIP);
+        Path sibling = Files.write(staticRoot.resolve("style.css.gz"), precompressed);
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+
+        // When
+        byte[] cached = serveRaw(new CachingStaticFileHandler(delegate, 1 << 20, 1 << 20), "/style.css", "gzip");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(buffer);
+        out.setAcceptEncoding("gzip");
+        delegate.serveStaticFile("/style.css", out);
+
+        // Then: ambos manejadores envían el archivo .gz tal cual
+        assertArrayEquals(precompressed, body(cached));
+        assertArrayEquals(precompressed, body(buffer.toByteArray()));
+        assertTrue(headers(buffer.toByteArray()).contains("Content-Encoding: gzip\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should reload the gzip variant when only the .gz sibling changes")
+    void shouldReloadVariantWhenSiblingChanges() throws IOException {
+        // Given
+        Files.writeString(staticRoot.resolve("style.css"), "body { color: red; }\n".repeat(100));
+        Path sibling = staticRoot.resolve("style.css.gz");
+        long later = System.currentTimeMillis() + 2000;
+        Files.write(sibling, ContentEncoding.compress("/* v1 */".getBytes(StandardCharsets.UTF_8), ContentEncoding.GZIP));
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(later));
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 1 << 20, 1 << 20);
+        byte[] first = serveRaw(handler, "/style.css", "gzip");
+
+        // When: se regenera el .gz sin tocar el original
+        byte[] regenerated = ContentEncoding.compress("/* versión 2 */".getBytes(StandardCharsets.UTF_8),
+                ContentEncoding.GZIP);
+        Files.write(sibling, regenerated);
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(later + 2000));
+        byte[] second = serveRaw(handler, "/style.css", "gzip");
+
+        // Then
+        assertFalse(header(headers(first), "ETag").equals(header(headers(second), "ETag")));
+        assertArrayEquals(regenerated, body(second));
+    }
+
+    @Test
+    @DisplayName("Should revalidate each cached variant against its own ETag")
+    void shouldRevalidateEachVariantAgainstItsOwnTag() throws IOException {
+        // Given
+        Files.writeString(staticRoot.resolve("app.js"), "console.log('hola mundo');\n".repeat(200));
+        CachingStaticFileHandler handler = new CachingStaticFileHandler(delegate, 1 << 20, 1 << 20);
+        String identityTag = header(headers(serveRaw(handler, "/app.js", null)), "ETag");
+        String gzipTag = header(headers(serveRaw(handler, "/app.js", "gzip")), "ETag");
+
+        // When
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(buffer);
+        out.setAcceptEncoding("gzip");
+        handler.serveStaticFile("/app.js", Map.of("if-none-match", gzipTag), out);
+        String revalidated = buffer.toString(StandardCharsets.ISO_8859_1);
+        buffer.reset();
+        handler.serveStaticFile("/app.js", Map.of("if-none-match", identityTag), out);
+
+        // Then: el ETag de la versión sin comprimir no valida la variante gzip
+        assertFalse(identityTag.equals(gzipTag));
+        assertTrue(revalidated.startsWith("HTTP/1.1 304 Not Modified"));
+        assertTrue(revalidated.contains("Cache-Control: public, max-age=86400\r\n"));
+        assertTrue(buffer.toString(StandardCharsets.ISO_8859_1).startsWith("HTTP/1.1 200 OK"));
+    }
+
+    private static String header(String headers, String name) {
+        int start = headers.indexOf(name + ": ") + name.length() + 2;
+        return headers.substring(start, headers.indexOf("\r\n", start));
+    }
+
+    private static String serve(CachingStaticFileHandler handler, String path) throws IOException {
+        return new String(serveRaw(handler, path, null), StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] serveRaw(CachingStaticFileHandler handler, String path, String acceptEncoding)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(buffer);
+        out.setKeepAlive(true);
+        out.setAcceptEncoding(acceptEncoding);
+        assertTrue(handler.serveStaticFile(path, out));
+        return buffer.toByteArray();
+    }
+
+    private static String headers(byte[] response) {
+        String text = new String(response, StandardCharsets.ISO_8859_1);
+        return text.substring(0, text.indexOf("\r\n\r\n") + 4);
+    }
+
+    private static byte[] body(byte[] response) {
+        return Arrays.copyOfRange(response, headers(response).length(), response.length);
+    }
+}
@@ -0,0 +1,202 @@
+package escuela.edu.co.staticfiles.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import escuela.edu.co.utils.HttpOutputStream;
+
+/**
+ * Tests para SimpleStaticFileHandler.
+ */
+class SimpleStaticFileHandlerTest {
+
+    @TempDir
+    Path staticRoot;
+
+    private SimpleStaticFileHandler handler;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[300_000];
+        new Random(42).nextBytes(content);
+        Files.write(staticRoot.resolve("big.bin"), content);
+        handler = new SimpleStaticFileHandler();
+        handler.setStaticRoot(staticRoot.toString());
+    }
+
+    @Test
+    @DisplayName("Should stream the file body when the output has no channel")
+    void shouldStreamFileBodyWithoutChannel() throws IOException {
+        // Given
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        // When
+        boolean served = handler.serveStaticFile("/big.bin", new HttpOutputStream(buffer));
+
+        // Then
+        assertTrue(served);
+        assertArrayEquals(content, body(buffer.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Should send the file body with transferTo over a socket channel")
+    void shouldSendFileBodyWithTransferTo() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress("localhost", 0));
+             SocketChannel client = SocketChannel.open(server.getLocalAddress());
+             SocketChannel accepted = server.accept()) {
+            // Given: el cliente lee todo mientras el servidor escribe
+            CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return Channels.newInputStream(client).readAllBytes();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            HttpOutputStream out = new HttpOutputStream(Channels.newOutputStream(accepted), accepted);
+
+            // When
+            handler.serveStaticFile("/big.bin", out);
+            accepted.shutdownOutput();
+
+            // Then
+            assertArrayEquals(content, body(received.get()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not serve missing files or directories")
+    void shouldNotServeMissingFilesOrDirectories() throws IOException {
+        Files.createDirectory(staticRoot.resolve("dir"));
+        assertFalse(handler.serveStaticFile("/missing.txt", new ByteArrayOutputStream()));
+        assertFalse(handler.serveStaticFile("/dir", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 when the client already has the current version")
+    void shouldAnswerNotModifiedForCurrentVersion() throws IOException {
+        // Given
+        Files.writeString(staticRoot.resolve("index.html"), "<h1>hola</h1>");
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        handler.serveStaticFile("/", Map.of(), new HttpOutputStream(first));
+        String headers = first.toString(StandardCharsets.ISO_8859_1);
+        String entityTag = header(headers, "ETag");
+        String lastModified = header(headers, "Last-Modified");
+
+        // When
+        ByteArrayOutputStream byTag = new ByteArrayOutputStream();
+        handler.serveStaticFile("/", Map.of("if-none-match", "\"otro\", " + entityTag), new HttpOutputStream(byTag));
+        ByteArrayOutputStream byDate = new ByteArrayOutputStream();
+        handler.serveStaticFile("/", Map.of("if-modified-since", lastModified), new HttpOutputStream(byDate));
+        ByteArrayOutputStream staleTag = new ByteArrayOutputStream();
+        handler.serveStaticFile("/", Map.of("if-none-match", "\"otro\"", "if-modified-since", lastModified),
+                new HttpOutputStream(staleTag));
+
+        // Then
+        assertEquals("no-cache", header(headers, "Cache-Control"));
+        assertTrue(byTag.toString(StandardCharsets.ISO_8859_1).startsWith("HTTP/1.1 304 Not Modified"));
+        assertTrue(byTag.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n"), "Un 304 no lleva body");
+        assertTrue(byTag.toString(StandardCharsets.ISO_8859_1).contains("ETag: " + entityTag));
+        assertTrue(byDate.toString(StandardCharsets.ISO_8859_1).startsWith("HTTP/1.1 304"));
+        assertTrue(staleTag.toString(StandardCharsets.ISO_8859_1).startsWith("HTTP/1.1 200"),
+                "If-None-Match tiene prioridad sobre If-Modified-Since");
+    }
+
+    @Test
+    @DisplayName("Should answer single and multipart byte ranges with 206 Partial Content")
+    void shouldAnswerSingleAndMultipartRanges() throws IOException {
+        // When
+        byte[] single = serve("/big.bin", Map.of("range", "bytes=100-199"));
+        byte[] suffix = serve("/big.bin", Map.of("range", "bytes=-50"));
+        String multipart = new String(serve("/big.bin", Map.of("range", "bytes=0-9, 299990-")),
+                StandardCharsets.ISO_8859_1);
+
+        // Then
+        String singleHeaders = new String(single, StandardCharsets.ISO_8859_1);
+        assertTrue(singleHeaders.startsWith("HTTP/1.1 206 Partial Content"));
+        assertEquals("bytes 100-199/300000", header(singleHeaders, "Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), body(single));
+        assertArrayEquals(Arrays.copyOfRange(content, 299_950, 300_000), body(suffix));
+        assertTrue(header(multipart, "Content-Type").startsWith("multipart/byteranges; boundary="));
+        assertTrue(multipart.contains("Content-Range: bytes 0-9/300000\r\n"));
+        assertTrue(multipart.contains("Content-Range: bytes 299990-299999/300000\r\n"));
+        int declared = Integer.parseInt(header(multipart, "Content-Length"));
+        assertEquals(declared, multipart.length() - multipart.indexOf("\r\n\r\n") - 4);
+    }
+
+    @Test
+    @DisplayName("Should ignore stale If-Range and reject unsatisfiable ranges with 416")
+    void shouldHandleIfRangeAndUnsatisfiableRanges() throws IOException {
+        // When
+        String stale = new String(serve("/big.bin", Map.of("range", "bytes=0-9", "if-range", "\"viejo\"")),
+                StandardCharsets.ISO_8859_1);
+        String unsatisfiable = new String(serve("/big.bin", Map.of("range", "bytes=400000-")),
+                StandardCharsets.ISO_8859_1);
+
+        // Then
+        assertTrue(stale.startsWith("HTTP/1.1 200 OK"));
+        assertTrue(stale.contains("Accept-Ranges: bytes\r\n"));
+        assertTrue(unsatisfiable.startsWith("HTTP/1.1 416 Range Not Satisfiable"));
+        assertEquals("bytes */300000", header(unsatisfiable, "Content-Range"));
+    }
+
+    @Test
+    @DisplayName("Should derive the ETag from the file version and honor it in If-Range")
+    void shouldDeriveEntityTagFromFileVersion() throws IOException {
+        // Given
+        Path file = staticRoot.resolve("big.bin");
+        String entityTag = header(new String(serve("/big.bin", Map.of("range", "bytes=0-0")),
+                StandardCharsets.ISO_8859_1), "ETag");
+
+        // When
+        String resumed = new String(serve("/big.bin", Map.of("range", "bytes=0-9", "if-range", entityTag)),
+                StandardCharsets.ISO_8859_1);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+        String rewritten = new String(serve("/big.bin", Map.of("range", "bytes=0-9", "if-range", entityTag)),
+                StandardCharsets.ISO_8859_1);
+
+        // Then: mismo tamaño, otra fecha: el ETag cambia y el rango ya no se respeta
+        assertTrue(resumed.startsWith("HTTP/1.1 206 Partial Content"));
+        assertEquals(entityTag, header(resumed, "ETag"));
+        assertTrue(rewritten.startsWith("HTTP/1.1 200 OK"));
+        assertFalse(entityTag.equals(header(rewritten, "ETag")));
+    }
+
+    private byte[] serve(String path, Map<String, String> headers) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        assertTrue(handler.serveStaticFile(path, headers, new HttpOutputStream(buffer)));
+        return buffer.toByteArray();
+    }
+
+    private static String header(String response, String name) {
+        int start = response.indexOf(name + ": ") + name.length() + 2;
+        return response.substring(start, response.indexOf("\r\n", start));
+    }
+
+    private static byte[] body(byte[] response) {
+        String text = new String(response, StandardCharsets.ISO_8859_1);
+        int start = text.indexOf("\r\n\r\n") + 4;
+        return Arrays.copyOfRange(response, start, response.length);
+    }
+}
@@ -0,0 +1,115 @@
+package escuela.edu.co.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import escuela.edu.co.RequestBody;
+
+/**
+ * Tests para el decoder del body con Content-Length y chunked.
+ */
+class HttpBodyDecoderTest {
+
+    @Test
+    @DisplayName("Should decode a chunked body delivered one byte at a time and stop at its end")
+    void shouldDecodeChunkedBodyByteByByte() throws IOException {
+        // Given
+        HttpBodyDecoder decoder = new HttpBodyDecoder();
+        decoder.start(head("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"));
+        byte[] raw = bytes("5;ext=1\r\nhola \r\n6\r\nmundo!\r\n0\r\nX-Trailer: ignorado\r\n\r\nGET /");
+
+        // When
+        boolean complete = false;
+        int fed = 0;
+        while (!complete) {
+            complete = decoder.decode(ByteBuffer.wrap(raw, fed++, 1));
+        }
+        RequestBody body = decoder.finish();
+
+        // Then
+        assertEquals(raw.length - "GET /".length(), fed, "Los bytes de la siguiente solicitud no se consumen");
+        assertEquals("hola mundo!", body.asString());
+        assertFalse(body.isSpooled());
+    }
+
+    @Test
+    @DisplayName("Should spool bodies above the memory threshold to a temporary file deleted on close")
+    void shouldSpoolLargeBodiesToDisk(@TempDir Path spoolDirectory) throws IOException {
+        // Given
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        HttpBodyDecoder decoder = new HttpBodyDecoder(1024 * 1024, 4096, spoolDirectory);
+        decoder.start(head("POST / HTTP/1.1\r\nContent-Length: " + content.length + "\r\n\r\n"));
+
+        // When
+        assertTrue(decoder.decode(ByteBuffer.wrap(content)));
+        RequestBody body = decoder.finish();
+
+        // Then
+        assertTrue(body.isSpooled());
+        assertEquals(content.length, body.length());
+        try (InputStream in = body.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertEquals(1, fileCount(spoolDirectory));
+        body.close();
+        assertEquals(0, fileCount(spoolDirectory));
+    }
+
+    @Test
+    @DisplayName("Should reject oversized, ambiguous and unsupported bodies")
+    void shouldRejectInvalidBodies() throws IOException {
+        HttpBodyDecoder decoder = new HttpBodyDecoder(16, 8);
+
+        assertStatus(413, () -> decoder.start(head("POST / HTTP/1.1\r\nContent-Length: 17\r\n\r\n")));
+        assertStatus(400, () -> decoder.start(
+                head("POST / HTTP/1.1\r\nContent-Length: 3\r\nTransfer-Encoding: chunked\r\n\r\n")));
+        assertStatus(501, () -> decoder.start(head("POST / HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n")));
+
+        decoder.start(head("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"));
+        assertStatus(413, () -> decoder.decode(ByteBuffer.wrap(bytes("a\r\n0123456789\r\n8\r\n"))));
+        decoder.start(head("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"));
+        assertStatus(400, () -> decoder.decode(ByteBuffer.wrap(bytes("zz\r\n"))));
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void assertStatus(int status, ThrowingCall call) {
+        HttpParseException error = assertThrows(HttpParseException.class, call::run);
+        assertEquals(status, error.getStatus());
+    }
+
+    private static HttpRequestHead head(String raw) throws HttpParseException {
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+        assertTrue(decoder.decode(ByteBuffer.wrap(bytes(raw))));
+        return decoder.head();
+    }
+
+    private static byte[] bytes(String raw) {
+        return raw.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private interface ThrowingCall {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,114 @@
+package escuela.edu.co.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests para el parser incremental de solicitudes HTTP.
+ */
+class HttpRequestDecoderTest {
+
+    @Test
+    @DisplayName("Should decode a request delivered one byte at a time")
+    void shouldDecodeRequestDeliveredByteByByte() throws HttpParseException {
+        // Given
+        byte[] raw = bytes("POST /app/echo?name=uno HTTP/1.1\r\nHost: localhost\r\nContent-Length: 4\r\n\r\nbody");
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+
+        // When
+        boolean complete = false;
+        int fed = 0;
+        while (!complete) {
+            ByteBuffer chunk = ByteBuffer.wrap(raw, fed++, 1);
+            complete = decoder.decode(chunk);
+        }
+
+        // Then
+        HttpRequestHead head = decoder.head();
+        assertEquals(raw.length - 4, fed, "El decoder se detiene al final de los headers");
+        assertSame("POST", head.getMethod());
+        assertEquals("/app/echo", head.getPath());
+        assertEquals("name=uno", head.getQueryString());
+        assertSame("HTTP/1.1", head.getVersion());
+        assertEquals("localhost", head.getHeader("host"));
+        assertEquals(4, head.getContentLength());
+    }
+
+    @Test
+    @DisplayName("Should tolerate the whitespace and line endings allowed by the RFC")
+    void shouldTolerateRfcWhitespace() throws HttpParseException {
+        // Given
+        ByteBuffer in = ByteBuffer.wrap(bytes("\r\nGET  /index.html\tHTTP/1.1\n" +
+                "X-Custom-Header:\tvalor con espacios  \r\n" +
+                "ACCEPT:text/html\r\n" +
+                "Accept: application/json\r\n" +
+                "X-Folded: primera\r\n  segunda\r\n\r\n"));
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+
+        // When
+        boolean complete = decoder.decode(in);
+
+        // Then
+        HttpRequestHead head = decoder.head();
+        assertTrue(complete);
+        assertEquals("/index.html", head.getPath());
+        assertEquals("valor con espacios", head.getHeader("x-custom-header"));
+        assertEquals("text/html, application/json", head.getHeader("accept"));
+        assertEquals("primera segunda", head.getHeader("x-folded"));
+        assertEquals(-1, head.getContentLength());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed requests and enforce size limits")
+    void shouldRejectMalformedAndOversizedRequests() {
+        assertStatus(400, new HttpRequestDecoder(), "GET /a HTTP/1.1\r\nHost : x\r\n\r\n");
+        assertStatus(400, new HttpRequestDecoder(), "GET /a HTTP/1.1\r\nContent-Length: -3\r\n\r\n");
+        assertStatus(400, new HttpRequestDecoder(), "GET /a HTTP/1.1 extra\r\n\r\n");
+        assertStatus(414, new HttpRequestDecoder(64, 1024, 10), "GET /" + "a".repeat(100) + " HTTP/1.1\r\n\r\n");
+        assertStatus(431, new HttpRequestDecoder(64, 32, 10), "GET / HTTP/1.1\r\nCookie: " + "a".repeat(40) + "\r\n\r\n");
+        assertStatus(431, new HttpRequestDecoder(64, 1024, 2), "GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\nC: 3\r\n\r\n");
+    }
+
+    @Test
+    @DisplayName("Should reuse the same head for pipelined requests after reset")
+    void shouldReuseHeadForPipelinedRequests() throws HttpParseException {
+        // Given
+        ByteBuffer in = ByteBuffer.wrap(bytes("GET /uno HTTP/1.1\r\nX-Solo-Primera: si\r\n\r\n" +
+                "DELETE /dos HTTP/1.0\r\n\r\n"));
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+
+        // When
+        assertTrue(decoder.decode(in));
+        HttpRequestHead first = decoder.head();
+        assertEquals("/uno", first.getPath());
+        decoder.reset();
+        assertTrue(decoder.decode(in));
+
+        // Then
+        assertSame(first, decoder.head());
+        assertEquals("DELETE", first.getMethod());
+        assertEquals("/dos", first.getPath());
+        assertSame("HTTP/1.0", first.getVersion());
+        assertNull(first.getHeader("x-solo-primera"));
+        assertFalse(in.hasRemaining());
+    }
+
+    private static void assertStatus(int status, HttpRequestDecoder decoder, String raw) {
+        HttpParseException error = assertThrows(HttpParseException.class,
+                () -> decoder.decode(ByteBuffer.wrap(bytes(raw))), raw);
+        assertEquals(status, error.getStatus(), raw);
+    }
+
+    private static byte[] bytes(String raw) {
+        return raw.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,78 @@
+package escuela.edu.co.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests para la escritura de respuestas con headers precodificados.
+ */
+class ResponseWriterTest {
+
+    @Test
+    @DisplayName("Should write the same bytes as the string-built headers, including non-ASCII bodies")
+    void shouldWriteHeadersAndBody() throws IOException {
+        // Given
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        HttpOutputStream out = new HttpOutputStream(raw);
+        out.setKeepAlive(true);
+        byte[] body = "{\"saludo\": \"¡Hola, ñandú!\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        ResponseWriter.write(out, "201 Created", "application/json", "Location: /notes/7\r\n", body);
+        ResponseWriter.writeHead(out, "200 OK", "video/mp4", 12_345_678_901L, "");
+
+        // Then
+        assertEquals("HTTP/1.1 201 Created\r\n" +
+                "Content-Type: application/json\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Vary: Accept-Encoding\r\n" +
+                "Location: /notes/7\r\n" +
+                "Connection: keep-alive\r\n\r\n" +
+                "{\"saludo\": \"¡Hola, ñandú!\"}" +
+                "HTTP/1.1 200 OK\r\n" +
+                "Content-Type: video/mp4\r\n" +
+                "Content-Length: 12345678901\r\n" +
+                "Connection: keep-alive\r\n\r\n", raw.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should fall back to a dedicated buffer when headers do not fit in a pooled one")
+    void shouldHandleHeadersLargerThanPooledBuffer() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String cookie = "Set-Cookie: token=" + "a".repeat(4 * ResponseWriter.HEADER_BUFFER_SIZE) + "\r\n";
+
+        // When
+        ResponseWriter.write(out, "200 OK", "text/plain; charset=utf-8", cookie, new byte[0]);
+
+        // Then
+        String response = out.toString(StandardCharsets.US_ASCII);
+        assertTrue(response.contains(cookie));
+        assertTrue(response.endsWith("Content-Length: 0\r\nVary: Accept-Encoding\r\n" + cookie
+                + "Connection: close\r\n\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should reuse released buffers and ignore buffers of another size")
+    void shouldReuseBuffersFromPool() {
+        BufferPool pool = new BufferPool(64, 2);
+        ByteBuffer first = pool.acquire();
+        first.put((byte) 1);
+
+        pool.release(first);
+        pool.release(ByteBuffer.allocate(32));
+
+        assertEquals(1, pool.available());
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position(), "El buffer se entrega vacío");
+    }
+}